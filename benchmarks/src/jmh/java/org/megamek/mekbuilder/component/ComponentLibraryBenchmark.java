@@ -0,0 +1,63 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to read every component from each of the sources the {@link ComponentLibrary}
+ * can load from. Each invocation starts from the data files, as a library does the first time it is used.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ComponentLibraryBenchmark {
+
+    /** The binary catalog, the json files read by the streaming parser, or the json files read by databind */
+    @Param({"catalog", "streaming", "databind"})
+    public String source;
+
+    @Benchmark
+    public void coldLoad(Blackhole bh) {
+        switch (source) {
+            case "catalog":
+                final ComponentCatalog catalog = ComponentCatalog.open();
+                for (ComponentType type : ComponentType.values()) {
+                    bh.consume(catalog.read(type));
+                }
+                break;
+            case "streaming":
+                final JsonFactory factory = ComponentLibrary.createMapper().getFactory();
+                for (ComponentType type : ComponentType.values()) {
+                    bh.consume(ComponentLibrary.readJson(factory, type));
+                }
+                break;
+            default:
+                for (List<? extends Component> list : ComponentLibrary.loadJson().values()) {
+                    bh.consume(list);
+                }
+                break;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.tech;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up every construction option by its key.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ConstructionOptionBenchmark {
+
+    private ConstructionOptionKey[] keys;
+
+    @Setup
+    public void setup() {
+        keys = ConstructionOptionKey.values();
+        ConstructionOptionRegistry.loadAll();
+    }
+
+    @Benchmark
+    public void getAll(Blackhole bh) {
+        for (ConstructionOptionKey key : keys) {
+            bh.consume(key.get());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.tech;
+
+import org.megamek.mekbuilder.component.Component;
+import org.megamek.mekbuilder.component.ComponentLibrary;
+import org.megamek.mekbuilder.component.TechAvailabilityIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures checking every component in the library against a tech filter, both directly and through
+ * the cached {@link TechAvailabilityIndex}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TechFilterBenchmark {
+
+    @Param({"IS", "CLAN", "ALL"})
+    public TechBase techBase;
+
+    /** Whether to use era-based progression, which also checks faction-specific dates */
+    @Param({"false", "true"})
+    public boolean eraBased;
+
+    private List<Component> components;
+    private ITechFilter filter;
+
+    @Setup
+    public void setup() {
+        ComponentLibrary.getInstance().loadAll();
+        components = new ArrayList<>(ComponentLibrary.getInstance().getAllComponents());
+        filter = new TechAvailabilityIndex.FilterKey(3067, techBase, TechLevel.ADVANCED,
+                eraBased ? Faction.FS : null, eraBased, true);
+    }
+
+    @Benchmark
+    public int isLegal() {
+        int count = 0;
+        for (int i = 0; i < components.size(); i++) {
+            if (filter.isLegal(components.get(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public void availabilityIndex(Blackhole bh) {
+        bh.consume(TechAvailabilityIndex.getInstance().legal(filter));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import org.megamek.mekbuilder.component.ComponentLibrary;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the most frequent operations on a {@link MekBuild} while it is being edited.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class MekBuildBenchmark {
+
+    private static final String[] WEAPONS = {
+            "Large Laser", "Large Laser", "Medium Laser", "Medium Laser", "Medium Laser", "Medium Laser"
+    };
+
+    private MekBuild mek;
+
+    @Setup
+    public void setup() {
+        ComponentLibrary.getInstance().loadAll();
+        mek = new MekBuild();
+        mek.setTonnage(60);
+        mek.setBaseWalkMP(5);
+        mek.setAdditionalHeatSinkCount(6);
+        for (String key : WEAPONS) {
+            mek.addMount(mek.createMount(key));
+        }
+    }
+
+    @Benchmark
+    public MekBuild construct() {
+        return new MekBuild();
+    }
+
+    /**
+     * Changes tonnage and speed and changes them back, which also adjusts the engine each time.
+     */
+    @Benchmark
+    public int tonnageAndWalkRoundTrip() {
+        mek.setTonnage(80);
+        mek.setBaseWalkMP(4);
+        mek.setTonnage(60);
+        mek.setBaseWalkMP(5);
+        return mek.getEngineRating();
+    }
+
+    /**
+     * Recalculates the weight of every mount, as happens after each edit.
+     */
+    @Benchmark
+    public double buildWeight() {
+        mek.markModified();
+        return mek.buildWeight();
+    }
+
+    /**
+     * Repeats the weight query without any change to the unit.
+     */
+    @Benchmark
+    public double buildWeightUnchanged() {
+        return mek.buildWeight();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.unit.DesignFingerprint;
+import org.megamek.mekbuilder.unit.UnitBuild;
+
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Builds and evaluates designs in bulk without a user interface. Designs are built on a pool of worker
+ * threads and a {@link DesignResult} is passed to the caller's consumer as each one finishes, so results
+ * arrive in completion order rather than batch order; {@link DesignResult#getIndex()} gives the position
+ * in the batch.
+ *
+ * <p>No more than a fixed number of designs are in progress at once. When that limit is reached, no
+ * more designs are taken from the source until a result has been delivered, so large batches can be
+ * streamed from a lazy source without holding every design or unit in memory.</p>
+ *
+ * <p>The consumer is always called on the thread that called {@code evaluate}, so it does not need to be
+ * thread-safe. A design that cannot be built or evaluated produces a failed result instead of
+ * stopping the batch.</p>
+ *
+ * <p>If a {@link StatsCache} is set and the designs can be fingerprinted, each design's
+ * {@link DesignFingerprint} is looked up in the cache before the unit is built. A design that is found is
+ * not built at all, and the stored values are used instead.</p>
+ */
+public class BatchEvaluator implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int maxInFlight;
+    private volatile StatsCache statsCache;
+
+    /**
+     * Creates an evaluator with its own thread pool, which is shut down by {@link #close()}.
+     *
+     * @param threads The number of worker threads
+     */
+    public BatchEvaluator(int threads) {
+        this(BoundedCompletion.createPool("batch-evaluator", threads), threads * 4, true);
+    }
+
+    /**
+     * Creates an evaluator that runs on an existing executor. The executor is not shut down by {@link #close()}.
+     *
+     * @param executor    The executor used to build and evaluate the designs
+     * @param maxInFlight The maximum number of designs that can be in progress at once
+     */
+    public BatchEvaluator(ExecutorService executor, int maxInFlight) {
+        this(executor, maxInFlight, false);
+    }
+
+    private BatchEvaluator(ExecutorService executor, int maxInFlight, boolean ownsExecutor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one design must be allowed in progress");
+        }
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * @return The maximum number of designs that can be in progress at once
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @return The cache used for design values, or {@code null} if values are always calculated
+     */
+    public @Nullable StatsCache getStatsCache() {
+        return statsCache;
+    }
+
+    /**
+     * Sets a cache for the calculated values of designs, so that designs that have already been evaluated
+     * do not need to be calculated again.
+     *
+     * @param statsCache The cache, or {@code null} to always calculate the values
+     */
+    public void setStatsCache(@Nullable StatsCache statsCache) {
+        this.statsCache = statsCache;
+    }
+
+    /**
+     * Builds and evaluates a series of Mek designs.
+     *
+     * @param designs The designs to evaluate. The stream is consumed lazily.
+     * @param results Receives the result for each design
+     * @return        The number of designs evaluated
+     * @throws InterruptedException If the calling thread is interrupted while waiting for results
+     */
+    public long evaluate(Stream<? extends MekDesign> designs, Consumer<? super DesignResult> results)
+            throws InterruptedException {
+        return evaluate(designs.iterator(), MekDesign::build, MekDesign::fingerprint, results);
+    }
+
+    /**
+     * Builds and evaluates a series of designs. The {@link StatsCache} is not used, as there is no way to
+     * fingerprint the descriptions without building them.
+     *
+     * @param designs The design descriptions. The next description is not requested until there is room
+     *                for another design in progress.
+     * @param builder Creates the unit from a description. This is called on a worker thread.
+     * @param results Receives the result for each design
+     * @param <T>     The type of design description
+     * @return        The number of designs evaluated
+     * @throws InterruptedException If the calling thread is interrupted while waiting for results. Any
+     *                              designs still in progress are cancelled, as they are if the consumer throws.
+     */
+    public <T> long evaluate(Iterator<T> designs, Function<? super T, ? extends UnitBuild> builder,
+                             Consumer<? super DesignResult> results) throws InterruptedException {
+        return evaluate(designs, builder, null, results);
+    }
+
+    /**
+     * Builds and evaluates a series of designs, skipping any design whose values are already in the
+     * {@link StatsCache}.
+     *
+     * @param designs       The design descriptions. The next description is not requested until there is room
+     *                      for another design in progress.
+     * @param builder       Creates the unit from a description. This is called on a worker thread.
+     * @param fingerprinter Creates the cache key from a description, or {@code null} if the cache is not used.
+     *                      This is called on a worker thread. Descriptions that build the same unit should have
+     *                      the same fingerprint.
+     * @param results       Receives the result for each design
+     * @param <T>           The type of design description
+     * @return              The number of designs evaluated
+     * @throws InterruptedException If the calling thread is interrupted while waiting for results. Any
+     *                              designs still in progress are cancelled, as they are if the consumer throws.
+     */
+    public <T> long evaluate(Iterator<T> designs, Function<? super T, ? extends UnitBuild> builder,
+                             @Nullable Function<? super T, DesignFingerprint> fingerprinter,
+                             Consumer<? super DesignResult> results) throws InterruptedException {
+        return BoundedCompletion.run(executor, maxInFlight, designs,
+                (i, design) -> evaluate(i, design, builder, fingerprinter), results, "Design evaluation failed");
+    }
+
+    private <T> DesignResult evaluate(long index, T design, Function<? super T, ? extends UnitBuild> builder,
+                                      @Nullable Function<? super T, DesignFingerprint> fingerprinter) {
+        final String name = String.valueOf(design);
+        try {
+            final StatsCache cache = statsCache;
+            if ((null == cache) || (null == fingerprinter)) {
+                return DesignResult.of(index, name, builder.apply(design));
+            }
+            final DesignFingerprint fingerprint = fingerprinter.apply(design);
+            DesignStats stats = cache.get(fingerprint);
+            if (null == stats) {
+                stats = DesignStats.of(builder.apply(design));
+                cache.put(fingerprint, stats);
+            }
+            return DesignResult.of(index, name, stats);
+        } catch (Exception ex) {
+            return DesignResult.failure(index, name, ex);
+        }
+    }
+
+    /**
+     * Shuts down the thread pool if it was created by this evaluator.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs a series of tasks on an executor with a fixed number in progress at once, passing each result to a
+ * consumer on the calling thread as it finishes. Used by {@link BatchEvaluator} and {@link MtfImporter}.
+ */
+final class BoundedCompletion {
+
+    /**
+     * A task for a single item in the batch.
+     *
+     * @param <T> The type of item
+     * @param <R> The type of result
+     */
+    @FunctionalInterface
+    interface Task<T, R> {
+        /**
+         * Produces the result for an item. This is called on a worker thread, and any exception should be
+         * captured in the result rather than thrown.
+         *
+         * @param index The position of the item in the batch
+         * @param item  The item
+         * @return      The result
+         */
+        R run(long index, T item);
+    }
+
+    private BoundedCompletion() {
+    }
+
+    /**
+     * Creates a fixed pool of daemon threads.
+     *
+     * @param name    The prefix for the thread names, which are numbered from one
+     * @param threads The number of threads
+     * @return        The executor
+     */
+    static ExecutorService createPool(String name, int threads) {
+        final AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            final Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Runs a task for each item. The next item is not requested until there is room for another task in
+     * progress. If the consumer throws or the calling thread is interrupted, any tasks still in progress
+     * are cancelled so they do not keep running on a shared executor.
+     *
+     * @param executor    The executor that runs the tasks
+     * @param maxInFlight The maximum number of tasks that can be in progress at once
+     * @param items       The items
+     * @param task        Produces the result for each item
+     * @param results     Receives the result for each item
+     * @param failure     The message used if a task throws an {@link Error}
+     * @param <T>         The type of item
+     * @param <R>         The type of result
+     * @return            The number of items processed
+     * @throws InterruptedException If the calling thread is interrupted while waiting for results
+     */
+    static <T, R> long run(ExecutorService executor, int maxInFlight, Iterator<T> items, Task<? super T, R> task,
+                           Consumer<? super R> results, String failure) throws InterruptedException {
+        final CompletionService<R> completion = new ExecutorCompletionService<>(executor);
+        // Tasks still in progress, so they can be cancelled if the batch stops early
+        final Set<Future<R>> pending = new HashSet<>();
+        long index = 0;
+        try {
+            while (items.hasNext()) {
+                if (pending.size() == maxInFlight) {
+                    deliver(completion.take(), pending, results, failure);
+                }
+                final T item = items.next();
+                final long i = index++;
+                pending.add(completion.submit(() -> task.run(i, item)));
+                // Deliver anything that has already finished without waiting
+                for (Future<R> done = completion.poll(); null != done; done = completion.poll()) {
+                    deliver(done, pending, results, failure);
+                }
+            }
+            while (!pending.isEmpty()) {
+                deliver(completion.take(), pending, results, failure);
+            }
+        } finally {
+            // Only non-empty if the consumer threw or the caller was interrupted
+            for (Future<R> future : pending) {
+                future.cancel(true);
+            }
+        }
+        return index;
+    }
+
+    private static <R> void deliver(Future<R> future, Set<Future<R>> pending, Consumer<? super R> results,
+                                    String failure) throws InterruptedException {
+        pending.remove(future);
+        final R result;
+        try {
+            result = future.get();
+        } catch (ExecutionException ex) {
+            // Exceptions are captured in the result, so this is an Error thrown by the worker.
+            throw new IllegalStateException(failure, ex.getCause());
+        }
+        results.accept(result);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.unit.UnitBuild;
+
+/**
+ * The calculated values for a single design evaluated by a {@link BatchEvaluator}, or the error that
+ * prevented the design from being evaluated. Results do not hold a reference to the unit.
+ */
+public class DesignResult {
+
+    private static final DesignStats FAILED = new DesignStats(0, 0, 0, 0, 0, 0, 0);
+
+    private final long index;
+    private final String name;
+    private final DesignStats stats;
+    private final Throwable error;
+
+    private DesignResult(long index, String name, DesignStats stats, @Nullable Throwable error) {
+        this.index = index;
+        this.name = name;
+        this.stats = stats;
+        this.error = error;
+    }
+
+    /**
+     * Calculates the values for a unit.
+     *
+     * @param index The position of the design in the batch
+     * @param name  The name used to identify the design
+     * @param unit  The unit built from the design
+     * @return      The result
+     */
+    public static DesignResult of(long index, String name, UnitBuild unit) {
+        return of(index, name, DesignStats.of(unit));
+    }
+
+    /**
+     * Creates a result from values that have already been calculated.
+     *
+     * @param index The position of the design in the batch
+     * @param name  The name used to identify the design
+     * @param stats The calculated values for the unit
+     * @return      The result
+     */
+    public static DesignResult of(long index, String name, DesignStats stats) {
+        return new DesignResult(index, name, stats, null);
+    }
+
+    /**
+     * Creates a result for a design that could not be built or evaluated.
+     *
+     * @param index The position of the design in the batch
+     * @param name  The name used to identify the design
+     * @param error The reason for the failure
+     * @return      The result
+     */
+    public static DesignResult failure(long index, String name, Throwable error) {
+        return new DesignResult(index, name, FAILED, error);
+    }
+
+    /**
+     * @return The position of the design in the batch, starting with zero
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Whether the design was built and evaluated
+     */
+    public boolean isSuccess() {
+        return null == error;
+    }
+
+    /**
+     * @return The reason the design could not be evaluated, or {@code null} if it was successful
+     */
+    public @Nullable Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return The declared tonnage of the unit
+     */
+    public double getTonnage() {
+        return stats.getTonnage();
+    }
+
+    /**
+     * @return The weight of all installed components
+     */
+    public double getBuildWeight() {
+        return stats.getBuildWeight();
+    }
+
+    /**
+     * @return The number of slots required by all installed components
+     */
+    public int getSlots() {
+        return stats.getSlots();
+    }
+
+    /**
+     * @return The cost of all installed components
+     */
+    public double getCost() {
+        return stats.getCost();
+    }
+
+    public int getMovementHeat() {
+        return stats.getMovementHeat();
+    }
+
+    public int getMaxWeaponHeat() {
+        return stats.getMaxWeaponHeat();
+    }
+
+    public int getHeatDissipation() {
+        return stats.getHeatDissipation();
+    }
+
+    /**
+     * @return The calculated values for the unit. For a failed result these are all zero.
+     */
+    public DesignStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        if (isSuccess()) {
+            return String.format("%d %s: %.3f/%.1f tons, %d slots, %.0f C-bills, heat %d+%d/%d",
+                    index, name, getBuildWeight(), getTonnage(), getSlots(), getCost(),
+                    getMovementHeat(), getMaxWeaponHeat(), getHeatDissipation());
+        }
+        return index + " " + name + ": " + error;
+    }
+}
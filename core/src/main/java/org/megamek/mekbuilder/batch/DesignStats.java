@@ -0,0 +1,131 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import org.megamek.mekbuilder.component.Mount;
+import org.megamek.mekbuilder.unit.UnitBuild;
+
+import java.util.Objects;
+
+/**
+ * The calculated values of a unit that can be cached by {@link org.megamek.mekbuilder.unit.DesignFingerprint}.
+ * These depend only on the values included in the fingerprint, so they are the same for any unit with the
+ * same fingerprint.
+ */
+public final class DesignStats {
+
+    private final double tonnage;
+    private final double buildWeight;
+    private final int slots;
+    private final double cost;
+    private final int movementHeat;
+    private final int maxWeaponHeat;
+    private final int heatDissipation;
+
+    public DesignStats(double tonnage, double buildWeight, int slots, double cost,
+                       int movementHeat, int maxWeaponHeat, int heatDissipation) {
+        this.tonnage = tonnage;
+        this.buildWeight = buildWeight;
+        this.slots = slots;
+        this.cost = cost;
+        this.movementHeat = movementHeat;
+        this.maxWeaponHeat = maxWeaponHeat;
+        this.heatDissipation = heatDissipation;
+    }
+
+    /**
+     * Calculates the values for a unit.
+     *
+     * @param unit The unit
+     * @return     The unit's values
+     */
+    public static DesignStats of(UnitBuild unit) {
+        int slots = 0;
+        double cost = 0;
+        for (Mount m : unit.getComponents()) {
+            slots += m.getComponentSlots();
+            cost += m.getComponentCost();
+        }
+        return new DesignStats(unit.getTonnage(), unit.buildWeight(), slots, cost,
+                unit.movementHeat(), unit.maxWeaponHeat(), unit.heatDissipation());
+    }
+
+    /**
+     * @return The declared tonnage of the unit
+     */
+    public double getTonnage() {
+        return tonnage;
+    }
+
+    /**
+     * @return The weight of all installed components
+     */
+    public double getBuildWeight() {
+        return buildWeight;
+    }
+
+    /**
+     * @return The number of slots required by all installed components
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    /**
+     * @return The cost of all installed components
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    public int getMovementHeat() {
+        return movementHeat;
+    }
+
+    public int getMaxWeaponHeat() {
+        return maxWeaponHeat;
+    }
+
+    public int getHeatDissipation() {
+        return heatDissipation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DesignStats)) {
+            return false;
+        }
+        final DesignStats other = (DesignStats) o;
+        return (Double.compare(tonnage, other.tonnage) == 0)
+                && (Double.compare(buildWeight, other.buildWeight) == 0)
+                && (slots == other.slots)
+                && (Double.compare(cost, other.cost) == 0)
+                && (movementHeat == other.movementHeat)
+                && (maxWeaponHeat == other.maxWeaponHeat)
+                && (heatDissipation == other.heatDissipation);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tonnage, buildWeight, slots, cost, movementHeat, maxWeaponHeat, heatDissipation);
+    }
+}
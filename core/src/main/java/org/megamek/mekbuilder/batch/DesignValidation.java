@@ -0,0 +1,133 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.validation.ValidationIssue;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of validating a single design file with a {@link ValidationPipeline}: the problems found
+ * with the unit, or the error that prevented the file from being loaded. Results do not hold a
+ * reference to the unit.
+ */
+public class DesignValidation {
+
+    private final long index;
+    private final Path file;
+    private final String name;
+    private final List<ValidationIssue> issues;
+    private final ValidationPipeline.Stage failedStage;
+    private final Throwable error;
+
+    private DesignValidation(long index, Path file, String name, List<ValidationIssue> issues,
+                             @Nullable ValidationPipeline.Stage failedStage, @Nullable Throwable error) {
+        this.index = index;
+        this.file = file;
+        this.name = name;
+        this.issues = Collections.unmodifiableList(issues);
+        this.failedStage = failedStage;
+        this.error = error;
+    }
+
+    /**
+     * @param index  The position of the file in the order it was found
+     * @param file   The design file
+     * @param name   The name of the unit
+     * @param issues The problems found with the unit
+     * @return       The result
+     */
+    public static DesignValidation of(long index, Path file, String name, List<ValidationIssue> issues) {
+        return new DesignValidation(index, file, name, issues, null, null);
+    }
+
+    /**
+     * @param index The position of the file in the order it was found
+     * @param file  The design file
+     * @param name  The name of the unit, or an empty string if the file could not be parsed
+     * @param stage The stage that failed
+     * @param error The reason for the failure
+     * @return      The result
+     */
+    public static DesignValidation failure(long index, Path file, String name,
+                                           ValidationPipeline.Stage stage, Throwable error) {
+        return new DesignValidation(index, file, name, Collections.emptyList(), stage, error);
+    }
+
+    /**
+     * @return The position of the file in the order it was found
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The problems found with the unit, which is empty if the design failed to load
+     */
+    public List<ValidationIssue> getIssues() {
+        return issues;
+    }
+
+    /**
+     * @return Whether the design was loaded and validated, regardless of whether any problems were found
+     */
+    public boolean isLoaded() {
+        return null == error;
+    }
+
+    /**
+     * @return Whether the design was loaded and no problems were found
+     */
+    public boolean isValid() {
+        return isLoaded() && issues.isEmpty();
+    }
+
+    /**
+     * @return The stage that failed, or {@code null} if the design was loaded
+     */
+    public @Nullable ValidationPipeline.Stage getFailedStage() {
+        return failedStage;
+    }
+
+    /**
+     * @return The reason the design could not be loaded, or {@code null} if it was loaded
+     */
+    public @Nullable Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        if (!isLoaded()) {
+            return file + ": " + failedStage + " failed: " + error;
+        }
+        return file + ": " + (isValid() ? "valid" : issues.size() + " issues");
+    }
+}
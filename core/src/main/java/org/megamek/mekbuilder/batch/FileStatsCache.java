@@ -0,0 +1,129 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.unit.DesignFingerprint;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stores design values on disk so they can be reused by later runs. Each fingerprint is stored in its
+ * own small text file, grouped into subdirectories by the first two digits of the fingerprint. Files are
+ * written to a temporary file and moved into place, so concurrent readers and writers in this or another
+ * process never see a partial file.
+ *
+ * <p>The values depend on the component data as well as the design. {@link MekDesign#fingerprint()} includes
+ * the version of the component data, so entries written before the data changed are no longer found, but they
+ * are not removed. Errors reading or writing the cache are
+ * reported but do not fail the lookup; a file that cannot be read is treated as a missing value.</p>
+ */
+public class FileStatsCache implements StatsCache {
+
+    private static final String FORMAT = "stats1";
+    private static final String SUFFIX = ".stats";
+
+    private final Path directory;
+
+    /**
+     * @param directory The directory that holds the cache. It is created if it does not exist.
+     * @throws IOException If the directory cannot be created
+     */
+    public FileStatsCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private Path path(DesignFingerprint fingerprint) {
+        final String name = fingerprint.toString();
+        return directory.resolve(name.substring(0, 2)).resolve(name + SUFFIX);
+    }
+
+    @Override
+    public @Nullable DesignStats get(DesignFingerprint fingerprint) {
+        final Path path = path(fingerprint);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            final List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            return lines.isEmpty() ? null : parse(lines.get(0));
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Could not read cached stats from " + path + ": " + ex);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(DesignFingerprint fingerprint, DesignStats stats) {
+        final Path path = path(fingerprint);
+        try {
+            Files.createDirectories(path.getParent());
+            final Path temp = Files.createTempFile(path.getParent(), fingerprint.toString(), ".tmp");
+            try {
+                Files.write(temp, Collections.singletonList(format(stats)), StandardCharsets.UTF_8);
+                try {
+                    Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            System.err.println("Could not write cached stats to " + path + ": " + ex);
+        }
+    }
+
+    static String format(DesignStats stats) {
+        return String.join(" ", FORMAT,
+                Double.toString(stats.getTonnage()),
+                Double.toString(stats.getBuildWeight()),
+                Integer.toString(stats.getSlots()),
+                Double.toString(stats.getCost()),
+                Integer.toString(stats.getMovementHeat()),
+                Integer.toString(stats.getMaxWeaponHeat()),
+                Integer.toString(stats.getHeatDissipation()));
+    }
+
+    /**
+     * @return The values, or {@code null} if the line was written in a different format
+     * @throws NumberFormatException If the line is not valid
+     */
+    static @Nullable DesignStats parse(String line) {
+        final String[] fields = line.trim().split(" ");
+        if ((fields.length != 8) || !FORMAT.equals(fields[0])) {
+            return null;
+        }
+        return new DesignStats(Double.parseDouble(fields[1]),
+                Double.parseDouble(fields[2]),
+                Integer.parseInt(fields[3]),
+                Double.parseDouble(fields[4]),
+                Integer.parseInt(fields[5]),
+                Integer.parseInt(fields[6]),
+                Integer.parseInt(fields[7]));
+    }
+}
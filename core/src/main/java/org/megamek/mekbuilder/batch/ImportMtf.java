@@ -0,0 +1,119 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Command line entry point that imports every MegaMek mek file in a directory and reports the files that could
+ * not be read and the equipment names that could not be matched to a component, most frequent first. The exit
+ * status is 0 if every file was imported completely, 2 if anything could not be read or matched, and 1 for a
+ * usage error.
+ */
+public final class ImportMtf {
+
+    private static final String USAGE = "Usage: ImportMtf [options] <directory>\n"
+            + "  --threads <count>      Worker threads (default number of processors)\n"
+            + "  --verbose              List the unresolved names for each file";
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean verbose = false;
+    private Path directory = null;
+
+    private ImportMtf() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final ImportMtf cli = new ImportMtf();
+        try {
+            cli.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        System.exit(cli.run() ? 0 : 2);
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException(args[i] + " requires a value");
+                    }
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--verbose":
+                    verbose = true;
+                    break;
+                default:
+                    if (args[i].startsWith("--") || (null != directory)) {
+                        throw new IllegalArgumentException("Unexpected argument " + args[i]);
+                    }
+                    directory = Paths.get(args[i]);
+            }
+        }
+        if (null == directory) {
+            throw new IllegalArgumentException("No directory given");
+        }
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException(directory + " is not a directory");
+        }
+    }
+
+    /**
+     * @return Whether every file was imported completely
+     */
+    private boolean run() throws IOException, InterruptedException {
+        final Map<String, Integer> unresolved = new HashMap<>();
+        final long[] incomplete = new long[1];
+        final long[] failed = new long[1];
+        final long start = System.nanoTime();
+        final long total;
+        try (MtfImporter importer = new MtfImporter(threads)) {
+            total = importer.importAll(directory, result -> {
+                if (!result.isSuccess()) {
+                    failed[0]++;
+                    System.out.println(result);
+                } else if (!result.isComplete()) {
+                    incomplete[0]++;
+                    result.getUnresolved().forEach(name -> unresolved.merge(name, 1, Integer::sum));
+                    if (verbose) {
+                        System.out.println(result);
+                    }
+                }
+            });
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.println(String.format("%d files in %.1f s: %d complete, %d with unresolved names, %d failed",
+                total, seconds, total - incomplete[0] - failed[0], incomplete[0], failed[0]));
+        final List<Map.Entry<String, Integer>> names = new ArrayList<>(unresolved.entrySet());
+        names.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        for (Map.Entry<String, Integer> entry : names) {
+            System.out.println(String.format("%6d  %s", entry.getValue(), entry.getKey()));
+        }
+        return (incomplete[0] == 0) && (failed[0] == 0);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.unit.DesignFingerprint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps a limited number of design values in memory, dropping the least recently used when full.
+ * It can be placed in front of a slower cache such as a {@link FileStatsCache}; values that are not in
+ * memory are looked up in the backing cache, and new values are written to both.
+ */
+public class LruStatsCache implements StatsCache {
+
+    private final Map<DesignFingerprint, DesignStats> cache;
+    private final StatsCache backing;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param capacity The maximum number of values to keep in memory
+     */
+    public LruStatsCache(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param capacity The maximum number of values to keep in memory
+     * @param backing  A cache to use for values that are not in memory, or {@code null} for none
+     */
+    public LruStatsCache(int capacity, @Nullable StatsCache backing) {
+        this.backing = backing;
+        cache = new LinkedHashMap<DesignFingerprint, DesignStats>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DesignFingerprint, DesignStats> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public @Nullable DesignStats get(DesignFingerprint fingerprint) {
+        synchronized (cache) {
+            final DesignStats stats = cache.get(fingerprint);
+            if (null != stats) {
+                hits++;
+                return stats;
+            }
+            misses++;
+        }
+        if (null == backing) {
+            return null;
+        }
+        // Look up in the backing cache outside the lock, since it may be slow
+        final DesignStats stats = backing.get(fingerprint);
+        if (null != stats) {
+            synchronized (cache) {
+                cache.put(fingerprint, stats);
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public void put(DesignFingerprint fingerprint, DesignStats stats) {
+        synchronized (cache) {
+            cache.put(fingerprint, stats);
+        }
+        if (null != backing) {
+            backing.put(fingerprint, stats);
+        }
+    }
+
+    /**
+     * @return The number of values currently held in memory
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * @return The number of lookups that were found in memory
+     */
+    public long getHits() {
+        synchronized (cache) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return The number of lookups that were not found in memory, whether or not they were found
+     *         in the backing cache
+     */
+    public long getMisses() {
+        synchronized (cache) {
+            return misses;
+        }
+    }
+}
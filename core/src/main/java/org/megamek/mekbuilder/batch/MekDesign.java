@@ -0,0 +1,409 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.component.*;
+import org.megamek.mekbuilder.tech.Faction;
+import org.megamek.mekbuilder.tech.TechBase;
+import org.megamek.mekbuilder.unit.DesignFingerprint;
+import org.megamek.mekbuilder.unit.MekBuild;
+import org.megamek.mekbuilder.unit.MekConfiguration;
+import org.megamek.mekbuilder.unit.UnitLocation;
+import org.megamek.mekbuilder.unit.UnitType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A description of a Mek design that can be used to create a {@link MekBuild}. Components are identified
+ * by their internal names; a {@code null} component uses the default for the unit. The field names
+ * match those used in json design files.
+ */
+public class MekDesign {
+
+    private String chassis = "";
+    private String model = "";
+    private String source = "";
+    private int year = 3067;
+    private TechBase techBase = TechBase.IS;
+    private Faction faction = null;
+    private MekConfiguration.SubType configuration = MekConfiguration.SubType.STANDARD_BIPED;
+    private boolean omni = false;
+    private double tonnage = 20;
+    private int walkMP = 1;
+    private String engine = null;
+    private String structure = null;
+    private String gyro = null;
+    private String cockpit = null;
+    private String myomer = null;
+    private String heatSinkType = null;
+    private int heatSinks = 0;
+    private String secondaryMotiveType = null;
+    private int secondaryMP = 0;
+    private final List<Equipment> equipment = new ArrayList<>();
+
+    /**
+     * A piece of equipment mounted on the unit.
+     */
+    public static class Equipment {
+        private String component;
+        private UnitLocation location = UnitLocation.NO_LOCATION;
+        private double size = 1.0;
+        private boolean rearFacing = false;
+        private boolean armored = false;
+
+        // Used by databind
+        private Equipment() {
+        }
+
+        /**
+         * @param component The component's internal name
+         * @param location  The location of the equipment
+         */
+        public Equipment(String component, UnitLocation location) {
+            this.component = component;
+            this.location = location;
+        }
+
+        public String getComponent() {
+            return component;
+        }
+
+        public UnitLocation getLocation() {
+            return location;
+        }
+
+        public double getSize() {
+            return size;
+        }
+
+        public void setSize(double size) {
+            this.size = size;
+        }
+
+        public boolean isRearFacing() {
+            return rearFacing;
+        }
+
+        public void setRearFacing(boolean rearFacing) {
+            this.rearFacing = rearFacing;
+        }
+
+        public boolean isArmored() {
+            return armored;
+        }
+
+        public void setArmored(boolean armored) {
+            this.armored = armored;
+        }
+    }
+
+    /**
+     * Creates a mapper that reads and writes designs using the field names of this class. A null value in
+     * the json leaves the default in place.
+     *
+     * @return The mapper
+     */
+    public static ObjectMapper createMapper() {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.setDefaultSetterInfo(JsonSetter.Value.forValueNulls(Nulls.SKIP));
+        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE));
+        return mapper;
+    }
+
+    /**
+     * Creates a new unit from the description.
+     *
+     * @return The unit
+     * @throws IllegalArgumentException If a component cannot be found or is the wrong type, or
+     *                                  the configuration is not valid for a BattleMek
+     */
+    public MekBuild build() {
+        final MekBuild mek = new MekBuild();
+        mek.setChassis(chassis);
+        mek.setModel(model);
+        mek.setSource(source);
+        mek.setYear(year);
+        mek.setTechBase(techBase);
+        mek.setFaction(faction);
+        mek.setTonnage(tonnage);
+        final MekConfiguration config = MekConfiguration.getConfiguration(UnitType.BATTLE_MEK, configuration);
+        if (null == config) {
+            throw new IllegalArgumentException("No BattleMek configuration " + configuration);
+        }
+        mek.setConfiguration(config);
+        mek.setOmni(omni);
+        if (null != engine) {
+            mek.setEngineType((MVFEngine) lookup(engine, ComponentType.ENGINE));
+        }
+        mek.setBaseWalkMP(walkMP);
+        if (null != structure) {
+            mek.setStructureType(lookup(structure, ComponentType.MEK_STRUCTURE));
+        }
+        if (null != gyro) {
+            mek.setGyroType(lookup(gyro, ComponentType.GYRO));
+        }
+        if (null != cockpit) {
+            mek.setCockpitType((Cockpit) lookup(cockpit, ComponentType.COCKPIT));
+        }
+        if (null != myomer) {
+            mek.setMyomerType(lookup(myomer, ComponentType.MYOMER));
+        }
+        if (null != heatSinkType) {
+            mek.setHeatSinkType((HeatSink) lookup(heatSinkType, ComponentType.HEAT_SINK));
+        }
+        mek.setAdditionalHeatSinkCount(heatSinks);
+        if (null != secondaryMotiveType) {
+            mek.setSecondaryMotiveType((SecondaryMotiveSystem) lookup(secondaryMotiveType,
+                    ComponentType.SECONDARY_MOTIVE_SYSTEM));
+        }
+        mek.setSecondaryMP(secondaryMP);
+        for (Equipment eq : equipment) {
+            final Mount mount = mek.createMount(lookup(eq.component, null));
+            mount.setLocation(eq.location);
+            mount.setSize(eq.size);
+            mount.setRearFacing(eq.rearFacing);
+            mount.setArmored(eq.armored);
+            mek.addMount(mount);
+        }
+        return mek;
+    }
+
+    /**
+     * Fingerprints the values of the description that are used to build the unit, along with the version of
+     * the component data, so that values calculated for the unit can be cached without building it. The
+     * chassis, model, and source are not included.
+     *
+     * @return The fingerprint
+     */
+    public DesignFingerprint fingerprint() {
+        final DesignFingerprint.Builder builder = DesignFingerprint.builder()
+                .add(getClass().getName())
+                .add(ComponentLibrary.getInstance().getDataVersion())
+                .add(year)
+                .add(techBase)
+                .add(faction)
+                .add(configuration)
+                .add(omni)
+                .add(tonnage)
+                .add(walkMP)
+                .add(engine)
+                .add(structure)
+                .add(gyro)
+                .add(cockpit)
+                .add(myomer)
+                .add(heatSinkType)
+                .add(heatSinks)
+                .add(secondaryMotiveType)
+                .add(secondaryMP)
+                .add(equipment.size());
+        for (Equipment eq : equipment) {
+            builder.add(eq.component)
+                    .add(eq.location)
+                    .add(eq.size)
+                    .add(eq.rearFacing)
+                    .add(eq.armored);
+        }
+        return builder.build();
+    }
+
+    private static Component lookup(String key, @Nullable ComponentType type) {
+        final Component component = ComponentLibrary.getInstance().getComponent(key);
+        if (null == component) {
+            throw new IllegalArgumentException("Unknown component " + key);
+        }
+        if ((null != type) && (component.getType() != type)) {
+            throw new IllegalArgumentException(key + " is not of type " + type);
+        }
+        return component;
+    }
+
+    public String getChassis() {
+        return chassis;
+    }
+
+    public void setChassis(String chassis) {
+        this.chassis = chassis;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public TechBase getTechBase() {
+        return techBase;
+    }
+
+    public void setTechBase(TechBase techBase) {
+        this.techBase = techBase;
+    }
+
+    public @Nullable Faction getFaction() {
+        return faction;
+    }
+
+    public void setFaction(@Nullable Faction faction) {
+        this.faction = faction;
+    }
+
+    public MekConfiguration.SubType getConfiguration() {
+        return configuration;
+    }
+
+    public void setConfiguration(MekConfiguration.SubType configuration) {
+        this.configuration = configuration;
+    }
+
+    public boolean isOmni() {
+        return omni;
+    }
+
+    public void setOmni(boolean omni) {
+        this.omni = omni;
+    }
+
+    public double getTonnage() {
+        return tonnage;
+    }
+
+    public void setTonnage(double tonnage) {
+        this.tonnage = tonnage;
+    }
+
+    public int getWalkMP() {
+        return walkMP;
+    }
+
+    public void setWalkMP(int walkMP) {
+        this.walkMP = walkMP;
+    }
+
+    public @Nullable String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(@Nullable String engine) {
+        this.engine = engine;
+    }
+
+    public @Nullable String getStructure() {
+        return structure;
+    }
+
+    public void setStructure(@Nullable String structure) {
+        this.structure = structure;
+    }
+
+    public @Nullable String getGyro() {
+        return gyro;
+    }
+
+    public void setGyro(@Nullable String gyro) {
+        this.gyro = gyro;
+    }
+
+    public @Nullable String getCockpit() {
+        return cockpit;
+    }
+
+    public void setCockpit(@Nullable String cockpit) {
+        this.cockpit = cockpit;
+    }
+
+    public @Nullable String getMyomer() {
+        return myomer;
+    }
+
+    public void setMyomer(@Nullable String myomer) {
+        this.myomer = myomer;
+    }
+
+    public @Nullable String getHeatSinkType() {
+        return heatSinkType;
+    }
+
+    public void setHeatSinkType(@Nullable String heatSinkType) {
+        this.heatSinkType = heatSinkType;
+    }
+
+    /**
+     * @return The number of heat sinks in addition to those provided weight-free by the engine
+     */
+    public int getHeatSinks() {
+        return heatSinks;
+    }
+
+    public void setHeatSinks(int heatSinks) {
+        this.heatSinks = heatSinks;
+    }
+
+    public @Nullable String getSecondaryMotiveType() {
+        return secondaryMotiveType;
+    }
+
+    public void setSecondaryMotiveType(@Nullable String secondaryMotiveType) {
+        this.secondaryMotiveType = secondaryMotiveType;
+    }
+
+    public int getSecondaryMP() {
+        return secondaryMP;
+    }
+
+    public void setSecondaryMP(int secondaryMP) {
+        this.secondaryMP = secondaryMP;
+    }
+
+    public List<Equipment> getEquipment() {
+        return equipment;
+    }
+
+    @Override
+    public String toString() {
+        return (chassis + " " + model).trim();
+    }
+}
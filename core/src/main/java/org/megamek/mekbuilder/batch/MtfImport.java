@@ -0,0 +1,128 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.unit.MekBuild;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The unit built from a single MegaMek mek file by an {@link MtfImporter}, with the names of any equipment
+ * that could not be matched to a component, or the error that prevented the file from being read.
+ */
+public class MtfImport {
+
+    private final long index;
+    private final String name;
+    private final MekBuild unit;
+    private final List<String> unresolved;
+    private final Throwable error;
+
+    private MtfImport(long index, String name, @Nullable MekBuild unit, List<String> unresolved,
+                      @Nullable Throwable error) {
+        this.index = index;
+        this.name = name;
+        this.unit = unit;
+        this.unresolved = Collections.unmodifiableList(unresolved);
+        this.error = error;
+    }
+
+    /**
+     * @param index      The position of the file in the batch
+     * @param name       The name used to identify the file
+     * @param unit       The unit built from the file
+     * @param unresolved The names that could not be matched to a component
+     * @return           The result
+     */
+    public static MtfImport of(long index, String name, MekBuild unit, List<String> unresolved) {
+        return new MtfImport(index, name, unit, unresolved, null);
+    }
+
+    /**
+     * Creates a result for a file that could not be read.
+     *
+     * @param index The position of the file in the batch
+     * @param name  The name used to identify the file
+     * @param error The reason for the failure
+     * @return      The result
+     */
+    public static MtfImport failure(long index, String name, Throwable error) {
+        return new MtfImport(index, name, null, Collections.emptyList(), error);
+    }
+
+    /**
+     * @return The position of the file in the batch, starting with zero
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The imported unit, or {@code null} if the file could not be read
+     */
+    public @Nullable MekBuild getUnit() {
+        return unit;
+    }
+
+    /**
+     * @return The names of equipment and systems in the file that could not be matched to a component.
+     *         These are left out of the unit, or left as the default for systems.
+     */
+    public List<String> getUnresolved() {
+        return unresolved;
+    }
+
+    /**
+     * @return Whether the file was read
+     */
+    public boolean isSuccess() {
+        return null == error;
+    }
+
+    /**
+     * @return Whether the file was read and everything in it was matched to a component
+     */
+    public boolean isComplete() {
+        return isSuccess() && unresolved.isEmpty();
+    }
+
+    /**
+     * @return The reason the file could not be read, or {@code null} if it was successful
+     */
+    public @Nullable Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        if (!isSuccess()) {
+            return index + " " + name + ": " + error;
+        }
+        if (unresolved.isEmpty()) {
+            return index + " " + name + ": " + unit.getChassis() + " " + unit.getModel();
+        }
+        return index + " " + name + ": " + unit.getChassis() + " " + unit.getModel() + ", unresolved " + unresolved;
+    }
+}
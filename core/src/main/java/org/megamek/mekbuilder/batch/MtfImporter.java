@@ -0,0 +1,164 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import org.megamek.mekbuilder.component.ComponentLibrary;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Imports MegaMek mek files (.mtf) into {@link org.megamek.mekbuilder.unit.MekBuild}s in bulk. Each file is
+ * read a line at a time on a pool of worker threads, and reading stops once the critical slot tables have
+ * been read, so the descriptive text at the end of the file is skipped. Equipment is matched by the
+ * MegaMek names in the component library.
+ *
+ * <p>As with {@link BatchEvaluator}, no more than a fixed number of files are in progress at once, results
+ * are passed to the caller's consumer in completion order on the calling thread, and a file that cannot be
+ * read produces a failed result instead of stopping the batch.</p>
+ */
+public class MtfImporter implements AutoCloseable {
+
+    public static final String SUFFIX = ".mtf";
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int maxInFlight;
+
+    /**
+     * Creates an importer with its own thread pool, which is shut down by {@link #close()}.
+     *
+     * @param threads The number of worker threads
+     */
+    public MtfImporter(int threads) {
+        this(BoundedCompletion.createPool("mtf-importer", threads), threads * 4, true);
+    }
+
+    /**
+     * Creates an importer that runs on an existing executor. The executor is not shut down by {@link #close()}.
+     *
+     * @param executor    The executor used to read the files
+     * @param maxInFlight The maximum number of files that can be in progress at once
+     */
+    public MtfImporter(ExecutorService executor, int maxInFlight) {
+        this(executor, maxInFlight, false);
+    }
+
+    private MtfImporter(ExecutorService executor, int maxInFlight, boolean ownsExecutor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one file must be allowed in progress");
+        }
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Reads a single mek file on the calling thread.
+     *
+     * @param index  The position of the file in the batch
+     * @param name   The name used to identify the file
+     * @param reader Supplies the lines of the file. The reader is not closed.
+     * @return       The result
+     * @throws IOException If there is an error reading the file
+     */
+    public static MtfImport read(long index, String name, BufferedReader reader) throws IOException {
+        final MtfParser parser = new MtfParser(ComponentLibrary.getInstance());
+        String line;
+        while ((null != (line = reader.readLine())) && parser.line(line)) {
+            // Keep reading until the parser has what it needs
+        }
+        return MtfImport.of(index, name, parser.finish(), parser.getUnresolved());
+    }
+
+    /**
+     * Reads a single mek file on the calling thread. Any error is returned as a failed result.
+     *
+     * @param index The position of the file in the batch
+     * @param file  The file
+     * @return      The result
+     */
+    public static MtfImport read(long index, Path file) {
+        final String name = file.getFileName().toString();
+        // InputStreamReader replaces malformed characters, which turn up in the descriptive text of some files
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            return read(index, name, reader);
+        } catch (Exception ex) {
+            return MtfImport.failure(index, name, ex);
+        }
+    }
+
+    /**
+     * @return The maximum number of files that can be in progress at once
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Imports all the files ending with {@link #SUFFIX} in a directory and its subdirectories. The directory
+     * is walked lazily as there is room for more files in progress.
+     *
+     * @param directory The directory
+     * @param results   Receives the result for each file
+     * @return          The number of files imported
+     * @throws IOException          If the directory cannot be walked
+     * @throws InterruptedException If the calling thread is interrupted while waiting for results
+     */
+    public long importAll(Path directory, Consumer<? super MtfImport> results)
+            throws IOException, InterruptedException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return importAll(paths.filter(p -> p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(SUFFIX)
+                    && Files.isRegularFile(p)).iterator(), results);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Imports a series of mek files.
+     *
+     * @param files   The files. The next file is not requested until there is room for another in progress.
+     * @param results Receives the result for each file
+     * @return        The number of files imported
+     * @throws InterruptedException If the calling thread is interrupted while waiting for results. Any
+     *                              files still in progress are cancelled, as they are if the consumer throws.
+     */
+    public long importAll(Iterator<Path> files, Consumer<? super MtfImport> results) throws InterruptedException {
+        return BoundedCompletion.run(executor, maxInFlight, files, MtfImporter::read, results, "Import failed");
+    }
+
+    /**
+     * Shuts down the thread pool if it was created by this importer.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
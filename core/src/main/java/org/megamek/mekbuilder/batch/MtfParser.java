@@ -0,0 +1,603 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.component.*;
+import org.megamek.mekbuilder.tech.TechBase;
+import org.megamek.mekbuilder.unit.MekBuild;
+import org.megamek.mekbuilder.unit.MekConfiguration;
+import org.megamek.mekbuilder.unit.MotiveType;
+import org.megamek.mekbuilder.unit.UnitLocation;
+import org.megamek.mekbuilder.unit.UnitType;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds a {@link MekBuild} from the lines of a MegaMek mek file (.mtf) as they are read, without creating
+ * a MegaMek entity. Equipment is matched to components by {@link Component#getMMName()}. Names that cannot
+ * be matched are collected instead of stopping the import.
+ *
+ * <p>The header values are applied to the unit when the first critical slot table is reached. Each run of
+ * identical entries in a location becomes as many mounts as the component's slot count requires, and
+ * entries for equipment that is spread over the unit, such as structure, armor, heat sinks, and jump jets,
+ * are added to the slots of the existing mount. Actuators and other system slots are skipped, and the order
+ * of the slots within a location is not kept.</p>
+ *
+ * <p>A parser holds the state for a single file and is not thread-safe.</p>
+ */
+class MtfParser {
+
+    private static final Pattern ENGINE = Pattern.compile("(\\d+)\\s+(.*?)\\s*Engine\\s*(?:\\((.*)\\))?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern HEAT_SINKS = Pattern.compile("(\\d+)\\s*(.*)");
+
+    private static final Map<String, UnitLocation> LOCATIONS = new HashMap<>();
+    private static final Map<String, UnitLocation> ARMOR = new HashMap<>();
+    private static final Map<String, UnitLocation> REAR_ARMOR = new HashMap<>();
+    static {
+        LOCATIONS.put("head", UnitLocation.MEK_HEAD);
+        LOCATIONS.put("center torso", UnitLocation.MEK_CTORSO);
+        LOCATIONS.put("left torso", UnitLocation.MEK_LTORSO);
+        LOCATIONS.put("right torso", UnitLocation.MEK_RTORSO);
+        LOCATIONS.put("left arm", UnitLocation.MEK_LARM);
+        LOCATIONS.put("right arm", UnitLocation.MEK_RARM);
+        LOCATIONS.put("left leg", UnitLocation.MEK_LLEG);
+        LOCATIONS.put("right leg", UnitLocation.MEK_RLEG);
+        LOCATIONS.put("center leg", UnitLocation.MEK_CLEG);
+        LOCATIONS.put("front left leg", UnitLocation.MEK_LFLEG);
+        LOCATIONS.put("front right leg", UnitLocation.MEK_RFLEG);
+        LOCATIONS.put("rear left leg", UnitLocation.MEK_LLEG);
+        LOCATIONS.put("rear right leg", UnitLocation.MEK_RLEG);
+
+        ARMOR.put("hd armor", UnitLocation.MEK_HEAD);
+        ARMOR.put("ct armor", UnitLocation.MEK_CTORSO);
+        ARMOR.put("lt armor", UnitLocation.MEK_LTORSO);
+        ARMOR.put("rt armor", UnitLocation.MEK_RTORSO);
+        ARMOR.put("la armor", UnitLocation.MEK_LARM);
+        ARMOR.put("ra armor", UnitLocation.MEK_RARM);
+        ARMOR.put("ll armor", UnitLocation.MEK_LLEG);
+        ARMOR.put("rl armor", UnitLocation.MEK_RLEG);
+        ARMOR.put("cl armor", UnitLocation.MEK_CLEG);
+        ARMOR.put("fll armor", UnitLocation.MEK_LFLEG);
+        ARMOR.put("frl armor", UnitLocation.MEK_RFLEG);
+        ARMOR.put("rll armor", UnitLocation.MEK_LLEG);
+        ARMOR.put("rrl armor", UnitLocation.MEK_RLEG);
+        REAR_ARMOR.put("rtc armor", UnitLocation.MEK_CTORSO);
+        REAR_ARMOR.put("rtl armor", UnitLocation.MEK_LTORSO);
+        REAR_ARMOR.put("rtr armor", UnitLocation.MEK_RTORSO);
+    }
+
+    /**
+     * Keys that follow the critical slot tables. Reaching one of these ends the part of the file that is used.
+     */
+    private static final Set<String> TRAILING_KEYS = new HashSet<>(Arrays.asList(
+            "overview", "capabilities", "deployment", "history", "manufacturer", "primaryfactory",
+            "systemmanufacturer", "systemmode", "notes", "imagefile", "fluffimage", "icon", "quirk",
+            "weaponquirk", "nocrit", "bv", "cost", "role"));
+
+    /**
+     * Slots that belong to systems configured in the header rather than mounted equipment.
+     */
+    private static final Set<String> SYSTEM_SLOTS = new HashSet<>(Arrays.asList(
+            "shoulder", "upper arm actuator", "lower arm actuator", "hand actuator", "hip",
+            "upper leg actuator", "lower leg actuator", "foot actuator", "engine", "fusion engine",
+            "gyro", "life support", "sensors", "cockpit", "landing gear", "avionics"));
+
+    private static final Map<String, String> ENGINE_NAMES = new HashMap<>();
+    private static final Map<String, String> MYOMER_NAMES = new HashMap<>();
+    static {
+        ENGINE_NAMES.put("fusion", "Normal");
+        ENGINE_NAMES.put("i.c.e.", "ICE");
+        ENGINE_NAMES.put("fuel-cell", "Fuel Cell");
+        MYOMER_NAMES.put("triple-strength", "TSM");
+        MYOMER_NAMES.put("industrial triple-strength", "Industrial TSM");
+        MYOMER_NAMES.put("super-cooled", "ISSuperCooledMyomer");
+    }
+
+    private final ComponentLibrary library;
+    private final MekBuild mek = new MekBuild();
+    private final Map<String, String> header = new HashMap<>();
+    private final Map<DistributedMount, Map<UnitLocation, Integer>> distributedSlots = new LinkedHashMap<>();
+    private final Set<String> unresolved = new LinkedHashSet<>();
+    private boolean clan;
+    private boolean headerApplied;
+    private int untaggedLines;
+    private int weaponLines;
+
+    private UnitLocation location;
+    private String runEntry;
+    private int runCount;
+    // A mount whose slots continue in the next location, such as a weapon split between locations
+    private String partialEntry;
+    private int partialSlots;
+
+    MtfParser(ComponentLibrary library) {
+        this.library = library;
+    }
+
+    /**
+     * Processes the next line of the file.
+     *
+     * @param raw The line
+     * @return    Whether the parser needs any more lines. Once the critical slot tables are finished
+     *            the rest of the file is descriptive text, and there is no need to read it.
+     */
+    boolean line(String raw) {
+        final String line = raw.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+            return true;
+        }
+        if (weaponLines > 0) {
+            weaponLines--;
+            return true;
+        }
+        final int colon = line.indexOf(':');
+        final String key = (colon > 0) ? line.substring(0, colon).trim().toLowerCase(Locale.ROOT) : "";
+        if (colon == line.length() - 1 && LOCATIONS.containsKey(key)) {
+            startLocation(LOCATIONS.get(key));
+            return true;
+        }
+        if (null != location) {
+            if (!TRAILING_KEYS.contains(key)) {
+                slot(line);
+                return true;
+            }
+            flushRun();
+            return false;
+        }
+        if (headerApplied) {
+            return !TRAILING_KEYS.contains(key);
+        }
+        if (colon < 0) {
+            // Older files give the chassis and model on the first untagged lines
+            untaggedLines++;
+            if (untaggedLines == 1) {
+                header.putIfAbsent("chassis", line);
+            } else if (untaggedLines == 2) {
+                header.putIfAbsent("model", line);
+            }
+        } else if (key.equals("weapons")) {
+            weaponLines = parseInt(line.substring(colon + 1), 0);
+        } else {
+            header.putIfAbsent(key, line.substring(colon + 1).trim());
+        }
+        return true;
+    }
+
+    /**
+     * Completes the unit after the last line has been processed.
+     *
+     * @return The unit
+     */
+    MekBuild finish() {
+        flushRun();
+        applyHeader();
+        for (Map.Entry<DistributedMount, Map<UnitLocation, Integer>> entry : distributedSlots.entrySet()) {
+            for (Map.Entry<UnitLocation, Integer> slots : entry.getValue().entrySet()) {
+                entry.getKey().setSlots(slots.getKey(), slots.getValue());
+            }
+        }
+        return mek;
+    }
+
+    /**
+     * @return The names of the equipment and systems that could not be matched to a component, in the
+     *         order they were found
+     */
+    List<String> getUnresolved() {
+        return new ArrayList<>(unresolved);
+    }
+
+    private void startLocation(UnitLocation loc) {
+        applyHeader();
+        flushRun();
+        location = loc;
+    }
+
+    private void slot(String entry) {
+        if (entry.equalsIgnoreCase("-Empty-")) {
+            flushRun();
+            partialEntry = null;
+        } else if (entry.equals(runEntry)) {
+            runCount++;
+        } else {
+            flushRun();
+            runEntry = entry;
+            runCount = 1;
+        }
+    }
+
+    private void flushRun() {
+        if (null != runEntry) {
+            place(runEntry, runCount);
+            runEntry = null;
+        }
+    }
+
+    /**
+     * Mounts the equipment for a run of identical slot entries in the current location.
+     */
+    private void place(String entry, int count) {
+        String name = entry;
+        boolean rear = false;
+        boolean omniPod = false;
+        boolean armored = false;
+        double size = 0;
+        final int sizeIndex = name.toUpperCase(Locale.ROOT).indexOf(":SIZE:");
+        if (sizeIndex >= 0) {
+            size = parseDouble(name.substring(sizeIndex + 6));
+            name = name.substring(0, sizeIndex);
+        }
+        while (name.endsWith(")")) {
+            final String upper = name.toUpperCase(Locale.ROOT);
+            if (upper.endsWith("(R)")) {
+                rear = true;
+            } else if (upper.endsWith("(OMNIPOD)")) {
+                omniPod = true;
+            } else if (upper.endsWith("(ARMORED)")) {
+                armored = true;
+            } else {
+                break;
+            }
+            name = name.substring(0, name.lastIndexOf('(')).trim();
+        }
+        final String key = name.toLowerCase(Locale.ROOT);
+        if (SYSTEM_SLOTS.contains(key) || key.endsWith(" engine") || key.endsWith(" gyro")
+                || key.endsWith(" cockpit")) {
+            partialEntry = null;
+            return;
+        }
+        final Component c = resolve(name, null, clan);
+        if (null == c) {
+            unresolved.add(name);
+            partialEntry = null;
+            return;
+        }
+        if ((c instanceof SecondaryMotiveSystem) && !c.equals(mek.getSecondaryMotiveType())) {
+            // Improved jump jets and other systems are only identified by the slots
+            final int mp = mek.getBaseSecondaryMP();
+            mek.setSecondaryMotiveType((SecondaryMotiveSystem) c);
+            mek.setSecondaryMP(mp);
+        }
+        final DistributedMount distributed = findDistributedMount(c);
+        if (null != distributed) {
+            distributedSlots.computeIfAbsent(distributed, m -> new EnumMap<>(UnitLocation.class))
+                    .merge(location, count, Integer::sum);
+            partialEntry = null;
+            return;
+        }
+        if (c.getType() == ComponentType.ENGINE || c.getType() == ComponentType.GYRO
+                || c.getType() == ComponentType.COCKPIT) {
+            partialEntry = null;
+            return;
+        }
+        if (entry.equals(partialEntry)) {
+            final int used = Math.min(count, partialSlots);
+            partialSlots -= used;
+            count -= used;
+        }
+        while (count > 0) {
+            final Mount mount = mek.createMount(c);
+            if (size > 0) {
+                mount.setSize(size);
+            }
+            mount.setLocation(location);
+            mount.setRearFacing(rear);
+            mount.setArmored(armored);
+            if (omniPod) {
+                mount.setModuleType(Mount.ModuleType.OMNI);
+            }
+            mek.addMount(mount);
+            final int slots = Math.max(1, mount.getComponentSlots());
+            final int used = Math.min(count, slots);
+            count -= used;
+            partialEntry = entry;
+            partialSlots = slots - used;
+        }
+    }
+
+    private @Nullable DistributedMount findDistributedMount(Component c) {
+        for (Mount m : mek.getAllMounts()) {
+            if ((m instanceof DistributedMount) && m.getComponent().equals(c)) {
+                return (DistributedMount) m;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets the configuration and systems of the unit from the header values. Values that cannot be matched
+     * leave the default system in place.
+     */
+    private void applyHeader() {
+        if (headerApplied) {
+            return;
+        }
+        headerApplied = true;
+        final String techBase = header.getOrDefault("techbase", "Inner Sphere").toLowerCase(Locale.ROOT);
+        clan = techBase.contains("clan");
+        if (techBase.startsWith("mixed")) {
+            mek.setTechBase(TechBase.ALL);
+        } else {
+            mek.setTechBase(clan ? TechBase.CLAN : TechBase.IS);
+        }
+        if (header.containsKey("chassis")) {
+            mek.setChassis(header.get("chassis"));
+        }
+        if (header.containsKey("model")) {
+            mek.setModel(header.get("model"));
+        }
+        if (header.containsKey("source")) {
+            mek.setSource(header.get("source"));
+        }
+        if (header.containsKey("era")) {
+            mek.setYear(parseInt(header.get("era"), mek.getYear()));
+        }
+        // The construction option is selected by tonnage, so this has to come before the configuration
+        mek.setTonnage(parseDouble(header.getOrDefault("mass", "20")));
+        applyConfiguration(header.getOrDefault("config", "Biped").toLowerCase(Locale.ROOT),
+                header.getOrDefault("cockpit", "").toLowerCase(Locale.ROOT).contains("primitive"));
+
+        applyEngine(header.get("engine"));
+        final String structure = header.get("structure");
+        if (null != structure) {
+            final Component c = resolve(structure, ComponentType.MEK_STRUCTURE, clan);
+            if (null != c) {
+                mek.setStructureType(c);
+            } else {
+                unresolved.add(structure);
+            }
+        }
+        final String myomer = header.get("myomer");
+        if (null != myomer) {
+            final Component c = resolve(MYOMER_NAMES.getOrDefault(myomer.toLowerCase(Locale.ROOT), myomer),
+                    ComponentType.MYOMER, clan);
+            if (null != c) {
+                mek.setMyomerType(c);
+            } else {
+                unresolved.add(myomer);
+            }
+        }
+        final String gyro = header.get("gyro");
+        if (null != gyro) {
+            final Component c = resolve(gyro, ComponentType.GYRO, clan);
+            if (null != c) {
+                mek.setGyroType(c);
+            } else {
+                unresolved.add(gyro);
+            }
+        }
+        final String cockpit = header.get("cockpit");
+        if (null != cockpit) {
+            final Component c = resolve(cockpit, ComponentType.COCKPIT, clan);
+            if (c instanceof Cockpit) {
+                mek.setCockpitType((Cockpit) c);
+            } else {
+                unresolved.add(cockpit);
+            }
+        }
+        applyHeatSinks(header.get("heat sinks"));
+        final int jump = parseInt(header.getOrDefault("jump mp", "0"), 0);
+        if (jump > 0) {
+            if (mek.getSecondaryMotiveType().getMode() != MotiveType.JUMP) {
+                final Component c = resolve("Jump Jet", ComponentType.SECONDARY_MOTIVE_SYSTEM, clan);
+                if (c instanceof SecondaryMotiveSystem) {
+                    mek.setSecondaryMotiveType((SecondaryMotiveSystem) c);
+                }
+            }
+            mek.setSecondaryMP(jump);
+        }
+        applyArmor(header.get("armor"));
+    }
+
+    private void applyConfiguration(String config, boolean primitive) {
+        final MekConfiguration.SubType subType;
+        if (config.contains("quadvee")) {
+            subType = MekConfiguration.SubType.QUADVEE_TRACKED;
+        } else if (config.contains("lam")) {
+            subType = MekConfiguration.SubType.LAM_STANDARD;
+        } else if (config.contains("quad")) {
+            subType = primitive ? MekConfiguration.SubType.PRIMITIVE_QUAD : MekConfiguration.SubType.STANDARD_QUAD;
+        } else if (config.contains("tripod")) {
+            subType = MekConfiguration.SubType.STANDARD_TRIPOD;
+        } else {
+            subType = primitive ? MekConfiguration.SubType.PRIMITIVE_BIPED : MekConfiguration.SubType.STANDARD_BIPED;
+        }
+        final MekConfiguration configuration = MekConfiguration.getConfiguration(UnitType.BATTLE_MEK, subType);
+        if (null != configuration) {
+            mek.setConfiguration(configuration);
+        }
+        mek.setOmni(config.contains("omni"));
+    }
+
+    /**
+     * Sets the engine from a value such as {@code 300 XL Engine(IS)}. If the engine cannot be read, the
+     * walking MP is used to set the rating of the default engine.
+     */
+    private void applyEngine(@Nullable String value) {
+        final Matcher m = (null == value) ? null : ENGINE.matcher(value);
+        if ((null == m) || !m.matches()) {
+            if (null != value) {
+                unresolved.add(value);
+            }
+            mek.setBaseWalkMP(parseInt(header.getOrDefault("walk mp", "1"), 1));
+            return;
+        }
+        final int rating = Integer.parseInt(m.group(1));
+        final String type = m.group(2);
+        final boolean clanEngine = (null == m.group(3)) ? clan : m.group(3).toLowerCase(Locale.ROOT).contains("clan");
+        final Component c = resolve(ENGINE_NAMES.getOrDefault(type.toLowerCase(Locale.ROOT), type),
+                ComponentType.ENGINE, clanEngine);
+        if (c instanceof MVFEngine) {
+            MVFEngine engine = ((MVFEngine) c).standardSize();
+            if ((rating > engine.variableSizeMax()) && (null != engine.largeSize())) {
+                engine = engine.largeSize();
+            }
+            mek.setEngineType(engine);
+        } else {
+            unresolved.add(value);
+        }
+        mek.setEngineRating(rating);
+    }
+
+    /**
+     * Sets the heat sink type and count from a value such as {@code 12 Double}. The count in the file includes
+     * the heat sinks that come with the engine.
+     */
+    private void applyHeatSinks(@Nullable String value) {
+        final Matcher m = (null == value) ? null : HEAT_SINKS.matcher(value);
+        if ((null == m) || !m.matches()) {
+            return;
+        }
+        final String type = m.group(2).toLowerCase(Locale.ROOT);
+        final String name;
+        if (type.contains("laser")) {
+            name = "Laser Heat Sink";
+        } else if (type.contains("compact")) {
+            name = "1 Compact Heat Sink";
+        } else if (type.contains("double") && type.contains("prototype")) {
+            name = "ISDoubleHeatSinkPrototype";
+        } else if (type.contains("double")) {
+            name = (type.contains("clan") || (clan && !type.startsWith("is")))
+                    ? "CLDoubleHeatSink" : "ISDoubleHeatSink";
+        } else {
+            name = "Heat Sink";
+        }
+        final Component c = resolve(name, ComponentType.HEAT_SINK, clan);
+        if (c instanceof HeatSink) {
+            mek.setHeatSinkType((HeatSink) c);
+        } else {
+            unresolved.add(value);
+        }
+        mek.setAdditionalHeatSinkCount(Math.max(0,
+                Integer.parseInt(m.group(1)) - mek.getEngine().weightFreeHeatSinks()));
+    }
+
+    /**
+     * Sets the armor type from a value such as {@code Ferro-Fibrous(Clan)}, then the points in each location.
+     * The armor tonnage is the weight of the points rounded up to the half ton.
+     */
+    private void applyArmor(@Nullable String value) {
+        final ArmorMount armor = mek.getArmorMount();
+        if (null != value) {
+            String name = value;
+            boolean clanArmor = clan;
+            final int paren = name.indexOf('(');
+            if (paren > 0) {
+                final String techBase = name.substring(paren).toLowerCase(Locale.ROOT);
+                clanArmor = techBase.contains("clan") || (clan && !techBase.contains("inner sphere"));
+                name = name.substring(0, paren).trim();
+            }
+            if (name.toLowerCase(Locale.ROOT).endsWith(" armor")) {
+                name = name.substring(0, name.length() - 6);
+            }
+            final Component c = resolve(name, ComponentType.ARMOR, clanArmor);
+            if (null != c) {
+                armor.setComponent(c);
+            } else {
+                unresolved.add(value);
+            }
+        }
+        for (Map.Entry<String, String> entry : header.entrySet()) {
+            final UnitLocation front = ARMOR.get(entry.getKey());
+            final UnitLocation rear = REAR_ARMOR.get(entry.getKey());
+            if ((null != front) || (null != rear)) {
+                // Patchwork armor gives the type before the points
+                final String points = entry.getValue().substring(entry.getValue().lastIndexOf(':') + 1);
+                if (null != front) {
+                    armor.setArmorPoints(front, parseInt(points, 0));
+                } else {
+                    armor.setRearArmorPoints(rear, parseInt(points, 0));
+                }
+            }
+        }
+        armor.setArmorTonnage(Math.ceil(armor.getAllocationArmorPoints() * armor.getWeightPerPoint() * 2.0) / 2.0);
+    }
+
+    /**
+     * Finds the component for a MegaMek name. Names in mek files sometimes leave out the "IS" or "Clan"
+     * prefix that the component uses, or include one that it does not, so both forms are tried.
+     *
+     * @param name The name in the file
+     * @param type The type of component, or {@code null} for any type
+     * @param clan Whether Clan components are preferred when both versions have the same name
+     * @return     The component, or {@code null} if there is no match
+     */
+    private @Nullable Component resolve(String name, @Nullable ComponentType type, boolean clan) {
+        final List<String> variants = new ArrayList<>(3);
+        variants.add(name);
+        if (name.startsWith("IS ")) {
+            variants.add(name.substring(3));
+        } else if (name.startsWith("Clan ")) {
+            variants.add(name.substring(5));
+        } else {
+            variants.add((clan ? "Clan " : "IS ") + name);
+            variants.add((clan ? "IS " : "Clan ") + name);
+        }
+        for (String variant : variants) {
+            final Component c = choose(library.getComponentsByMMName(variant), type, clan);
+            if (null != c) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks the best of the components that share a name, preferring those that can be installed on the
+     * unit, then those that match the preferred tech base.
+     */
+    private @Nullable Component choose(List<Component> candidates, @Nullable ComponentType type, boolean clan) {
+        Component best = null;
+        int bestScore = -1;
+        for (Component c : candidates) {
+            if ((null != type) && (c.getType() != type)) {
+                continue;
+            }
+            int score = mek.allowed(c) ? 2 : 0;
+            if ((c.techBase() == TechBase.ALL) || ((c.techBase() == TechBase.CLAN) == clan)) {
+                score++;
+            }
+            if (score > bestScore) {
+                best = c;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            return defaultValue;
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
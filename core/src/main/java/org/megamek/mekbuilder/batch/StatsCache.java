@@ -0,0 +1,43 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.unit.DesignFingerprint;
+
+/**
+ * Stores the calculated values of designs by fingerprint so they do not need to be calculated again for
+ * an unchanged design. Implementations must be safe to use from multiple threads.
+ */
+public interface StatsCache {
+
+    /**
+     * @param fingerprint The design's fingerprint
+     * @return            The stored values, or {@code null} if there are none for the fingerprint
+     */
+    @Nullable DesignStats get(DesignFingerprint fingerprint);
+
+    /**
+     * Stores the values for a fingerprint, replacing any already stored.
+     *
+     * @param fingerprint The design's fingerprint
+     * @param stats       The calculated values
+     */
+    void put(DesignFingerprint fingerprint, DesignStats stats);
+}
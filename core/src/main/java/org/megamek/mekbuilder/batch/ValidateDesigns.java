@@ -0,0 +1,206 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import org.megamek.mekbuilder.component.TechAvailabilityIndex;
+import org.megamek.mekbuilder.tech.Faction;
+import org.megamek.mekbuilder.tech.TechBase;
+import org.megamek.mekbuilder.tech.TechLevel;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Command line entry point that validates every design file in a directory against a tech filter and writes
+ * a report. Progress and the throughput of each stage are printed to standard error. The exit status is 0
+ * if every design is valid, 2 if any design has problems or could not be loaded, and 1 for a usage error.
+ */
+public final class ValidateDesigns {
+
+    private static final String USAGE = "Usage: ValidateDesigns [options] <directory>\n"
+            + "  --year <year>          Game year (default 3067)\n"
+            + "  --tech-base <base>     IS, CLAN, or ALL (default ALL)\n"
+            + "  --level <level>        INTRO, STANDARD, ADVANCED, EXPERIMENTAL, or UNOFFICIAL (default EXPERIMENTAL)\n"
+            + "  --faction <faction>    Production faction code (default none)\n"
+            + "  --era-based            Use era-based tech progression\n"
+            + "  --hide-extinct         Treat extinct components as unavailable\n"
+            + "  --format <format>      CSV or JSON (default CSV)\n"
+            + "  --output <file>        Report file (default standard output)\n"
+            + "  --threads <count>      Worker threads per stage (default number of processors)\n"
+            + "  --suffix <suffix>      Design file name ending (default .json)";
+
+    private int year = 3067;
+    private TechBase techBase = TechBase.ALL;
+    private TechLevel techLevel = TechLevel.EXPERIMENTAL;
+    private Faction faction = null;
+    private boolean eraBased = false;
+    private boolean hideExtinct = false;
+    private ValidationReport.Format format = ValidationReport.Format.CSV;
+    private Path output = null;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String suffix = ValidationPipeline.DEFAULT_SUFFIX;
+    private Path directory = null;
+
+    private ValidateDesigns() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final ValidateDesigns cli = new ValidateDesigns();
+        try {
+            cli.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        System.exit(cli.run() ? 0 : 2);
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--year":
+                    year = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--tech-base":
+                    techBase = TechBase.valueOf(value(args, ++i).toUpperCase());
+                    break;
+                case "--level":
+                    techLevel = TechLevel.valueOf(value(args, ++i).toUpperCase());
+                    break;
+                case "--faction":
+                    faction = Faction.valueOf(value(args, ++i).toUpperCase());
+                    break;
+                case "--era-based":
+                    eraBased = true;
+                    break;
+                case "--hide-extinct":
+                    hideExtinct = true;
+                    break;
+                case "--format":
+                    format = ValidationReport.Format.valueOf(value(args, ++i).toUpperCase());
+                    break;
+                case "--output":
+                    output = Paths.get(value(args, ++i));
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--suffix":
+                    suffix = value(args, ++i);
+                    break;
+                default:
+                    if (args[i].startsWith("--") || (null != directory)) {
+                        throw new IllegalArgumentException("Unexpected argument " + args[i]);
+                    }
+                    directory = Paths.get(args[i]);
+            }
+        }
+        if (null == directory) {
+            throw new IllegalArgumentException("No directory given");
+        }
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException(directory + " is not a directory");
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(args[i - 1] + " requires a value");
+        }
+        return args[i];
+    }
+
+    /**
+     * @return Whether all the designs are valid
+     */
+    private boolean run() throws IOException, InterruptedException {
+        final ValidationPipeline pipeline = new ValidationPipeline(new TechAvailabilityIndex.FilterKey(year,
+                techBase, techLevel, faction, eraBased, hideExtinct), threads);
+        pipeline.setSuffix(suffix);
+        final AtomicLong invalid = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final long start = System.nanoTime();
+        final ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "validation-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        progress.scheduleAtFixedRate(() -> System.err.println(progress(pipeline, start)),
+                1, 1, TimeUnit.SECONDS);
+        final long total;
+        try (OutputStream os = openOutput();
+             ValidationReport report = ValidationReport.create(format, os)) {
+            total = pipeline.run(directory, result -> {
+                if (!result.isLoaded()) {
+                    failed.incrementAndGet();
+                } else if (!result.isValid()) {
+                    invalid.incrementAndGet();
+                }
+                try {
+                    report.write(result);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } finally {
+            progress.shutdownNow();
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.println(String.format("%d designs in %.1f s: %d valid, %d invalid, %d failed to load",
+                total, seconds, total - invalid.get() - failed.get(), invalid.get(), failed.get()));
+        for (ValidationPipeline.Stage stage : ValidationPipeline.Stage.values()) {
+            final long count = pipeline.getCount(stage);
+            final double busy = pipeline.getBusyNanos(stage) / 1e9;
+            System.err.println(String.format("  %-8s %8d  %10.1f/s  %8.2f s busy", stage, count,
+                    count / Math.max(seconds, 1e-9), busy));
+        }
+        return (invalid.get() == 0) && (failed.get() == 0);
+    }
+
+    private OutputStream openOutput() throws IOException {
+        if (null != output) {
+            return new BufferedOutputStream(Files.newOutputStream(output));
+        }
+        return new BufferedOutputStream(new FilterOutputStream(System.out) {
+            @Override
+            public void close() throws IOException {
+                // Leave standard output open
+                flush();
+            }
+        });
+    }
+
+    private static String progress(ValidationPipeline pipeline, long start) {
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%.0f s: %d found", seconds, pipeline.getFound()));
+        for (ValidationPipeline.Stage stage : ValidationPipeline.Stage.values()) {
+            final long count = pipeline.getCount(stage);
+            sb.append(String.format(", %s %d (%.0f/s)", stage.name().toLowerCase(), count, count / seconds));
+        }
+        return sb.toString();
+    }
+}
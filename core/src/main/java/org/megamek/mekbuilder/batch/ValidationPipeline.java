@@ -0,0 +1,351 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.megamek.mekbuilder.tech.ITechFilter;
+import org.megamek.mekbuilder.unit.MekBuild;
+import org.megamek.mekbuilder.validation.StandardRule;
+import org.megamek.mekbuilder.validation.ValidationIssue;
+import org.megamek.mekbuilder.validation.ValidationRule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Validates every design file in a directory tree against a tech filter. Each file passes through the
+ * stages in {@link Stage}, and each stage has its own worker threads. The stages are connected by bounded
+ * queues, and the directory is walked lazily, so the number of designs held in memory at once is fixed
+ * no matter how many files there are. A file that fails a stage skips the rest and is reported as a failure.
+ *
+ * <p>Results are passed to the caller's consumer on the thread that called {@link #run(Path, Consumer)},
+ * in the order they finish. The counters for each stage can be read from another thread while the
+ * pipeline is running to report progress.</p>
+ */
+public class ValidationPipeline {
+
+    /**
+     * The steps taken to validate a design file.
+     */
+    public enum Stage {
+        /** Loads the contents of the file */
+        READ,
+        /** Parses the json into a {@link MekDesign} */
+        PARSE,
+        /** Creates the unit from the design */
+        BUILD,
+        /** Checks the unit against the validation rules */
+        VALIDATE
+    }
+
+    public static final String DEFAULT_SUFFIX = ".json";
+
+    // Marks the end of the input to a stage
+    private static final Work END = new Work(-1, null);
+
+    private final ITechFilter techFilter;
+    private final int threads;
+    private final int queueCapacity;
+    private final List<ValidationRule> rules;
+    private final ObjectMapper mapper = MekDesign.createMapper();
+    private final AtomicLong found = new AtomicLong();
+    private final AtomicLong[] counts = new AtomicLong[Stage.values().length];
+    private final AtomicLong[] busyNanos = new AtomicLong[Stage.values().length];
+    private String suffix = DEFAULT_SUFFIX;
+
+    /**
+     * Creates a pipeline that checks all the {@link StandardRule}s.
+     *
+     * @param techFilter The criteria for available components
+     * @param threads    The number of worker threads for each stage
+     */
+    public ValidationPipeline(ITechFilter techFilter, int threads) {
+        this(techFilter, threads, Arrays.asList(StandardRule.values()));
+    }
+
+    /**
+     * @param techFilter The criteria for available components
+     * @param threads    The number of worker threads for each stage
+     * @param rules      The rules to check
+     */
+    public ValidationPipeline(ITechFilter techFilter, int threads, Collection<? extends ValidationRule> rules) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        this.techFilter = techFilter;
+        this.threads = threads;
+        this.queueCapacity = threads * 2;
+        this.rules = new ArrayList<>(rules);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new AtomicLong();
+            busyNanos[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * @return The file name ending that identifies design files
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * @param suffix The file name ending that identifies design files
+     */
+    public void setSuffix(String suffix) {
+        this.suffix = suffix;
+    }
+
+    /**
+     * @return The maximum number of designs that can be in the queues between stages at once. Each worker
+     *         thread can hold one more.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @return The number of design files found so far in the current or last run
+     */
+    public long getFound() {
+        return found.get();
+    }
+
+    /**
+     * @param stage A stage of the pipeline
+     * @return      The number of designs that have completed the stage in the current or last run
+     */
+    public long getCount(Stage stage) {
+        return counts[stage.ordinal()].get();
+    }
+
+    /**
+     * @param stage A stage of the pipeline
+     * @return      The total time the workers for the stage have spent processing designs in the current
+     *              or last run, in nanoseconds
+     */
+    public long getBusyNanos(Stage stage) {
+        return busyNanos[stage.ordinal()].get();
+    }
+
+    /**
+     * Finds and validates all the design files in a directory and its subdirectories.
+     *
+     * @param directory The directory to search
+     * @param results   Receives the result for each design file
+     * @return          The number of design files validated
+     * @throws IOException          If the directory cannot be read
+     * @throws InterruptedException If the calling thread is interrupted while waiting for results
+     * @throws RuntimeException     If walking the directory fails for another reason, such as a
+     *                              {@link SecurityException}
+     * @throws Error                If a worker fails with an error that is not specific to a design, such as
+     *                              one that prevents the component library from loading
+     */
+    public long run(Path directory, Consumer<? super DesignValidation> results)
+            throws IOException, InterruptedException {
+        found.set(0);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i].set(0);
+            busyNanos[i].set(0);
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+            final Thread t = new Thread(r, "validation-pipeline-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // The first error that stopped a worker, rather than failing a single design
+        final AtomicReference<Throwable> fatal = new AtomicReference<>();
+        try {
+            BlockingQueue<Work> input = new ArrayBlockingQueue<>(queueCapacity);
+            final BlockingQueue<Work> files = input;
+            executor.execute(() -> walk(directory, files, fatal));
+            for (Stage stage : Stage.values()) {
+                final BlockingQueue<Work> in = input;
+                final BlockingQueue<Work> out = new ArrayBlockingQueue<>(queueCapacity);
+                final AtomicInteger active = new AtomicInteger(threads);
+                for (int i = 0; i < threads; i++) {
+                    executor.execute(() -> runStage(stage, in, out, active, fatal));
+                }
+                input = out;
+            }
+            long delivered = 0;
+            for (Work work = input.take(); work != END; work = input.take()) {
+                results.accept(work.result());
+                delivered++;
+            }
+            final Throwable error = fatal.get();
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            } else if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            } else if (null != error) {
+                throw new IllegalStateException("Validation pipeline failed", error);
+            }
+            return delivered;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void walk(Path directory, BlockingQueue<Work> out, AtomicReference<Throwable> fatal) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            final Iterator<Path> iter = paths
+                    .filter(p -> p.getFileName().toString().endsWith(suffix) && Files.isRegularFile(p))
+                    .iterator();
+            while (iter.hasNext()) {
+                out.put(new Work(found.getAndIncrement(), iter.next()));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (UncheckedIOException ex) {
+            fatal.compareAndSet(null, ex.getCause());
+        } catch (Throwable ex) {
+            // Includes the IOException from opening the directory, but anything else must end the pipeline too
+            fatal.compareAndSet(null, ex);
+        } finally {
+            passEnd(out);
+        }
+    }
+
+    /**
+     * Processes designs until the end of the input is reached. A failure in a single design is recorded in
+     * its result, but anything thrown outside that, such as an {@link Error}, stops the worker and is
+     * recorded as fatal. Either way the last worker for the stage to stop passes the end marker on to the
+     * next stage, so the pipeline always finishes.
+     */
+    private void runStage(Stage stage, BlockingQueue<Work> in, BlockingQueue<Work> out, AtomicInteger active,
+                          AtomicReference<Throwable> fatal) {
+        try {
+            while (true) {
+                final Work work = in.take();
+                if (work == END) {
+                    // Leave the marker for the other workers for the stage
+                    in.put(END);
+                    return;
+                }
+                if (null == work.error) {
+                    final long start = System.nanoTime();
+                    try {
+                        process(stage, work);
+                        counts[stage.ordinal()].incrementAndGet();
+                    } catch (Exception ex) {
+                        work.fail(stage, ex);
+                    }
+                    busyNanos[stage.ordinal()].addAndGet(System.nanoTime() - start);
+                }
+                out.put(work);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable ex) {
+            fatal.compareAndSet(null, ex);
+        } finally {
+            if (active.decrementAndGet() == 0) {
+                passEnd(out);
+            }
+        }
+    }
+
+    /**
+     * Sends the end marker to the next stage, unless the pipeline is being shut down and nothing is
+     * waiting for it.
+     */
+    private static void passEnd(BlockingQueue<Work> out) {
+        if (!Thread.currentThread().isInterrupted()) {
+            try {
+                out.put(END);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Performs one stage on a design, dropping anything that is no longer needed by the later stages.
+     */
+    private void process(Stage stage, Work work) throws IOException {
+        switch (stage) {
+            case READ:
+                work.bytes = Files.readAllBytes(work.file);
+                break;
+            case PARSE:
+                work.design = mapper.readValue(work.bytes, MekDesign.class);
+                work.bytes = null;
+                work.name = work.design.toString();
+                break;
+            case BUILD:
+                work.unit = work.design.build();
+                work.design = null;
+                break;
+            case VALIDATE:
+                final List<ValidationIssue> issues = new ArrayList<>();
+                for (ValidationRule rule : rules) {
+                    issues.addAll(rule.check(work.unit, techFilter));
+                }
+                work.issues = issues;
+                work.unit = null;
+                break;
+        }
+    }
+
+    /**
+     * The state of a single design as it passes through the stages.
+     */
+    private static class Work {
+        final long index;
+        final Path file;
+        String name = "";
+        byte[] bytes;
+        MekDesign design;
+        MekBuild unit;
+        List<ValidationIssue> issues;
+        Stage failedStage;
+        Exception error;
+
+        Work(long index, Path file) {
+            this.index = index;
+            this.file = file;
+        }
+
+        void fail(Stage stage, Exception ex) {
+            failedStage = stage;
+            error = ex;
+            bytes = null;
+            design = null;
+            unit = null;
+        }
+
+        DesignValidation result() {
+            return (null == error) ? DesignValidation.of(index, file, name, issues)
+                    : DesignValidation.failure(index, file, name, failedStage, error);
+        }
+    }
+}
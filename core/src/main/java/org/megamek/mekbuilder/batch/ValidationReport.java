@@ -0,0 +1,148 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.megamek.mekbuilder.validation.ValidationIssue;
+
+import java.io.*;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the results of a {@link ValidationPipeline} as they arrive, so the report does not need to be
+ * held in memory. Closing the report finishes the output and closes the underlying stream.
+ */
+public abstract class ValidationReport implements Closeable {
+
+    public enum Format {
+        CSV, JSON
+    }
+
+    /**
+     * Creates a report in the requested format.
+     *
+     * @param format The output format
+     * @param os     The destination of the report
+     * @return       The report
+     * @throws IOException If the start of the report cannot be written
+     */
+    public static ValidationReport create(Format format, OutputStream os) throws IOException {
+        if (format == Format.JSON) {
+            return new Json(os);
+        }
+        return new Csv(new BufferedWriter(new OutputStreamWriter(os, "UTF-8")));
+    }
+
+    /**
+     * Adds the result for a design to the report.
+     *
+     * @param result The result
+     * @throws IOException If the result cannot be written
+     */
+    public abstract void write(DesignValidation result) throws IOException;
+
+    static String status(DesignValidation result) {
+        if (!result.isLoaded()) {
+            return "ERROR";
+        }
+        return result.isValid() ? "VALID" : "INVALID";
+    }
+
+    static String describe(ValidationIssue issue) {
+        return issue.getRule().getName() + " " + issue.getLocation() + ": " + issue.getMessage();
+    }
+
+    /**
+     * One line per design with the columns file, name, status, and problems. Problems are separated
+     * by semicolons, and line breaks in error messages are replaced by spaces.
+     */
+    private static class Csv extends ValidationReport {
+        private final Writer writer;
+
+        Csv(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write("file,name,status,problems\n");
+        }
+
+        @Override
+        public void write(DesignValidation result) throws IOException {
+            final String problems = result.isLoaded() ?
+                    result.getIssues().stream().map(ValidationReport::describe).collect(Collectors.joining("; "))
+                    : (result.getFailedStage() + ": " + result.getError())
+                            .replaceAll("\\s*[\\r\\n]+\\s*", " ");
+            writer.write(quote(result.getFile().toString()) + ',' + quote(result.getName()) + ','
+                    + status(result) + ',' + quote(problems) + '\n');
+        }
+
+        private static String quote(String value) {
+            if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+            return value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * An array with an object for each design.
+     */
+    private static class Json extends ValidationReport {
+        private final JsonGenerator generator;
+
+        Json(OutputStream os) throws IOException {
+            generator = new JsonFactory().createGenerator(os, JsonEncoding.UTF8);
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(DesignValidation result) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("file", result.getFile().toString());
+            generator.writeStringField("name", result.getName());
+            generator.writeStringField("status", status(result));
+            if (result.isLoaded()) {
+                generator.writeArrayFieldStart("problems");
+                for (ValidationIssue issue : result.getIssues()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("rule", issue.getRule().getName());
+                    generator.writeStringField("location", issue.getLocation().name());
+                    generator.writeStringField("message", issue.getMessage());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            } else {
+                generator.writeStringField("stage", String.valueOf(result.getFailedStage()));
+                generator.writeStringField("error", String.valueOf(result.getError()));
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeEndArray();
+            generator.close();
+        }
+    }
+}
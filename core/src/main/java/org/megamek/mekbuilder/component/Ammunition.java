@@ -19,7 +19,11 @@
 package org.megamek.mekbuilder.component;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonParser;
 import megamek.common.AmmoType;
+import org.megamek.mekbuilder.utilities.JsonStreams;
+
+import java.io.IOException;
 
 /**
  * Component for weapon ammunition
@@ -65,4 +69,33 @@ public class Ammunition extends Component {
     public double tonsPerShot() {
         return kgPerShot / 1000.0;
     }
+
+    @Override
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "ammoType":
+                ammoType = JsonStreams.readEnum(parser, AmmunitionType.class);
+                return true;
+            case "munitionType":
+                munitionType = parser.getValueAsString();
+                return true;
+            case "damagePerShot":
+                damagePerShot = parser.getValueAsInt();
+                return true;
+            case "rackSize":
+                rackSize = parser.getValueAsInt();
+                return true;
+            case "shots":
+                shots = parser.getValueAsInt();
+                return true;
+            case "kgPerShot":
+                kgPerShot = parser.getValueAsDouble();
+                return true;
+            case "range":
+                range = WeaponRange.read(parser);
+                return true;
+            default:
+                return super.readField(name, parser);
+        }
+    }
 }
@@ -18,6 +18,7 @@
  */
 package org.megamek.mekbuilder.component;
 
+import org.megamek.mekbuilder.unit.DesignFingerprint;
 import org.megamek.mekbuilder.unit.UnitBuild;
 import org.megamek.mekbuilder.unit.UnitLocation;
 
@@ -53,6 +54,39 @@ public class ArmorMount extends DistributedMount {
         setPatchwork(armor.hasFlag(ComponentSwitch.PATCHWORK_ARMOR));
     }
 
+    /**
+     * Also copies the armor points and armor type for each location, the armor tonnage, and whether
+     * the armor is patchwork.
+     */
+    protected ArmorMount(ArmorMount other, UnitBuild unit) {
+        super(other, unit);
+        armorPoints = new EnumMap<>(other.armorPoints);
+        rearArmorPoints = new EnumMap<>(other.rearArmorPoints);
+        armorByLocation = new EnumMap<>(other.armorByLocation);
+        armorTonnage = other.armorTonnage;
+        patchwork = other.patchwork;
+    }
+
+    @Override
+    public ArmorMount copyTo(UnitBuild unit) {
+        return new ArmorMount(this, unit);
+    }
+
+    @Override
+    public void fingerprint(DesignFingerprint.Builder builder) {
+        super.fingerprint(builder);
+        builder.add(armorTonnage).add(patchwork);
+        for (Map.Entry<UnitLocation, Integer> entry : armorPoints.entrySet()) {
+            builder.add(entry.getKey()).add(entry.getValue());
+        }
+        for (Map.Entry<UnitLocation, Integer> entry : rearArmorPoints.entrySet()) {
+            builder.add(entry.getKey()).add(entry.getValue());
+        }
+        for (Map.Entry<UnitLocation, Armor> entry : armorByLocation.entrySet()) {
+            builder.add(entry.getKey()).add(entry.getValue().getInternalName());
+        }
+    }
+
     public boolean isPatchwork() {
         return patchwork;
     }
@@ -68,6 +102,7 @@ public class ArmorMount extends DistributedMount {
             }
         }
         this.patchwork = patchwork;
+        markModified();
     }
 
     @Override
@@ -75,16 +110,24 @@ public class ArmorMount extends DistributedMount {
         return armorTonnage;
     }
 
+    /**
+     * @param tonnage The weight of armor on the unit
+     */
+    public void setArmorTonnage(double tonnage) {
+        armorTonnage = tonnage;
+        markModified();
+    }
+
     public int getTotalArmorPoints() {
         return (int)(armorTonnage * getPointsPerTon());
     }
 
     public double getWeightPerPoint() {
-        return getComponent().calcWeight(getUnit());
+        return getComponent().calcUnroundedWeight(getUnit());
     }
 
     public double getPointsPerTon() {
-        double wpp = getComponent().calcWeight(getUnit());
+        double wpp = getWeightPerPoint();
         if (wpp > 0) {
             return 1.0 / wpp;
         } else {
@@ -98,11 +141,98 @@ public class ArmorMount extends DistributedMount {
     }
 
     public int getArmorPoints(UnitLocation loc) {
-        return armorPoints.get(loc);
+        return armorPoints.getOrDefault(loc, 0);
     }
 
     public int getRearArmorPoints(UnitLocation loc) {
-        return rearArmorPoints.get(loc);
+        return rearArmorPoints.getOrDefault(loc, 0);
+    }
+
+    /**
+     * @param loc    A location on the unit
+     * @param points The number of armor points to allocate to the front of the location
+     * @throws IllegalArgumentException if the location cannot be armored
+     */
+    public void setArmorPoints(UnitLocation loc, int points) {
+        if (!loc.isArmored()) {
+            throw new IllegalArgumentException(loc + " cannot be armored");
+        }
+        armorPoints.put(loc, points);
+        markModified();
+    }
+
+    /**
+     * @param loc    A location on the unit
+     * @param points The number of armor points to allocate to the rear of the location
+     * @throws IllegalArgumentException if the location does not have rear armor
+     */
+    public void setRearArmorPoints(UnitLocation loc, int points) {
+        if (!loc.hasRearArmor()) {
+            throw new IllegalArgumentException(loc + " does not have rear armor");
+        }
+        rearArmorPoints.put(loc, points);
+        markModified();
+    }
+
+    /**
+     * Sets the armor tonnage and distributes the points among the unit's locations.
+     *
+     * @param tonnage The weight of armor on the unit
+     * @param profile The weights used to distribute the points
+     * @see #allocate(ArmorProfile)
+     */
+    public void allocate(double tonnage, ArmorProfile profile) {
+        armorTonnage = tonnage;
+        allocate(profile);
+    }
+
+    /**
+     * Distributes the armor points provided by the current tonnage among the unit's locations, replacing
+     * any existing allocation. The head is filled first up to the profile's head priority. The remaining
+     * points are divided in proportion to the room left in each location, rounding in location order so
+     * the result is the same every time and no location goes over its maximum. Points beyond the total
+     * maximum for the unit are not allocated. In locations with rear armor the points are split between
+     * front and rear according to the profile.
+     *
+     * @param profile The weights used to distribute the points
+     */
+    public void allocate(ArmorProfile profile) {
+        final UnitBuild unit = getUnit();
+        final UnitLocation[] locations = unit.getLocationSet().stream()
+                .filter(UnitLocation::isArmored).toArray(UnitLocation[]::new);
+        final int[] capacity = new int[locations.length];
+        final int[] points = new int[locations.length];
+        long totalCapacity = 0;
+        for (int i = 0; i < locations.length; i++) {
+            capacity[i] = Math.max(0, unit.getMaxArmorPoints(locations[i]));
+            totalCapacity += capacity[i];
+        }
+        long remaining = Math.min(getTotalArmorPoints(), totalCapacity);
+        armorPoints.replaceAll((loc, p) -> 0);
+        rearArmorPoints.replaceAll((loc, p) -> 0);
+        for (int i = 0; i < locations.length; i++) {
+            if (locations[i] == UnitLocation.MEK_HEAD) {
+                points[i] = (int) Math.min(remaining, Math.round(capacity[i] * profile.getHeadPriority()));
+                capacity[i] -= points[i];
+                totalCapacity -= points[i];
+                remaining -= points[i];
+            }
+        }
+        long cumulativeCapacity = 0;
+        long assigned = 0;
+        for (int i = 0; i < locations.length; i++) {
+            cumulativeCapacity += capacity[i];
+            final long next = (totalCapacity > 0) ? remaining * cumulativeCapacity / totalCapacity : 0;
+            points[i] += (int) (next - assigned);
+            assigned = next;
+            final int rear = locations[i].hasRearArmor() ?
+                    (int) Math.round(points[i] * profile.getRearFraction()) : 0;
+            armorPoints.put(locations[i], points[i] - rear);
+            if (locations[i].hasRearArmor()) {
+                rearArmorPoints.put(locations[i], rear);
+            }
+        }
+        markModified();
     }
 
     @Override
@@ -0,0 +1,105 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import java.util.Collection;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Weights used by {@link ArmorMount#allocate(ArmorProfile)} to distribute armor points among locations.
+ * Profiles are immutable and can be shared between threads.
+ */
+public final class ArmorProfile {
+
+    /**
+     * Fills the head first and places a quarter of the torso armor on the rear.
+     */
+    public static final ArmorProfile DEFAULT = new ArmorProfile(0.25, 1.0);
+
+    private final double rearFraction;
+    private final double headPriority;
+
+    /**
+     * @param rearFraction The fraction of the points in a location with rear armor that are placed on the rear
+     * @param headPriority The fraction of the head's maximum armor that is filled before any other location.
+     *                     The rest of the head is filled in proportion to the other locations.
+     * @throws IllegalArgumentException if either value is not between 0 and 1
+     */
+    public ArmorProfile(double rearFraction, double headPriority) {
+        if (!(rearFraction >= 0 && rearFraction <= 1)) {
+            throw new IllegalArgumentException("Rear fraction must be between 0 and 1: " + rearFraction);
+        }
+        if (!(headPriority >= 0 && headPriority <= 1)) {
+            throw new IllegalArgumentException("Head priority must be between 0 and 1: " + headPriority);
+        }
+        this.rearFraction = rearFraction;
+        this.headPriority = headPriority;
+    }
+
+    public double getRearFraction() {
+        return rearFraction;
+    }
+
+    public double getHeadPriority() {
+        return headPriority;
+    }
+
+    /**
+     * Sets the armor tonnage of a number of units and distributes the points using this profile. The mounts
+     * are processed in parallel, so each one must belong to a different unit and no other thread can be
+     * using the units.
+     *
+     * @param mounts  The armor mounts
+     * @param tonnage Gives the armor tonnage for each mount
+     */
+    public void allocateAll(Collection<? extends ArmorMount> mounts, ToDoubleFunction<? super ArmorMount> tonnage) {
+        mounts.parallelStream().forEach(m -> m.allocate(tonnage.applyAsDouble(m), this));
+    }
+
+    /**
+     * Distributes the points of a number of units that already have their armor tonnage set. The mounts
+     * are processed in parallel, so each one must belong to a different unit and no other thread can be
+     * using the units.
+     *
+     * @param mounts The armor mounts
+     */
+    public void allocateAll(Collection<? extends ArmorMount> mounts) {
+        mounts.parallelStream().forEach(m -> m.allocate(this));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ArmorProfile)) {
+            return false;
+        }
+        final ArmorProfile other = (ArmorProfile) o;
+        return (Double.compare(rearFraction, other.rearFraction) == 0)
+                && (Double.compare(headPriority, other.headPriority) == 0);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(rearFraction) + Double.hashCode(headPriority);
+    }
+
+    @Override
+    public String toString() {
+        return "ArmorProfile{rear=" + rearFraction + ", head=" + headPriority + "}";
+    }
+}
@@ -83,6 +83,23 @@ public enum CalcMethod {
         return calculation.calcValue(component, unit, factor);
     }
 
+    /**
+     * @return Whether the value depends on the other mounts on the unit, such as the tonnage of the weapons
+     *         linked to a targeting computer
+     */
+    public boolean isMountDependent() {
+        switch (this) {
+            case ARMOR_TONNAGE:
+            case ARMOR_VALUE:
+            case WEAPON_TONNAGE:
+            case TARGETING_COMPUTER_TONNAGE:
+            case ENERGY_WEAPON_TONNAGE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     public static CalcMethod fromAbbrev(String abbrev) {
         return Arrays.stream(CalcMethod.values()).filter(v -> v.abbrev.equals(abbrev)).findFirst().orElse(null);
     }
@@ -18,9 +18,12 @@
  */
 package org.megamek.mekbuilder.component;
 
+import com.fasterxml.jackson.core.JsonParser;
 import org.megamek.mekbuilder.unit.UnitBuild;
 import org.megamek.mekbuilder.unit.UnitLocation;
+import org.megamek.mekbuilder.utilities.JsonStreams;
 
+import java.io.IOException;
 import java.util.EnumMap;
 import java.util.Map;
 
@@ -74,4 +77,21 @@ public class Cockpit extends Component {
     public int fixedLifeSupportSlots(UnitBuild unit, UnitLocation loc) {
         return lifeSupportLocations.getOrDefault(loc, 0);
     }
+
+    @Override
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "sensorLocations":
+                sensorLocations = JsonStreams.readEnumIntMap(parser, UnitLocation.class);
+                return true;
+            case "lifeSupportLocations":
+                lifeSupportLocations = JsonStreams.readEnumIntMap(parser, UnitLocation.class);
+                return true;
+            case "torsoMounted":
+                torsoMounted = parser.getValueAsBoolean();
+                return true;
+            default:
+                return super.readField(name, parser);
+        }
+    }
 }
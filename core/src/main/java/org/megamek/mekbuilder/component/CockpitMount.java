@@ -35,6 +35,15 @@ public class CockpitMount extends DistributedMount {
         super(build, cockpit);
     }
 
+    protected CockpitMount(CockpitMount other, UnitBuild unit) {
+        super(other, unit);
+    }
+
+    @Override
+    public CockpitMount copyTo(UnitBuild unit) {
+        return new CockpitMount(this, unit);
+    }
+
     public Cockpit getCockpit() {
         return (Cockpit) getComponent();
     }
@@ -21,6 +21,7 @@ package org.megamek.mekbuilder.component;
 import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.sun.istack.Nullable;
@@ -29,7 +30,9 @@ import org.megamek.mekbuilder.unit.HeatStrategy;
 import org.megamek.mekbuilder.unit.UnitBuild;
 import org.megamek.mekbuilder.unit.UnitLocation;
 import org.megamek.mekbuilder.unit.UnitType;
+import org.megamek.mekbuilder.utilities.JsonStreams;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -78,6 +81,131 @@ public class Component implements ITechDelegator {
     @JsonCreator
     Component() {}
 
+    /**
+     * Sets a field from the json token stream when reading the data files with the streaming parser.
+     * Subclasses that add fields should override this and pass any fields they do not recognize
+     * to the superclass.
+     *
+     * @param name   The name of the field in the data file
+     * @param parser The parser, positioned on the first token of the field value
+     * @return       Whether the field was recognized
+     * @throws IOException If the value could not be read
+     */
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "componentType":
+                componentType = JsonStreams.readEnum(parser, ComponentType.class);
+                return true;
+            case "isDefault":
+                isDefault = parser.getValueAsBoolean();
+                return true;
+            case "internalName":
+                internalName = parser.getValueAsString();
+                return true;
+            case "mmName":
+                mmName = parser.getValueAsString();
+                return true;
+            case "fullName":
+                fullName = parser.getValueAsString();
+                return true;
+            case "shortName":
+                shortName = parser.getValueAsString();
+                return true;
+            case "nameFormat":
+                nameFormat = parser.getValueAsString();
+                return true;
+            case "weightFactor":
+                weightFactor = parser.getValueAsDouble();
+                return true;
+            case "weightAddend":
+                weightAddend = parser.getValueAsDouble();
+                return true;
+            case "weightCalc":
+                weightCalc = JsonStreams.readEnum(parser, CalcMethod.class);
+                return true;
+            case "roundWeight":
+                roundWeight = JsonStreams.readEnum(parser, RoundWeight.class);
+                return true;
+            case "costFactor":
+                costFactor = parser.getValueAsDouble();
+                return true;
+            case "costAddend":
+                costAddend = parser.getValueAsDouble();
+                return true;
+            case "costCalc":
+                costCalc = JsonStreams.readEnum(parser, CalcMethod.class);
+                return true;
+            case "slots":
+                slots = parser.getValueAsDouble();
+                return true;
+            case "slotAddend":
+                slotAddend = parser.getValueAsDouble();
+                return true;
+            case "slotCalc":
+                slotCalc = JsonStreams.readEnum(parser, CalcMethod.class);
+                return true;
+            case "bvFactor":
+                bvFactor = parser.getValueAsDouble();
+                return true;
+            case "bvFactor2":
+                bvFactor2 = parser.getValueAsDouble();
+                return true;
+            case "bvCalcType":
+                bvCalcType = JsonStreams.readEnum(parser, BVCalcType.class);
+                return true;
+            case "rulesRef":
+                rulesRef = parser.getValueAsString();
+                return true;
+            case "switches":
+                switches = ComponentSwitch.readSwitchMap(parser);
+                return true;
+            case "techProgression":
+            case "techAdvancement":
+                techProgression = TechProgression.parse(parser.getText());
+                return true;
+            case "permittedLocations":
+                permittedLocations = JsonStreams.readEnumSet(parser, UnitLocation.class);
+                return true;
+            case "requiredComponents":
+                requiredComponents = ComponentSwitch.readSwitchMap(parser);
+                return true;
+            case "incompatibleComponents":
+                incompatibleComponents = ComponentSwitch.readSwitchMap(parser);
+                return true;
+            case "fixedLocations":
+                fixedLocations = JsonStreams.readEnumIntMap(parser, UnitLocation.class);
+                return true;
+            case "allowedUnitTypes":
+                allowedUnitTypes = JsonStreams.readEnumSet(parser, UnitType.class);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Replaces the strings and collections read from the data file with compact instances that are shared
+     * with other components. This is called by the library once the component has been loaded, and does not
+     * change any values.
+     *
+     * @param pool The shared instances
+     */
+    void compact(FlyweightPool pool) {
+        internalName = pool.string(internalName);
+        mmName = pool.string(mmName);
+        fullName = pool.string(fullName);
+        shortName = pool.string(shortName);
+        nameFormat = pool.string(nameFormat);
+        rulesRef = pool.string(rulesRef);
+        switches = pool.switchMap(switches);
+        techProgression = pool.techProgression(techProgression);
+        permittedLocations = pool.enumSet(permittedLocations);
+        requiredComponents = pool.switchMap(requiredComponents);
+        incompatibleComponents = pool.switchMap(incompatibleComponents);
+        fixedLocations = pool.enumMap(fixedLocations);
+        allowedUnitTypes = pool.enumSet(allowedUnitTypes);
+    }
+
     double getWeightFactor() {
         return weightFactor;
     }
@@ -187,6 +315,17 @@ public class Component implements ITechDelegator {
                unit);
     }
 
+    /**
+     * Calculates the weight of a single component without applying the rounding method. This is needed
+     * for components such as armor where rounding applies to the total rather than to each unit.
+     *
+     * @param unit The unit mounting the component
+     * @return The unrounded weight of a single component
+     */
+    double calcUnroundedWeight(UnitBuild unit) {
+        return weightCalc.calcValue(this, unit, weightFactor) + weightAddend;
+    }
+
     /**
      * Calculates the cost of the component. This should be access through the {@link Mount}
      *
@@ -234,6 +373,18 @@ public class Component implements ITechDelegator {
         return (int) Math.ceil(s);
     }
 
+    /**
+     * A component whose slots depend on the other mounts, such as a targeting computer, can change size when
+     * another mount is added or removed.
+     *
+     * @return Whether the number of slots depends on the other mounts on the unit
+     */
+    public boolean slotsDependOnMounts() {
+        return slotCalc.isMountDependent()
+                || (((slotCalc == CalcMethod.COMPONENT_TONNAGE) || (slotCalc == CalcMethod.MASC))
+                    && weightCalc.isMountDependent());
+    }
+
     /**
      * This mostly applies to heat sinks, but there is other equipment (such as partial wings)
      * that provide heat dissipation benefits as well.
@@ -446,7 +597,15 @@ public class Component implements ITechDelegator {
      * @return Whether the component can be installed on the unit based on build type
      */
     public boolean allowed(UnitBuild unit) {
-        return allowedUnitTypes.isEmpty() || allowedUnitTypes.contains(unit.getUnitType());
+        return allowed(unit.getUnitType());
+    }
+
+    /**
+     * @param unitType The type of unit
+     * @return Whether the component can be installed on that type of unit
+     */
+    public boolean allowed(UnitType unitType) {
+        return allowedUnitTypes.isEmpty() || allowedUnitTypes.contains(unitType);
     }
 
     /**
@@ -456,6 +615,13 @@ public class Component implements ITechDelegator {
         return Collections.unmodifiableSet(requiredComponents.keySet());
     }
 
+    /**
+     * @return A set of flags that identify components that cannot be installed along with this one.
+     */
+    public Set<ComponentSwitch> incompatibilities() {
+        return Collections.unmodifiableSet(incompatibleComponents.keySet());
+    }
+
     /**
      * Checks list of incompatible components against another's flags and vice versa.
      *
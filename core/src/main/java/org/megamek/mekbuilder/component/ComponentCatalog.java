@@ -0,0 +1,636 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.tech.TechProgression;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Precompiled binary form of the component json files. The catalog is generated at build time
+ * by running {@link #main(String[])} and is memory-mapped at runtime so that the library can be
+ * populated without going through the json parser. The json files remain the source of truth;
+ * if the catalog is missing or was compiled against a different version of the component classes
+ * {@link #open()} returns {@code null} and the library falls back to parsing the json.
+ *
+ * The file consists of a header, a table of all distinct strings, and the component records
+ * grouped by the {@link ComponentType} of the file they were read from. Each record starts with
+ * the index of the concrete component class followed by the values of all the persistent fields of
+ * that class in a fixed order: numeric fields are written at fixed width, strings and tech
+ * progression as an index into the string table, and enum sets and switch maps as bitsets.
+ */
+public class ComponentCatalog {
+
+    static final String RESOURCE_NAME = "components.catalog";
+
+    private static final int MAGIC = 0x4d4b4354; // MKCT
+    private static final int VERSION = 1;
+    private static final int NO_STRING = -1;
+
+    /**
+     * All concrete component classes that can appear in the catalog. The index in this array
+     * is used to identify the class in each record.
+     */
+    private static final List<Class<? extends Component>> COMPONENT_CLASSES = Arrays.asList(
+            Component.class, Ammunition.class, Armor.class, Cockpit.class, HeatSink.class,
+            HeavyWeapon.class, InfantryArmorKit.class, InfantryWeapon.class, MoveEnhancement.class,
+            MVFEngine.class, PhysicalWeapon.class, SecondaryMotiveSystem.class);
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final int[] sectionOffsets = new int[ComponentType.values().length];
+    private final int[] sectionCounts = new int[ComponentType.values().length];
+
+    private ComponentCatalog(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if ((buffer.getInt() != MAGIC) || (buffer.getInt() != VERSION)) {
+            throw new IOException("Not a component catalog");
+        }
+        if (buffer.getLong() != Schema.hash) {
+            throw new IOException("Component catalog was compiled against different component classes");
+        }
+        final int sectionCount = buffer.getInt();
+        if (sectionCount != ComponentType.values().length) {
+            throw new IOException("Component catalog has unexpected number of sections");
+        }
+        for (int i = 0; i < sectionCount; i++) {
+            sectionOffsets[i] = buffer.getInt();
+            sectionCounts[i] = buffer.getInt();
+        }
+        strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            final byte[] bytes = new byte[buffer.getShort() & 0xffff];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        final int recordStart = buffer.position();
+        for (int i = 0; i < sectionCount; i++) {
+            sectionOffsets[i] += recordStart;
+        }
+    }
+
+    /**
+     * Opens the catalog packaged with the component resources. If the resource is a file on disk it
+     * is memory-mapped, otherwise (e.g. inside a jar) it is read into memory.
+     *
+     * @return The catalog, or {@code null} if there is no catalog or it cannot be used with this
+     *         version of the component classes.
+     */
+    static @Nullable ComponentCatalog open() {
+        final URL url = ComponentCatalog.class.getResource(RESOURCE_NAME);
+        if (null == url) {
+            return null;
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                return open(Paths.get(url.toURI()));
+            }
+            try (InputStream is = url.openStream()) {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                final byte[] buf = new byte[8192];
+                int read;
+                while ((read = is.read(buf)) > 0) {
+                    bytes.write(buf, 0, read);
+                }
+                return new ComponentCatalog(ByteBuffer.wrap(bytes.toByteArray()));
+            }
+        } catch (IOException | URISyntaxException ex) {
+            System.err.println("Could not use component catalog: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Memory-maps a catalog file.
+     *
+     * @param path The location of the catalog
+     * @return     The catalog
+     * @throws IOException If the file cannot be read or is not a catalog compatible with the
+     *                     current component classes
+     */
+    static ComponentCatalog open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ComponentCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Builds all the components that were compiled from the json file for a component type.
+     *
+     * @param type The type of component
+     * @return     The components, in the same order as the json file
+     */
+    List<Component> read(ComponentType type) {
+        final ByteBuffer in = buffer.duplicate();
+        in.position(sectionOffsets[type.ordinal()]);
+        final List<Component> list = new ArrayList<>(sectionCounts[type.ordinal()]);
+        for (int i = 0; i < sectionCounts[type.ordinal()]; i++) {
+            final RecordLayout layout = Schema.layouts.get(COMPONENT_CLASSES.get(in.get()));
+            list.add((Component) layout.read(in, strings));
+        }
+        return list;
+    }
+
+    /**
+     * Compiles components into a catalog file.
+     *
+     * @param components The components to write, grouped by the component type of the json file
+     * @param out        The stream to write the catalog to
+     * @throws IOException If there is an error writing to the stream
+     */
+    static void write(Map<ComponentType, List<? extends Component>> components,
+                      OutputStream out) throws IOException {
+        final StringTable stringTable = new StringTable();
+        final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        final DataOutputStream recordOut = new DataOutputStream(records);
+        final int[] offsets = new int[ComponentType.values().length];
+        final int[] counts = new int[ComponentType.values().length];
+        for (ComponentType type : ComponentType.values()) {
+            offsets[type.ordinal()] = recordOut.size();
+            for (Component c : components.getOrDefault(type, Collections.emptyList())) {
+                final int classIndex = COMPONENT_CLASSES.indexOf(c.getClass());
+                if (classIndex < 0) {
+                    throw new IOException("No catalog layout for " + c.getClass().getName());
+                }
+                recordOut.writeByte(classIndex);
+                Schema.layouts.get(c.getClass()).write(c, recordOut, stringTable);
+                counts[type.ordinal()]++;
+            }
+        }
+        recordOut.flush();
+
+        final DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeLong(Schema.hash);
+        dos.writeInt(offsets.length);
+        for (int i = 0; i < offsets.length; i++) {
+            dos.writeInt(offsets[i]);
+            dos.writeInt(counts[i]);
+        }
+        dos.writeInt(stringTable.strings.size());
+        for (String s : stringTable.strings) {
+            final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            dos.writeShort(bytes.length);
+            dos.write(bytes);
+        }
+        records.writeTo(dos);
+        dos.flush();
+    }
+
+    /**
+     * Build-time entry point. Parses the component json files and writes the catalog.
+     *
+     * @param args The path of the catalog file to write
+     * @throws IOException If the json cannot be read or the catalog cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ComponentCatalog <output file>");
+            System.exit(1);
+        }
+        final File file = new File(args[0]);
+        if ((null != file.getParentFile()) && !file.getParentFile().exists()
+                && !file.getParentFile().mkdirs()) {
+            throw new IOException("Could not create directory " + file.getParent());
+        }
+        final Map<ComponentType, List<? extends Component>> components = ComponentLibrary.loadJson();
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(file))) {
+            write(components, os);
+        }
+        System.out.println("Wrote " + components.values().stream().mapToInt(List::size).sum()
+                + " components to " + file);
+    }
+
+    private static long fnv(long hash, String str) {
+        for (byte b : str.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Assigns indices to strings as they are written.
+     */
+    private static class StringTable {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        int indexOf(@Nullable String str) {
+            if (null == str) {
+                return NO_STRING;
+            }
+            return indices.computeIfAbsent(str, s -> {
+                strings.add(s);
+                return strings.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Writes and reads a single value of a particular type.
+     */
+    private interface ValueCodec {
+        void write(@Nullable Object value, DataOutputStream out, StringTable strings) throws IOException;
+        @Nullable Object read(ByteBuffer in, String[] strings);
+    }
+
+    /**
+     * Pairs a field with the codec used to store its value.
+     */
+    private static class FieldCodec {
+        final Field field;
+        final ValueCodec codec;
+
+        FieldCodec(Field field, ValueCodec codec) {
+            this.field = field;
+            this.codec = codec;
+        }
+    }
+
+    /**
+     * The sequence of fields that make up the record for a class. Fields are ordered from superclass
+     * to subclass, and by name within each class.
+     */
+    private static class RecordLayout {
+        private final Constructor<?> constructor;
+        private final List<FieldCodec> fields = new ArrayList<>();
+
+        RecordLayout(Class<?> clazz) {
+            try {
+                constructor = clazz.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException(clazz.getName() + " has no default constructor", ex);
+            }
+            final Deque<Class<?>> hierarchy = new ArrayDeque<>();
+            for (Class<?> c = clazz; (null != c) && !c.equals(Object.class); c = c.getSuperclass()) {
+                hierarchy.push(c);
+            }
+            for (Class<?> c : hierarchy) {
+                Arrays.stream(c.getDeclaredFields())
+                        .filter(f -> !Modifier.isStatic(f.getModifiers()) && !Modifier.isTransient(f.getModifiers()))
+                        .sorted(Comparator.comparing(Field::getName))
+                        .forEach(f -> {
+                            f.setAccessible(true);
+                            fields.add(new FieldCodec(f, codecFor(f.getGenericType())));
+                        });
+            }
+        }
+
+        void write(Object obj, DataOutputStream out, StringTable strings) throws IOException {
+            try {
+                for (FieldCodec fc : fields) {
+                    fc.codec.write(fc.field.get(obj), out, strings);
+                }
+            } catch (IllegalAccessException ex) {
+                throw new IOException(ex);
+            }
+        }
+
+        Object read(ByteBuffer in, String[] strings) {
+            try {
+                final Object obj = constructor.newInstance();
+                for (FieldCodec fc : fields) {
+                    fc.field.set(obj, fc.codec.read(in, strings));
+                }
+                return obj;
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    private static ValueCodec codecFor(Type type) {
+        if (type.equals(double.class) || type.equals(Double.class)) {
+            return DOUBLE_CODEC;
+        } else if (type.equals(int.class) || type.equals(Integer.class)) {
+            return INT_CODEC;
+        } else if (type.equals(boolean.class) || type.equals(Boolean.class)) {
+            return BOOLEAN_CODEC;
+        } else if (type.equals(String.class)) {
+            return STRING_CODEC;
+        } else if (type.equals(TechProgression.class)) {
+            return TECH_PROGRESSION_CODEC;
+        } else if ((type instanceof Class<?>) && ((Class<?>) type).isEnum()) {
+            return new EnumCodec((Class<?>) type);
+        } else if (type instanceof ParameterizedType) {
+            final ParameterizedType pt = (ParameterizedType) type;
+            final Class<?> raw = (Class<?>) pt.getRawType();
+            final Type[] args = pt.getActualTypeArguments();
+            if (Set.class.isAssignableFrom(raw) && isEnum(args[0])) {
+                return new EnumSetCodec((Class<?>) args[0]);
+            } else if (Map.class.isAssignableFrom(raw) && args[0].equals(ComponentSwitch.class)) {
+                return SWITCH_MAP_CODEC;
+            } else if (Map.class.isAssignableFrom(raw) && isEnum(args[0])) {
+                return new EnumMapCodec((Class<?>) args[0], codecFor(args[1]));
+            } else if (List.class.isAssignableFrom(raw)) {
+                return new ListCodec(codecFor(args[0]));
+            }
+        } else if (type instanceof Class<?>) {
+            return new ObjectCodec(new RecordLayout((Class<?>) type));
+        }
+        throw new IllegalStateException("No catalog codec for " + type.getTypeName());
+    }
+
+    private static boolean isEnum(Type type) {
+        return (type instanceof Class<?>) && ((Class<?>) type).isEnum();
+    }
+
+    private static final ValueCodec DOUBLE_CODEC = new ValueCodec() {
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            out.writeDouble((Double) value);
+        }
+
+        @Override
+        public Object read(ByteBuffer in, String[] strings) {
+            return in.getDouble();
+        }
+    };
+
+    private static final ValueCodec INT_CODEC = new ValueCodec() {
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            out.writeInt((Integer) value);
+        }
+
+        @Override
+        public Object read(ByteBuffer in, String[] strings) {
+            return in.getInt();
+        }
+    };
+
+    private static final ValueCodec BOOLEAN_CODEC = new ValueCodec() {
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            out.writeBoolean((Boolean) value);
+        }
+
+        @Override
+        public Object read(ByteBuffer in, String[] strings) {
+            return in.get() != 0;
+        }
+    };
+
+    private static final ValueCodec STRING_CODEC = new ValueCodec() {
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            out.writeInt(strings.indexOf((String) value));
+        }
+
+        @Override
+        public Object read(ByteBuffer in, String[] strings) {
+            final int index = in.getInt();
+            return index == NO_STRING ? null : strings[index];
+        }
+    };
+
+    /**
+     * Tech progression is stored using the same string format as the json files.
+     */
+    private static final ValueCodec TECH_PROGRESSION_CODEC = new ValueCodec() {
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            out.writeInt(strings.indexOf(null == value ? null : value.toString()));
+        }
+
+        @Override
+        public Object read(ByteBuffer in, String[] strings) {
+            final int index = in.getInt();
+            return index == NO_STRING ? null : TechProgression.parse(strings[index]);
+        }
+    };
+
+    /**
+     * Switch maps are stored as a bitset of the switches present, followed by a string table index
+     * for each switch value. Values that match the switch's default are not stored, which preserves
+     * defaults that do not survive conversion to a string (such as an empty set).
+     */
+    private static final ValueCodec SWITCH_MAP_CODEC = new ValueCodec() {
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            @SuppressWarnings("unchecked")
+            final Map<ComponentSwitch, Object> map = (Map<ComponentSwitch, Object>) value;
+            long bits = 0;
+            for (ComponentSwitch cs : map.keySet()) {
+                bits |= 1L << cs.ordinal();
+            }
+            out.writeLong(bits);
+            for (ComponentSwitch cs : ComponentSwitch.values()) {
+                if (map.containsKey(cs)) {
+                    final Object val = map.get(cs);
+                    if (Objects.equals(val, cs.deserializeValue(null))) {
+                        out.writeInt(NO_STRING);
+                    } else {
+                        out.writeInt(strings.indexOf(ComponentSwitch.serializeValue(val)));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer in, String[] strings) {
+            final Map<ComponentSwitch, Object> map = new EnumMap<>(ComponentSwitch.class);
+            final long bits = in.getLong();
+            for (ComponentSwitch cs : ComponentSwitch.values()) {
+                if ((bits & (1L << cs.ordinal())) != 0) {
+                    final int index = in.getInt();
+                    map.put(cs, cs.deserializeValue(index == NO_STRING ? null : strings[index]));
+                }
+            }
+            return map;
+        }
+    };
+
+    private static class EnumCodec implements ValueCodec {
+        private final Object[] values;
+
+        EnumCodec(Class<?> enumClass) {
+            values = enumClass.getEnumConstants();
+        }
+
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            out.writeShort(null == value ? -1 : ((Enum<?>) value).ordinal());
+        }
+
+        @Override
+        public Object read(ByteBuffer in, String[] strings) {
+            final short ordinal = in.getShort();
+            return ordinal < 0 ? null : values[ordinal];
+        }
+    }
+
+    private static class EnumSetCodec implements ValueCodec {
+        private final Class<?> enumClass;
+        private final Object[] values;
+
+        EnumSetCodec(Class<?> enumClass) {
+            this.enumClass = enumClass;
+            values = enumClass.getEnumConstants();
+            if (values.length > Long.SIZE) {
+                throw new IllegalStateException("Too many values in " + enumClass.getName() + " to store as bitset");
+            }
+        }
+
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            long bits = 0;
+            for (Object e : (Set<?>) value) {
+                bits |= 1L << ((Enum<?>) e).ordinal();
+            }
+            out.writeLong(bits);
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Object read(ByteBuffer in, String[] strings) {
+            final Set set = EnumSet.noneOf((Class) enumClass);
+            final long bits = in.getLong();
+            for (int i = 0; i < values.length; i++) {
+                if ((bits & (1L << i)) != 0) {
+                    set.add(values[i]);
+                }
+            }
+            return set;
+        }
+    }
+
+    private static class EnumMapCodec implements ValueCodec {
+        private final Class<?> enumClass;
+        private final Object[] keys;
+        private final ValueCodec valueCodec;
+
+        EnumMapCodec(Class<?> enumClass, ValueCodec valueCodec) {
+            this.enumClass = enumClass;
+            this.keys = enumClass.getEnumConstants();
+            this.valueCodec = valueCodec;
+        }
+
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            out.writeShort(map.size());
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                out.writeShort(((Enum<?>) e.getKey()).ordinal());
+                valueCodec.write(e.getValue(), out, strings);
+            }
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Object read(ByteBuffer in, String[] strings) {
+            final Map map = new EnumMap(enumClass);
+            final int size = in.getShort();
+            for (int i = 0; i < size; i++) {
+                final Object key = keys[in.getShort()];
+                map.put(key, valueCodec.read(in, strings));
+            }
+            return map;
+        }
+    }
+
+    private static class ListCodec implements ValueCodec {
+        private final ValueCodec elementCodec;
+
+        ListCodec(ValueCodec elementCodec) {
+            this.elementCodec = elementCodec;
+        }
+
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            final List<?> list = (List<?>) value;
+            out.writeShort(list.size());
+            for (Object element : list) {
+                elementCodec.write(element, out, strings);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer in, String[] strings) {
+            final int size = in.getShort();
+            final List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(elementCodec.read(in, strings));
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Used for simple value classes such as {@link WeaponRange}.
+     */
+    private static class ObjectCodec implements ValueCodec {
+        private final RecordLayout layout;
+
+        ObjectCodec(RecordLayout layout) {
+            this.layout = layout;
+        }
+
+        @Override
+        public void write(Object value, DataOutputStream out, StringTable strings) throws IOException {
+            out.writeBoolean(null != value);
+            if (null != value) {
+                layout.write(value, out, strings);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer in, String[] strings) {
+            return in.get() != 0 ? layout.read(in, strings) : null;
+        }
+    }
+
+    /**
+     * The record layouts for all component classes and a hash of the field names and types, used to
+     * detect a catalog compiled against a different version of the classes. This is initialized
+     * in a separate class so the codecs are available when the layouts are built.
+     */
+    private static class Schema {
+        static final Map<Class<?>, RecordLayout> layouts = new HashMap<>();
+        static final long hash;
+
+        static {
+            long h = 0xcbf29ce484222325L;
+            for (Class<? extends Component> clazz : COMPONENT_CLASSES) {
+                RecordLayout layout = new RecordLayout(clazz);
+                layouts.put(clazz, layout);
+                h = fnv(h, clazz.getName());
+                for (FieldCodec fc : layout.fields) {
+                    h = fnv(h, fc.field.getName());
+                    h = fnv(h, fc.field.getGenericType().getTypeName());
+                }
+            }
+            hash = h;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import org.megamek.mekbuilder.unit.UnitType;
+
+import java.util.*;
+
+/**
+ * Secondary indexes over all the components in the library. Each component is assigned an ordinal
+ * that is used as its position in the membership bitsets. The index is immutable once built.
+ */
+class ComponentIndex {
+
+    private final List<Component> components;
+    private final Map<Component, Integer> ordinals = new IdentityHashMap<>();
+    private final Map<ComponentSwitch, BitSet> bySwitch = new EnumMap<>(ComponentSwitch.class);
+    private final Map<UnitType, BitSet> byUnitType = new EnumMap<>(UnitType.class);
+    private final Map<String, List<Component>> byMMName = new HashMap<>();
+    private final BitSet[] incompatible;
+
+    ComponentIndex(Collection<Component> all) {
+        components = Collections.unmodifiableList(new ArrayList<>(all));
+        for (ComponentSwitch cs : ComponentSwitch.values()) {
+            bySwitch.put(cs, new BitSet(components.size()));
+        }
+        for (UnitType ut : UnitType.values()) {
+            byUnitType.put(ut, new BitSet(components.size()));
+        }
+        for (int i = 0; i < components.size(); i++) {
+            final Component c = components.get(i);
+            ordinals.put(c, i);
+            for (ComponentSwitch cs : ComponentSwitch.values()) {
+                if (c.hasFlag(cs)) {
+                    bySwitch.get(cs).set(i);
+                }
+            }
+            for (UnitType ut : UnitType.values()) {
+                if (c.allowed(ut)) {
+                    byUnitType.get(ut).set(i);
+                }
+            }
+            for (String name : c.getMMName().split(",")) {
+                final String key = mmNameKey(name);
+                if (!key.isEmpty()) {
+                    byMMName.computeIfAbsent(key, k -> new ArrayList<>()).add(c);
+                }
+            }
+        }
+        byMMName.replaceAll((n, list) -> Collections.unmodifiableList(list));
+        incompatible = buildIncompatibility();
+    }
+
+    /**
+     * Two components are incompatible if either one lists a flag held by the other. For each component this
+     * is the union of the components that have any of its incompatible flags and the components that list any
+     * of its own flags as incompatible.
+     */
+    private BitSet[] buildIncompatibility() {
+        final Map<ComponentSwitch, BitSet> excludedBy = new EnumMap<>(ComponentSwitch.class);
+        for (int i = 0; i < components.size(); i++) {
+            for (ComponentSwitch cs : components.get(i).incompatibilities()) {
+                excludedBy.computeIfAbsent(cs, k -> new BitSet(components.size())).set(i);
+            }
+        }
+        final BitSet[] rows = new BitSet[components.size()];
+        for (int i = 0; i < components.size(); i++) {
+            final Component c = components.get(i);
+            final BitSet row = new BitSet(components.size());
+            for (ComponentSwitch cs : c.incompatibilities()) {
+                row.or(bySwitch.get(cs));
+            }
+            for (Map.Entry<ComponentSwitch, BitSet> entry : excludedBy.entrySet()) {
+                if (c.hasFlag(entry.getKey())) {
+                    row.or(entry.getValue());
+                }
+            }
+            rows[i] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * @return The number of components in the index
+     */
+    int size() {
+        return components.size();
+    }
+
+    /**
+     * @param ordinal The component's position in the index
+     * @return        The component
+     */
+    Component get(int ordinal) {
+        return components.get(ordinal);
+    }
+
+    /**
+     * @param component A component
+     * @return          The component's position in the index, or -1 if it is not in the index
+     */
+    int ordinal(Component component) {
+        return ordinals.getOrDefault(component, -1);
+    }
+
+    /**
+     * @param name A MegaMek equipment name
+     * @return     The components that list the name, in ordinal order
+     */
+    List<Component> withMMName(String name) {
+        return byMMName.getOrDefault(mmNameKey(name), Collections.emptyList());
+    }
+
+    /**
+     * MegaMek names are matched without regard to case or surrounding whitespace.
+     */
+    static String mmNameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return A copy of the set of ordinals of components that have the switch
+     */
+    BitSet withSwitch(ComponentSwitch cs) {
+        return (BitSet) bySwitch.get(cs).clone();
+    }
+
+    /**
+     * @return A copy of the set of ordinals of components that can be used by the unit type
+     */
+    BitSet allowedFor(UnitType unitType) {
+        return (BitSet) byUnitType.get(unitType).clone();
+    }
+
+    /**
+     * @return Whether the components at the two ordinals are incompatible
+     */
+    boolean incompatible(int first, int second) {
+        return incompatible[first].get(second);
+    }
+
+    /**
+     * Adds the ordinals of all components that are incompatible with the component at an ordinal.
+     *
+     * @param ordinal The component's position in the index
+     * @param set     The set to add to
+     */
+    void addIncompatible(int ordinal, BitSet set) {
+        set.or(incompatible[ordinal]);
+    }
+
+    /**
+     * @param members A set of component ordinals
+     * @return        The components in the set, in ordinal order
+     */
+    List<Component> toList(BitSet members) {
+        final List<Component> list = new ArrayList<>(members.cardinality());
+        for (int i = members.nextSetBit(0); i >= 0; i = members.nextSetBit(i + 1)) {
+            list.add(components.get(i));
+        }
+        return list;
+    }
+}
@@ -21,24 +21,459 @@ package org.megamek.mekbuilder.component;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.annotation.Nulls;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.megamek.mekbuilder.unit.UnitType;
+import org.megamek.mekbuilder.utilities.JsonStreams;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
 
 /**
  * Singleton class responsible for loading all components and providing a lookup service.
+ *
+ * Components are loaded separately for each {@link ComponentType} the first time that type is needed,
+ * so code that only deals with a few types does not need to wait for the large data files to be parsed.
+ * The library is safe to use from multiple threads.
  */
 public class ComponentLibrary {
-    private static ComponentLibrary instance = null;
 
     private final static String DATA_DIR = "data/components";
 
-    private final Map<String, Component> allComponents = new HashMap<>();
+    /**
+     * System property that can be set to {@code false} to ignore the precompiled component catalog
+     * and always parse the json files.
+     */
+    public static final String PROP_USE_CATALOG = "mekbuilder.useComponentCatalog";
 
-    private ComponentLibrary() {
+    private final Map<ComponentType, Partition> partitions = new EnumMap<>(ComponentType.class);
+    private final ComponentCatalog catalog;
+    private final ObjectMapper mapper;
+    private final boolean streaming;
+    private volatile ComponentIndex index;
+    private volatile Long dataVersion;
+    private final FlyweightPool pool = new FlyweightPool();
+
+    /**
+     * The data files that hold components of another type, in addition to the file for the type itself.
+     * Lookups by type only need to load these files.
+     */
+    private static final Map<ComponentType, Set<ComponentType>> RELATED_FILES = new EnumMap<>(ComponentType.class);
+
+    static {
+        // Apollo FCS is grouped with the enhancements it works with, such as Artemis
+        RELATED_FILES.put(ComponentType.ELECTRONICS, EnumSet.of(ComponentType.ENHANCEMENT));
+    }
+
+    private static class Holder {
+        private static volatile ComponentLibrary instance = new ComponentLibrary();
+    }
+
+    /**
+     * Creates a library with nothing loaded. Outside of tests, use the shared instance from {@link #getInstance()}.
+     */
+    ComponentLibrary() {
+        catalog = Boolean.parseBoolean(System.getProperty(PROP_USE_CATALOG, "true")) ?
+                ComponentCatalog.open() : null;
+        mapper = (null == catalog) ? createMapper() : null;
+        streaming = JsonStreams.useStreamingParser();
+        for (ComponentType type : ComponentType.values()) {
+            partitions.put(type, new Partition(type));
+        }
+    }
+
+    public static ComponentLibrary getInstance() {
+        return Holder.instance;
+    }
+
+    /**
+     * Replaces the shared instance, so that tests can check what is loaded by code that uses it.
+     *
+     * @param library The library to use as the shared instance
+     * @return        The previous shared instance
+     */
+    static ComponentLibrary setInstance(ComponentLibrary library) {
+        final ComponentLibrary previous = Holder.instance;
+        Holder.instance = library;
+        return previous;
+    }
+
+    /**
+     * Finds a component by its internal name. Component types that have already been loaded are
+     * searched first, and the remaining types are loaded only until the component is found.
+     *
+     * @param key The component's internal name
+     * @return    The component, or {@code null} if there is no component with that name
+     */
+    public Component getComponent(String key) {
+        for (Partition partition : partitions.values()) {
+            if (partition.isLoaded()) {
+                final Component c = partition.get().get(key);
+                if (null != c) {
+                    return c;
+                }
+            }
+        }
+        for (Partition partition : partitions.values()) {
+            if (!partition.isLoaded()) {
+                final Component c = partition.get().get(key);
+                if (null != c) {
+                    return c;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return All components, loading any types that have not been loaded yet
+     */
+    public Collection<Component> getAllComponents() {
+        final List<Component> list = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            list.addAll(partition.get().values());
+        }
+        return Collections.unmodifiableCollection(list);
+    }
+
+    /**
+     * Fetches the components defined in the data file for a component type, loading them if necessary.
+     * This is normally the same as all the components of that type, though a component can be
+     * included with a related type.
+     *
+     * @param type The type of component
+     * @return     The components in the data file for the type
+     */
+    public Collection<Component> getComponents(ComponentType type) {
+        return Collections.unmodifiableCollection(partitions.get(type).get().values());
+    }
+
+    /**
+     * Finds all components of a given type, using the type reported by the component rather than the
+     * data file it was loaded from. Only the data files that can hold components of the type are loaded.
+     *
+     * @param type The type of component
+     * @return     An unmodifiable list of all components of the given type
+     */
+    public List<Component> getComponentsOfType(ComponentType type) {
+        return ofType(type, p -> p.ofType(type));
+    }
+
+    /**
+     * Finds all components of a given type that can be installed on a type of unit. Only the data files that
+     * can hold components of the type are loaded.
+     *
+     * @param type     The type of component
+     * @param unitType The type of unit
+     * @return         An unmodifiable list of the components of the given type that are allowed for the unit type
+     */
+    public List<Component> getComponentsOfType(ComponentType type, UnitType unitType) {
+        return ofType(type, p -> p.ofType(type, unitType));
+    }
+
+    /**
+     * Combines the lists for a component type from each data file that can hold that type. In most cases
+     * there is only one, and its list is returned as is.
+     */
+    private List<Component> ofType(ComponentType type, Function<Partition, List<Component>> lookup) {
+        final Set<ComponentType> related = RELATED_FILES.get(type);
+        if (null == related) {
+            return lookup.apply(partitions.get(type));
+        }
+        final List<Component> list = new ArrayList<>();
+        for (ComponentType file : dataFiles(type)) {
+            list.addAll(lookup.apply(partitions.get(file)));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * @param type The type of component
+     * @return     The types whose data files can hold components of the type, in the order they are loaded
+     */
+    static Set<ComponentType> dataFiles(ComponentType type) {
+        final Set<ComponentType> files = EnumSet.of(type);
+        files.addAll(RELATED_FILES.getOrDefault(type, Collections.emptySet()));
+        return files;
+    }
+
+    /**
+     * @param flag A component switch
+     * @return     All components that have the switch
+     */
+    public List<Component> getComponentsWithFlag(ComponentSwitch flag) {
+        final ComponentIndex idx = getIndex();
+        return idx.toList(idx.withSwitch(flag));
+    }
+
+    /**
+     * @param unitType A type of unit
+     * @return         All components that can be installed on the unit type
+     */
+    public List<Component> getComponentsAllowed(UnitType unitType) {
+        final ComponentIndex idx = getIndex();
+        return idx.toList(idx.allowedFor(unitType));
+    }
+
+    /**
+     * Finds the components that correspond to a MegaMek equipment name. A component can list more than one
+     * name, separated by commas, and more than one component can have the same name, such as the Inner Sphere
+     * and Clan versions or components of different types that MegaMek names the same way. Names are matched
+     * without regard to case or surrounding whitespace.
+     *
+     * @param mmName The name used by MegaMek
+     * @return       The components with the name, or an empty list if there are none
+     */
+    public List<Component> getComponentsByMMName(String mmName) {
+        return getIndex().withMMName(mmName);
+    }
+
+    /**
+     * @param component A component
+     * @return          The component's position in the sets of component ordinals used by the library and by
+     *                  {@link TechAvailabilityIndex}, or -1 if it is not in the library
+     */
+    public int getOrdinal(Component component) {
+        return getIndex().ordinal(component);
+    }
+
+    /**
+     * @param ordinals A set of component ordinals
+     * @return         The components in the set, in ordinal order
+     */
+    public List<Component> getComponents(BitSet ordinals) {
+        return getIndex().toList(ordinals);
+    }
+
+    /**
+     * Checks whether two components can be installed on the same unit using the incompatibility matrix that is
+     * computed along with the other indexes. The result is the same as {@link Component#incompatibleWith(Component)}.
+     *
+     * @param first  A component
+     * @param second Another component
+     * @return       Whether the components are incompatible
+     */
+    public boolean incompatible(Component first, Component second) {
+        final ComponentIndex idx = getIndex();
+        final int i = idx.ordinal(first);
+        final int j = idx.ordinal(second);
+        if ((i < 0) || (j < 0)) {
+            return first.incompatibleWith(second);
+        }
+        return idx.incompatible(i, j);
+    }
+
+    /**
+     * @param components A group of components, such as those installed on a unit
+     * @return           A new set containing the ordinals of all components that are incompatible with
+     *                   at least one of them
+     */
+    public BitSet incompatibleWithAny(Collection<Component> components) {
+        final ComponentIndex idx = getIndex();
+        final BitSet set = new BitSet(idx.size());
+        for (Component c : components) {
+            final int ordinal = idx.ordinal(c);
+            if (ordinal >= 0) {
+                idx.addIncompatible(ordinal, set);
+            } else {
+                for (int i = 0; i < idx.size(); i++) {
+                    if (c.incompatibleWith(idx.get(i))) {
+                        set.set(i);
+                    }
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Builds the secondary indexes the first time they are needed, loading any component types
+     * that have not been loaded yet.
+     */
+    ComponentIndex getIndex() {
+        ComponentIndex result = index;
+        if (null == result) {
+            synchronized (this) {
+                result = index;
+                if (null == result) {
+                    result = new ComponentIndex(getAllComponents());
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param type The type of component
+     * @return     Whether the components for the type have already been loaded
+     */
+    public boolean isLoaded(ComponentType type) {
+        return partitions.get(type).isLoaded();
+    }
+
+    /**
+     * Loads all component types that have not been loaded yet, using the common {@link ForkJoinPool}.
+     *
+     * @see #loadAll(ForkJoinPool)
+     */
+    public void loadAll() {
+        loadAll(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads all component types that have not been loaded yet, parsing each type's data file as a
+     * separate task in the given pool. Returns when all types have been loaded.
+     *
+     * @param pool The pool to run the tasks in
+     */
+    public void loadAll(ForkJoinPool pool) {
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            if (!partition.isLoaded()) {
+                tasks.add(pool.submit(partition::get));
+            }
+        }
+        tasks.forEach(ForkJoinTask::join);
+    }
+
+    /**
+     * Reports how long it took to load each component type. Types that have not been loaded are not
+     * included.
+     *
+     * @return A map of component type to load time in nanoseconds
+     */
+    public Map<ComponentType, Long> getLoadTimes() {
+        final Map<ComponentType, Long> times = new EnumMap<>(ComponentType.class);
+        for (Partition partition : partitions.values()) {
+            if (partition.isLoaded()) {
+                times.put(partition.type, partition.loadTimeNanos);
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Computes a checksum of the component data files the first time it is requested. The files are read
+     * but not parsed, so no component types are loaded. The checksum changes when the data for any component
+     * changes, so it can be included in a cache key for values calculated from the components.
+     *
+     * @return A checksum of all the component data
+     */
+    public long getDataVersion() {
+        Long result = dataVersion;
+        if (null == result) {
+            final CRC32 crc = new CRC32();
+            final byte[] buffer = new byte[8192];
+            for (ComponentType type : ComponentType.values()) {
+                try (InputStream is = ComponentLibrary.class.getResourceAsStream(type.name().toLowerCase() + ".json")) {
+                    if (null != is) {
+                        for (int n = is.read(buffer); n >= 0; n = is.read(buffer)) {
+                            crc.update(buffer, 0, n);
+                        }
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            result = crc.getValue();
+            dataVersion = result;
+        }
+        return result;
+    }
+
+    /**
+     * The components read from the data file for a single component type. The components are read
+     * the first time they are requested. The components of each type that are allowed for a unit type
+     * are grouped the first time that unit type is requested.
+     */
+    private class Partition {
+        private final ComponentType type;
+        private volatile Map<String, Component> components;
+        private Map<ComponentType, List<Component>> byType;
+        private final Map<UnitType, Map<ComponentType, List<Component>>> byUnitType = new ConcurrentHashMap<>();
+        private long loadTimeNanos;
+
+        Partition(ComponentType type) {
+            this.type = type;
+        }
+
+        boolean isLoaded() {
+            return null != components;
+        }
+
+        Map<String, Component> get() {
+            Map<String, Component> result = components;
+            if (null == result) {
+                synchronized (this) {
+                    result = components;
+                    if (null == result) {
+                        result = load();
+                        // Published by the volatile write to components
+                        byType = groupByType(result, c -> true);
+                        components = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        List<Component> ofType(ComponentType componentType) {
+            get();
+            return byType.getOrDefault(componentType, Collections.emptyList());
+        }
+
+        List<Component> ofType(ComponentType componentType, UnitType unitType) {
+            final Map<String, Component> loaded = get();
+            return byUnitType.computeIfAbsent(unitType, ut -> groupByType(loaded, c -> c.allowed(ut)))
+                    .getOrDefault(componentType, Collections.emptyList());
+        }
+
+        private Map<ComponentType, List<Component>> groupByType(Map<String, Component> loaded,
+                                                                 Predicate<Component> filter) {
+            final Map<ComponentType, List<Component>> map = new EnumMap<>(ComponentType.class);
+            for (Component c : loaded.values()) {
+                if (filter.test(c)) {
+                    map.computeIfAbsent(c.getType(), t -> new ArrayList<>()).add(c);
+                }
+            }
+            map.replaceAll((t, list) -> Collections.unmodifiableList(list));
+            return map;
+        }
+
+        private Map<String, Component> load() {
+            final long start = System.nanoTime();
+            final List<? extends Component> list;
+            if (null != catalog) {
+                list = catalog.read(type);
+            } else if (streaming) {
+                list = readJson(mapper.getFactory(), type);
+            } else {
+                list = loadJson(mapper, type);
+            }
+            final Map<String, Component> map = new LinkedHashMap<>();
+            if (null != list) {
+                for (Component c : list) {
+                    c.compact(pool);
+                    map.put(c.getInternalName(), c);
+                }
+            }
+            loadTimeNanos = System.nanoTime() - start;
+            return map;
+        }
+    }
+
+    static ObjectMapper createMapper() {
         final ObjectMapper mapper = new ObjectMapper();
         mapper.setDefaultSetterInfo(JsonSetter.Value.forValueNulls(Nulls.SKIP));
         mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
@@ -46,76 +481,158 @@ public class ComponentLibrary {
                 .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
                 .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
                 .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE));
+        return mapper;
+    }
+
+    /**
+     * Parses the json files for all component types.
+     *
+     * @return A map of component type to the list of components read from the file for that type
+     */
+    static Map<ComponentType, List<? extends Component>> loadJson() {
+        final ObjectMapper mapper = createMapper();
+        final Map<ComponentType, List<? extends Component>> components = new EnumMap<>(ComponentType.class);
         for (ComponentType type : ComponentType.values()) {
-            final InputStream is = getClass().getResourceAsStream(type.name().toLowerCase() + ".json");
-            if (null != is) {
-                try {
-                    TypeReference<?> tr;
-                    switch (type) {
-                        case AMMUNITION:
-                            tr = new TypeReference<List<Ammunition>>(){};
-                            break;
-                        case ARMOR:
-                            tr = new TypeReference<List<Armor>>(){};
-                            break;
-                        case COCKPIT:
-                            tr = new TypeReference<List<Cockpit>>(){};
-                            break;
-                        case HEAT_SINK:
-                            tr = new TypeReference<List<HeatSink>>(){};
-                            break;
-                        case HEAVY_WEAPON:
-                        case CAPITAL_WEAPON:
-                            tr = new TypeReference<List<HeavyWeapon>>(){};
-                            break;
-                        case INF_ARMOR:
-                            tr = new TypeReference<List<InfantryArmorKit>>(){};
-                            break;
-                        case INF_WEAPON:
-                            tr = new TypeReference<List<InfantryWeapon>>(){};
-                            break;
-                        case MOVE_ENHANCEMENT:
-                            tr = new TypeReference<List<MoveEnhancement>>(){};
-                            break;
-                        case ENGINE:
-                            tr = new TypeReference<List<MVFEngine>>(){};
-                            break;
-                        case PHYSICAL_WEAPON:
-                            tr = new TypeReference<List<PhysicalWeapon>>(){};
-                            break;
-                        case SECONDARY_MOTIVE_SYSTEM:
-                            tr = new TypeReference<List<SecondaryMotiveSystem>>(){};
-                            break;
-                        default:
-                            tr = new TypeReference<List<Component>>(){};
-                            break;
-                    }
-                    List<? extends Component> list = mapper.readValue(is, tr);
-                    list.forEach(c -> allComponents.put(c.getInternalName(), c));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+            final List<? extends Component> list = loadJson(mapper, type);
+            if (null != list) {
+                components.put(type, list);
             }
         }
+        return components;
     }
 
-    public static ComponentLibrary getInstance() {
-        if (null == instance) {
-            instance = new ComponentLibrary();
+    /**
+     * Parses the json file for a single component type.
+     *
+     * @param mapper The mapper to use to parse the file
+     * @param type   The type of component
+     * @return       The list of components in the file, or {@code null} if there is no file for the
+     *               type or it could not be parsed
+     */
+    static List<? extends Component> loadJson(ObjectMapper mapper, ComponentType type) {
+        final InputStream is = ComponentLibrary.class.getResourceAsStream(type.name().toLowerCase() + ".json");
+        if (null != is) {
+            try {
+                TypeReference<?> tr;
+                switch (type) {
+                    case AMMUNITION:
+                        tr = new TypeReference<List<Ammunition>>(){};
+                        break;
+                    case ARMOR:
+                        tr = new TypeReference<List<Armor>>(){};
+                        break;
+                    case COCKPIT:
+                        tr = new TypeReference<List<Cockpit>>(){};
+                        break;
+                    case HEAT_SINK:
+                        tr = new TypeReference<List<HeatSink>>(){};
+                        break;
+                    case HEAVY_WEAPON:
+                    case CAPITAL_WEAPON:
+                        tr = new TypeReference<List<HeavyWeapon>>(){};
+                        break;
+                    case INF_ARMOR:
+                        tr = new TypeReference<List<InfantryArmorKit>>(){};
+                        break;
+                    case INF_WEAPON:
+                        tr = new TypeReference<List<InfantryWeapon>>(){};
+                        break;
+                    case MOVE_ENHANCEMENT:
+                        tr = new TypeReference<List<MoveEnhancement>>(){};
+                        break;
+                    case ENGINE:
+                        tr = new TypeReference<List<MVFEngine>>(){};
+                        break;
+                    case PHYSICAL_WEAPON:
+                        tr = new TypeReference<List<PhysicalWeapon>>(){};
+                        break;
+                    case SECONDARY_MOTIVE_SYSTEM:
+                        tr = new TypeReference<List<SecondaryMotiveSystem>>(){};
+                        break;
+                    default:
+                        tr = new TypeReference<List<Component>>(){};
+                        break;
+                }
+                return mapper.readValue(is, tr);
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                try {
+                    is.close();
+                } catch (IOException ignored) {
+                }
+            }
         }
-        return instance;
+        return null;
     }
 
-    public Component getComponent(String key) {
-        return allComponents.get(key);
-    }
-
-    public Collection<Component> getAllComponents() {
-        return Collections.unmodifiableCollection(allComponents.values());
+    /**
+     * Reads the json file for a single component type using the streaming parser rather than databind.
+     *
+     * @param factory The factory used to create the parser
+     * @param type    The type of component
+     * @return        The list of components in the file, or {@code null} if there is no file for the
+     *                type or it could not be parsed
+     */
+    static List<? extends Component> readJson(JsonFactory factory, ComponentType type) {
+        final Supplier<? extends Component> constructor;
+        switch (type) {
+            case AMMUNITION:
+                constructor = Ammunition::new;
+                break;
+            case ARMOR:
+                constructor = Armor::new;
+                break;
+            case COCKPIT:
+                constructor = Cockpit::new;
+                break;
+            case HEAT_SINK:
+                constructor = HeatSink::new;
+                break;
+            case HEAVY_WEAPON:
+            case CAPITAL_WEAPON:
+                constructor = HeavyWeapon::new;
+                break;
+            case INF_ARMOR:
+                constructor = InfantryArmorKit::new;
+                break;
+            case INF_WEAPON:
+                constructor = InfantryWeapon::new;
+                break;
+            case MOVE_ENHANCEMENT:
+                constructor = MoveEnhancement::new;
+                break;
+            case ENGINE:
+                constructor = MVFEngine::new;
+                break;
+            case PHYSICAL_WEAPON:
+                constructor = PhysicalWeapon::new;
+                break;
+            case SECONDARY_MOTIVE_SYSTEM:
+                constructor = SecondaryMotiveSystem::new;
+                break;
+            default:
+                constructor = Component::new;
+                break;
+        }
+        final InputStream is = ComponentLibrary.class.getResourceAsStream(type.name().toLowerCase() + ".json");
+        if (null != is) {
+            try (JsonParser parser = factory.createParser(is)) {
+                parser.nextToken();
+                return JsonStreams.readArray(parser, p -> {
+                    final Component c = constructor.get();
+                    JsonStreams.readObject(p, c::readField);
+                    return c;
+                });
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return null;
     }
 
     protected void writeComponents() {
-        writeComponents(allComponents.values(), DATA_DIR);
+        writeComponents(getAllComponents(), DATA_DIR);
     }
 
     protected void writeComponents(Collection<Component> components, String dir) {
@@ -20,8 +20,8 @@ package org.megamek.mekbuilder.component;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
@@ -249,14 +249,41 @@ public enum ComponentSwitch {
         }
 
         public Map<ComponentSwitch, Object> deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
-            final Map<ComponentSwitch, Object> map = new EnumMap<>(ComponentSwitch.class);
-            final JsonNode node = parser.readValueAsTree();
-            node.fields().forEachRemaining(n -> {
-                final ComponentSwitch cs = ComponentSwitch.valueOf(n.getKey());
-                map.put(cs, cs.deserializeValue(n.getValue().asText()));
-            });
-            return map;
+            return readSwitchMap(parser);
         }
     }
 
+    /**
+     * Reads a switch map directly from the token stream.
+     *
+     * Values are converted from their text form. Structured values have no text form and are
+     * treated as an empty string, matching the behavior of the previous tree-based deserializer.
+     *
+     * @param parser The parser, positioned on the start of the object
+     * @return       The switch map
+     * @throws IOException If there is an error reading from the parser
+     */
+    static Map<ComponentSwitch, Object> readSwitchMap(JsonParser parser) throws IOException {
+        final Map<ComponentSwitch, Object> map = new EnumMap<>(ComponentSwitch.class);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final ComponentSwitch cs = ComponentSwitch.valueOf(parser.getCurrentName());
+            final String text;
+            switch (parser.nextToken()) {
+                case START_ARRAY:
+                case START_OBJECT:
+                    parser.skipChildren();
+                    text = "";
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    text = String.valueOf(parser.getDoubleValue());
+                    break;
+                default:
+                    text = parser.getText();
+                    break;
+            }
+            map.put(cs, cs.deserializeValue(text));
+        }
+        return map;
+    }
+
 }
@@ -18,6 +18,7 @@
  */
 package org.megamek.mekbuilder.component;
 
+import org.megamek.mekbuilder.unit.DesignFingerprint;
 import org.megamek.mekbuilder.unit.MotiveType;
 import org.megamek.mekbuilder.unit.UnitBuild;
 
@@ -33,12 +34,33 @@ public class CompoundMount extends DistributedMount {
         super(entity, component);
     }
 
+    /**
+     * Also copies the count and the number fixed in place.
+     */
+    protected CompoundMount(CompoundMount other, UnitBuild unit) {
+        super(other, unit);
+        count = other.count;
+        fixedCount = other.fixedCount;
+    }
+
+    @Override
+    public CompoundMount copyTo(UnitBuild unit) {
+        return new CompoundMount(this, unit);
+    }
+
+    @Override
+    public void fingerprint(DesignFingerprint.Builder builder) {
+        super.fingerprint(builder);
+        builder.add(count).add(fixedCount);
+    }
+
     public int getCount() {
         return count;
     }
 
     public void setCount(int count) {
         this.count = count;
+        markModified();
     }
 
     public int getFixedCount() {
@@ -47,6 +69,7 @@ public class CompoundMount extends DistributedMount {
 
     public void setFixedCount(int count) {
         this.fixedCount = count;
+        markModified();
     }
 
     public double getSlotsPerItem() {
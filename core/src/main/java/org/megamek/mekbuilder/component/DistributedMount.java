@@ -18,6 +18,7 @@
  */
 package org.megamek.mekbuilder.component;
 
+import org.megamek.mekbuilder.unit.DesignFingerprint;
 import org.megamek.mekbuilder.unit.UnitBuild;
 import org.megamek.mekbuilder.unit.UnitLocation;
 
@@ -37,11 +38,34 @@ public class DistributedMount extends Mount {
         locations = new EnumMap<>(UnitLocation.class);
     }
 
+    /**
+     * Also copies the number of slots assigned to each location.
+     */
+    protected DistributedMount(DistributedMount other, UnitBuild unit) {
+        super(other, unit);
+        locations = new EnumMap<>(other.locations);
+    }
+
+    @Override
+    public DistributedMount copyTo(UnitBuild unit) {
+        return new DistributedMount(this, unit);
+    }
+
+    @Override
+    public void fingerprint(DesignFingerprint.Builder builder) {
+        super.fingerprint(builder);
+        builder.add(locations.size());
+        for (Map.Entry<UnitLocation, Integer> entry : locations.entrySet()) {
+            builder.add(entry.getKey()).add(entry.getValue());
+        }
+    }
+
     @Override
     public void changeLocation(UnitLocation oldLoc, UnitLocation newLoc) {
         if (locations.containsKey(oldLoc)) {
             locations.merge(newLoc, locations.get(oldLoc), Integer::sum);
             locations.remove(oldLoc);
+            markModified();
         }
     }
 
@@ -55,6 +79,7 @@ public class DistributedMount extends Mount {
             } else {
                 locations.remove(oldLoc);
             }
+            markModified();
         }
     }
 
@@ -62,6 +87,21 @@ public class DistributedMount extends Mount {
         return Collections.unmodifiableMap(locations);
     }
 
+    /**
+     * Sets the number of slots allocated to a location.
+     *
+     * @param loc   The location
+     * @param slots The number of slots. If this is not positive, the location is removed.
+     */
+    public void setSlots(UnitLocation loc, int slots) {
+        if (slots > 0) {
+            locations.put(loc, slots);
+        } else {
+            locations.remove(loc);
+        }
+        markModified();
+    }
+
     public void updateLocations() {
         if (getComponent().locationFixed()) {
             locations.clear();
@@ -72,6 +112,7 @@ public class DistributedMount extends Mount {
                 locations.put(loc, slots);
             }
         }
+        markModified();
     }
 
     /**
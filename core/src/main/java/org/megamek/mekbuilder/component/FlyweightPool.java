@@ -0,0 +1,88 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import org.megamek.mekbuilder.tech.TechProgression;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances of the values that are repeated across many components, such as rules references,
+ * tech progressions and sets of locations. The library passes each component it loads through the same pool
+ * so that equal values share a single instance. Shared collections are unmodifiable. The pool is safe to use
+ * from multiple threads.
+ */
+final class FlyweightPool {
+
+    private final Map<Object, Object> values = new ConcurrentHashMap<>();
+    private final Map<String, TechProgression> techProgressions = new ConcurrentHashMap<>();
+
+    /**
+     * @param str A string
+     * @return    An equal string shared with all other components
+     */
+    String string(String str) {
+        return (null == str) ? null : canonical(str);
+    }
+
+    /**
+     * Tech progressions are immutable and are compared by their data file format.
+     */
+    TechProgression techProgression(TechProgression progression) {
+        return (null == progression) ? null : techProgressions.computeIfAbsent(progression.toString(), k -> progression);
+    }
+
+    /**
+     * @param map A switch map
+     * @return    A compact map with the same contents shared with all other components
+     */
+    Map<ComponentSwitch, Object> switchMap(Map<ComponentSwitch, Object> map) {
+        final SwitchMap compact = SwitchMap.of(map);
+        return compact.isEmpty() ? compact : canonical(compact);
+    }
+
+    /**
+     * @param set A set of enum values
+     * @return    An unmodifiable set with the same contents shared with all other components
+     */
+    <E extends Enum<E>> Set<E> enumSet(Set<E> set) {
+        if (set.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return canonical(Collections.unmodifiableSet(EnumSet.copyOf(set)));
+    }
+
+    /**
+     * @param map A map with enum keys
+     * @return    An unmodifiable map with the same contents shared with all other components
+     */
+    <K extends Enum<K>, V> Map<K, V> enumMap(Map<K, V> map) {
+        if (map.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return canonical(Collections.unmodifiableMap(new EnumMap<>(map)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T canonical(T value) {
+        final Object existing = values.putIfAbsent(value, value);
+        return (null == existing) ? value : (T) existing;
+    }
+}
@@ -18,6 +18,10 @@
  */
 package org.megamek.mekbuilder.component;
 
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
 /**
  * Heat sink components. Has additional field for tracking heat dissipation.
  */
@@ -33,4 +37,15 @@ public class HeatSink extends Component {
     public boolean isCompact() {
         return compact;
     }
+
+    @Override
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "compact":
+                compact = parser.getValueAsBoolean();
+                return true;
+            default:
+                return super.readField(name, parser);
+        }
+    }
 }
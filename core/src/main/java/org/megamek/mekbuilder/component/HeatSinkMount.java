@@ -31,6 +31,15 @@ public class HeatSinkMount extends CompoundMount {
         super(unit, heatSinkType);
     }
 
+    protected HeatSinkMount(HeatSinkMount other, UnitBuild unit) {
+        super(other, unit);
+    }
+
+    @Override
+    public HeatSinkMount copyTo(UnitBuild unit) {
+        return new HeatSinkMount(this, unit);
+    }
+
     public HeatSink getHeatSinkType() {
         return (HeatSink) getComponent();
     }
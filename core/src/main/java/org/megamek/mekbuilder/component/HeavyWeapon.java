@@ -19,9 +19,12 @@
 package org.megamek.mekbuilder.component;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.core.JsonParser;
 import org.megamek.mekbuilder.unit.HeatStrategy;
 import org.megamek.mekbuilder.unit.UnitType;
+import org.megamek.mekbuilder.utilities.JsonStreams;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
@@ -143,4 +146,48 @@ public class HeavyWeapon extends Component {
         }
         return getHeat();
     }
+
+    @Override
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "heat":
+                heat = parser.getValueAsInt();
+                return true;
+            case "ammoType":
+                ammoType = JsonStreams.readEnum(parser, AmmunitionType.class);
+                return true;
+            case "rackSize":
+                rackSize = parser.getValueAsInt();
+                return true;
+            case "damageTypeStr":
+                damageTypeStr = parser.getValueAsString();
+                return true;
+            case "range":
+                range = WeaponRange.read(parser);
+                return true;
+            case "weaponFlags":
+                weaponFlags = JsonStreams.readEnumSet(parser, WeaponFlag.class);
+                return true;
+            case "aeroAV":
+            case "aeroTechDamage":
+                aeroAV = WeaponRange.read(parser);
+                return true;
+            case "maxAeroRange":
+            case "maxAeroTechRange":
+                maxAeroRange = parser.getValueAsInt();
+                return true;
+            case "aeroWeaponClass":
+            case "aeroTechClass":
+                aeroWeaponClass = JsonStreams.readEnum(parser, AeroWeaponClass.class);
+                return true;
+            case "alphaStrikeDamage":
+                alphaStrikeDamage = JsonStreams.readArray(parser, JsonStreams::readDoubleList);
+                return true;
+            case "alphaStrikeWeaponClass":
+                alphaStrikeWeaponClass = JsonStreams.readEnum(parser, AlphaStrikeWeaponClass.class);
+                return true;
+            default:
+                return super.readField(name, parser);
+        }
+    }
 }
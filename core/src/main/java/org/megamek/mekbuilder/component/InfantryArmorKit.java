@@ -18,6 +18,10 @@
  */
 package org.megamek.mekbuilder.component;
 
+import com.fasterxml.jackson.core.JsonParser;
+import org.megamek.mekbuilder.utilities.JsonStreams;
+
+import java.io.IOException;
 import java.util.EnumSet;
 import java.util.Set;
 
@@ -36,4 +40,18 @@ public class InfantryArmorKit extends Component {
     public boolean hasFlag(InfantryArmorFlag flag) {
         return armorFlags.contains(flag);
     }
+
+    @Override
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "damageDivisor":
+                damageDivisor = parser.getValueAsDouble();
+                return true;
+            case "armorFlags":
+                armorFlags = JsonStreams.readEnumSet(parser, InfantryArmorFlag.class);
+                return true;
+            default:
+                return super.readField(name, parser);
+        }
+    }
 }
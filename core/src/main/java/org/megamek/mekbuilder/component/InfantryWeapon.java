@@ -19,7 +19,10 @@
 package org.megamek.mekbuilder.component;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.core.JsonParser;
+import org.megamek.mekbuilder.utilities.JsonStreams;
 
+import java.io.IOException;
 import java.util.EnumSet;
 import java.util.Set;
 
@@ -56,4 +59,25 @@ public class InfantryWeapon extends Component {
     public int crewRequirement() {
         return crewRequirement;
     }
+
+    @Override
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "damage":
+                damage = parser.getValueAsDouble();
+                return true;
+            case "range":
+                range = parser.getValueAsInt();
+                return true;
+            case "weaponFlags":
+                weaponFlags = JsonStreams.readEnumSet(parser, InfantryWeaponFlag.class);
+                return true;
+            case "crewRequirement":
+            case "crew":
+                crewRequirement = parser.getValueAsInt();
+                return true;
+            default:
+                return super.readField(name, parser);
+        }
+    }
 }
@@ -18,11 +18,14 @@
  */
 package org.megamek.mekbuilder.component;
 
+import com.fasterxml.jackson.core.JsonParser;
 import megamek.common.annotations.Nullable;
 import org.megamek.mekbuilder.unit.UnitBuild;
 import org.megamek.mekbuilder.unit.UnitType;
 import org.megamek.mekbuilder.utilities.Round;
 
+import java.io.IOException;
+
 /**
  * Engines for Mechs (and ProtoMechs), vehicles, and fighters.
  */
@@ -107,4 +110,15 @@ public class MVFEngine extends Component {
                     .getComponent("Large" + getInternalName());
         }
     }
+
+    @Override
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "weightFreeHeatSinks":
+                weightFreeHeatSinks = parser.getValueAsInt();
+                return true;
+            default:
+                return super.readField(name, parser);
+        }
+    }
 }
@@ -18,6 +18,7 @@
  */
 package org.megamek.mekbuilder.component;
 
+import org.megamek.mekbuilder.unit.DesignFingerprint;
 import org.megamek.mekbuilder.unit.UnitBuild;
 import org.megamek.mekbuilder.unit.UnitLocation;
 
@@ -36,6 +37,25 @@ public class MekEngineMount extends Mount implements IEngineMount {
         super(build, component);
     }
 
+    /**
+     * Also copies the number of integrated heat sinks.
+     */
+    protected MekEngineMount(MekEngineMount other, UnitBuild unit) {
+        super(other, unit);
+        integratedHeatSinks = other.integratedHeatSinks;
+    }
+
+    @Override
+    public MekEngineMount copyTo(UnitBuild unit) {
+        return new MekEngineMount(this, unit);
+    }
+
+    @Override
+    public void fingerprint(DesignFingerprint.Builder builder) {
+        super.fingerprint(builder);
+        builder.add(integratedHeatSinks);
+    }
+
     public MVFEngine getEngine() {
         return (MVFEngine) getComponent();
     }
@@ -118,6 +138,7 @@ public class MekEngineMount extends Mount implements IEngineMount {
      */
     public void setIntegratedHSCount(int count) {
         integratedHeatSinks = count;
+        markModified();
     }
 
     /**
@@ -19,6 +19,7 @@
 package org.megamek.mekbuilder.component;
 
 import org.megamek.mekbuilder.unit.MekBuild;
+import org.megamek.mekbuilder.unit.UnitBuild;
 import org.megamek.mekbuilder.unit.UnitLocation;
 import org.megamek.mekbuilder.utilities.Round;
 
@@ -47,6 +48,15 @@ public class MekInternalStructure extends DistributedMount {
         }
     }
 
+    protected MekInternalStructure(MekInternalStructure other, MekBuild mek) {
+        super(other, mek);
+    }
+
+    @Override
+    public MekInternalStructure copyTo(UnitBuild unit) {
+        return new MekInternalStructure(this, (MekBuild) unit);
+    }
+
     /*
      * Head always has 3 points (4 for superheavy). Index is (tonnage - 10) / 5.
      */
@@ -18,6 +18,7 @@
  */
 package org.megamek.mekbuilder.component;
 
+import org.megamek.mekbuilder.unit.DesignFingerprint;
 import org.megamek.mekbuilder.unit.UnitBuild;
 import org.megamek.mekbuilder.unit.UnitLocation;
 
@@ -66,6 +67,53 @@ public class Mount {
         this(unit, component, 1);
     }
 
+    /**
+     * Creates a copy of another mount on a different unit. This copies the component and the values set on
+     * the mount, such as location and size, but not the unit. Each subclass that has additional state
+     * provides a copy constructor that calls this one, copies that state without sharing any mutable
+     * values, and overrides {@link #copyTo(UnitBuild)} to call it. Subclasses with no additional state
+     * still override {@link #copyTo(UnitBuild)} so the copy has the same class.
+     *
+     * @param other The mount to copy
+     * @param unit  The unit the copy is mounted on
+     */
+    protected Mount(Mount other, UnitBuild unit) {
+        this.unit = new WeakReference<>(unit);
+        this.componentKey = other.componentKey;
+        this.component = other.component;
+        this.location = other.location;
+        this.moduleType = other.moduleType;
+        this.rearFacing = other.rearFacing;
+        this.armored = other.armored;
+        this.size = other.size;
+    }
+
+    /**
+     * Creates a copy of this mount that belongs to another unit. The copy has the same class as this
+     * mount and does not share any mutable state with it. The new mount is not added to the unit.
+     *
+     * @param unit The unit the copy is mounted on
+     * @return     The copy
+     */
+    public Mount copyTo(UnitBuild unit) {
+        return new Mount(this, unit);
+    }
+
+    /**
+     * Adds the values of this mount that can affect the unit's calculated values to a fingerprint.
+     * Subclasses that have additional state should add it after calling this method.
+     *
+     * @param builder Collects the values
+     */
+    public void fingerprint(DesignFingerprint.Builder builder) {
+        builder.add(componentKey)
+                .add(location)
+                .add(moduleType)
+                .add(rearFacing)
+                .add(armored)
+                .add(size);
+    }
+
     public UnitBuild getUnit() {
         return unit.get();
     }
@@ -76,6 +124,7 @@ public class Mount {
 
     public void setLocation(UnitLocation location) {
         this.location = location;
+        markModified();
     }
 
     public Component getComponent() {
@@ -93,6 +142,7 @@ public class Mount {
         if (null != component) {
             this.componentKey = component.getInternalName();
             this.component = component;
+            markModified();
         }
     }
 
@@ -113,6 +163,7 @@ public class Mount {
 
     public void setModuleType(ModuleType moduleType) {
         this.moduleType = moduleType;
+        markModified();
     }
 
     public boolean isRearFacing() {
@@ -121,6 +172,7 @@ public class Mount {
 
     public void setRearFacing(boolean rearFacing) {
         this.rearFacing = rearFacing;
+        markModified();
     }
 
     public boolean isArmored() {
@@ -129,6 +181,7 @@ public class Mount {
 
     public void setArmored(boolean armored) {
         this.armored = armored;
+        markModified();
     }
 
     public double getSize() {
@@ -138,6 +191,7 @@ public class Mount {
     public void setSize(double size) {
         if (component.variableSize()) {
             this.size = size;
+            markModified();
         }
     }
 
@@ -163,6 +217,7 @@ public class Mount {
     public void changeLocation(UnitLocation oldLoc, UnitLocation newLoc) {
         if (location.equals(oldLoc)) {
             location = newLoc;
+            markModified();
         }
     }
 
@@ -183,6 +238,17 @@ public class Mount {
         return location.equals(loc);
     }
 
+    /**
+     * Notifies the unit that a change to the mount may affect its calculated values. Subclasses
+     * should call this whenever they change their state.
+     */
+    protected void markModified() {
+        final UnitBuild u = getUnit();
+        if (null != u) {
+            u.markModified();
+        }
+    }
+
     /**
      * @return The heat generated by the equipment in this mount for the specific unit type.
      */
@@ -18,11 +18,14 @@
  */
 package org.megamek.mekbuilder.component;
 
+import com.fasterxml.jackson.core.JsonParser;
 import org.megamek.mekbuilder.unit.MotiveType;
 import org.megamek.mekbuilder.unit.UnitBuild;
 import org.megamek.mekbuilder.unit.UnitType;
 import org.megamek.mekbuilder.unit.UnitWeightClass;
+import org.megamek.mekbuilder.utilities.JsonStreams;
 
+import java.io.IOException;
 import java.util.EnumSet;
 import java.util.Set;
 
@@ -97,4 +100,21 @@ public class MoveEnhancement extends Component {
         }
         return super.allowed(unit);
     }
+
+    @Override
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "mode":
+                mode = JsonStreams.readEnum(parser, MotiveType.class);
+                return true;
+            case "baseModeRequired":
+                baseModeRequired = parser.getValueAsBoolean();
+                return true;
+            case "incompatible":
+                incompatible = JsonStreams.readEnumSet(parser, ComponentSwitch.class);
+                return true;
+            default:
+                return super.readField(name, parser);
+        }
+    }
 }
@@ -18,7 +18,11 @@
  */
 package org.megamek.mekbuilder.component;
 
+import com.fasterxml.jackson.core.JsonParser;
 import org.megamek.mekbuilder.unit.UnitBuild;
+import org.megamek.mekbuilder.utilities.JsonStreams;
+
+import java.io.IOException;
 
 /**
  *
@@ -31,4 +35,21 @@ public class PhysicalWeapon extends Component {
     public int damage(UnitBuild unit) {
         return (int) Math.ceil(damageCalc.calcValue(this, unit, damageFactor) + damageAddend);
     }
+
+    @Override
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "damageFactor":
+                damageFactor = parser.getValueAsDouble();
+                return true;
+            case "damageAddend":
+                damageAddend = parser.getValueAsDouble();
+                return true;
+            case "damageCalc":
+                damageCalc = JsonStreams.readEnum(parser, CalcMethod.class);
+                return true;
+            default:
+                return super.readField(name, parser);
+        }
+    }
 }
@@ -20,7 +20,10 @@ package org.megamek.mekbuilder.component;
 
 import org.megamek.mekbuilder.unit.UnitBuild;
 
-import java.util.function.BiFunction;
+@FunctionalInterface
+interface Rounding {
+    double round(double weight, UnitBuild unit);
+}
 
 /**
  * A series of rounding methods.
@@ -45,9 +48,9 @@ public enum RoundWeight {
     /** Round up to nearest ton */
     NEXT_TON ((w, u) -> Math.ceil(truncate(w)));
 
-    private final BiFunction<Double, UnitBuild, Double> calc;
+    private final Rounding calc;
 
-    RoundWeight(BiFunction<Double, UnitBuild, Double> apply) {
+    RoundWeight(Rounding apply) {
         this.calc = apply;
     }
 
@@ -60,7 +63,7 @@ public enum RoundWeight {
      * @return       The result of the rounding operation.
      */
     public double round(double weight, UnitBuild unit) {
-        return calc.apply(weight, unit);
+        return calc.round(weight, unit);
     }
 
     /**
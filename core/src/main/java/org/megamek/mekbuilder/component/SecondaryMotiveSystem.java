@@ -18,9 +18,13 @@
  */
 package org.megamek.mekbuilder.component;
 
+import com.fasterxml.jackson.core.JsonParser;
 import org.megamek.mekbuilder.unit.MotiveType;
 import org.megamek.mekbuilder.unit.UnitBuild;
 import org.megamek.mekbuilder.unit.UnitType;
+import org.megamek.mekbuilder.utilities.JsonStreams;
+
+import java.io.IOException;
 
 /**
  * Components that provide a secondary movement mode (jump, underwater, VTOL). This does not include mechanical
@@ -119,4 +123,18 @@ public class SecondaryMotiveSystem extends Component {
             return super.calcSlots(unit, size);
         }
     }
+
+    @Override
+    boolean readField(String name, JsonParser parser) throws IOException {
+        switch (name) {
+            case "mode":
+                mode = JsonStreams.readEnum(parser, MotiveType.class);
+                return true;
+            case "improved":
+                improved = parser.getValueAsBoolean();
+                return true;
+            default:
+                return super.readField(name, parser);
+        }
+    }
 }
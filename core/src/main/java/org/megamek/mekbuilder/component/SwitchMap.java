@@ -0,0 +1,146 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import java.util.*;
+
+/**
+ * Immutable compact form of a component's switch map. The presence of each switch is stored as a bit in a
+ * {@code long}, and only switches that have a non-null value take space in the value table. All empty maps
+ * share a single instance.
+ */
+final class SwitchMap extends AbstractMap<ComponentSwitch, Object> {
+
+    private static final ComponentSwitch[] SWITCHES = ComponentSwitch.values();
+
+    static {
+        if (SWITCHES.length > Long.SIZE) {
+            throw new IllegalStateException("Too many component switches to store as bitmask");
+        }
+    }
+
+    static final SwitchMap EMPTY = new SwitchMap(0L, 0L, new Object[0]);
+
+    private final long present;
+    private final long valued;
+    private final Object[] values;
+
+    private SwitchMap(long present, long valued, Object[] values) {
+        this.present = present;
+        this.valued = valued;
+        this.values = values;
+    }
+
+    /**
+     * @param map A switch map
+     * @return    A compact map with the same contents
+     */
+    static SwitchMap of(Map<ComponentSwitch, Object> map) {
+        if (map instanceof SwitchMap) {
+            return (SwitchMap) map;
+        }
+        if (map.isEmpty()) {
+            return EMPTY;
+        }
+        long present = 0;
+        long valued = 0;
+        final List<Object> list = new ArrayList<>();
+        for (ComponentSwitch cs : SWITCHES) {
+            if (map.containsKey(cs)) {
+                present |= bit(cs);
+                final Object val = map.get(cs);
+                if (null != val) {
+                    valued |= bit(cs);
+                    list.add(val);
+                }
+            }
+        }
+        return new SwitchMap(present, valued, list.toArray());
+    }
+
+    private static long bit(ComponentSwitch cs) {
+        return 1L << cs.ordinal();
+    }
+
+    /**
+     * @return A mask with the bit set for the ordinal of each switch in the map
+     */
+    long mask() {
+        return present;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (key instanceof ComponentSwitch) && ((present & bit((ComponentSwitch) key)) != 0);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof ComponentSwitch)) {
+            return null;
+        }
+        final long bit = bit((ComponentSwitch) key);
+        if ((valued & bit) == 0) {
+            return null;
+        }
+        return values[Long.bitCount(valued & (bit - 1))];
+    }
+
+    @Override
+    public int size() {
+        return Long.bitCount(present);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return present == 0;
+    }
+
+    @Override
+    public Set<Entry<ComponentSwitch, Object>> entrySet() {
+        return new AbstractSet<Entry<ComponentSwitch, Object>>() {
+            @Override
+            public Iterator<Entry<ComponentSwitch, Object>> iterator() {
+                return new Iterator<Entry<ComponentSwitch, Object>>() {
+                    private long remaining = present;
+
+                    @Override
+                    public boolean hasNext() {
+                        return remaining != 0;
+                    }
+
+                    @Override
+                    public Entry<ComponentSwitch, Object> next() {
+                        if (remaining == 0) {
+                            throw new NoSuchElementException();
+                        }
+                        final ComponentSwitch cs = SWITCHES[Long.numberOfTrailingZeros(remaining)];
+                        remaining &= remaining - 1;
+                        return new SimpleImmutableEntry<>(cs, get(cs));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return SwitchMap.this.size();
+            }
+        };
+    }
+}
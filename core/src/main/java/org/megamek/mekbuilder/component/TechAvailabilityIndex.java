@@ -0,0 +1,287 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.tech.Faction;
+import org.megamek.mekbuilder.tech.ITechFilter;
+import org.megamek.mekbuilder.tech.ITechProgression;
+import org.megamek.mekbuilder.tech.TechBase;
+import org.megamek.mekbuilder.tech.TechLevel;
+
+import java.util.*;
+
+/**
+ * Caches the result of {@link ITechFilter#isLegal(org.megamek.mekbuilder.tech.ITechProgression)} for every
+ * component in the library. The first time a combination of filter values is requested the legality of every
+ * component is evaluated and stored as a {@link BitSet} indexed by component ordinal; subsequent requests for
+ * the same filter values are answered from the cache. The least recently used results are dropped when the
+ * cache is full.
+ *
+ * <p>Only the values returned by the filter's getters are used as the cache key, which assumes the filter uses
+ * the default implementation of {@link ITechFilter#isLegal(ITechProgression, boolean)}. A filter whose class
+ * overrides either {@code isLegal} method is evaluated directly each time and is not cached.</p>
+ */
+public class TechAvailabilityIndex {
+
+    public static final int DEFAULT_CACHE_SIZE = 64;
+
+    private static class Holder {
+        private static final TechAvailabilityIndex INSTANCE = new TechAvailabilityIndex(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Whether a filter class provides its own legality test, so its results cannot be derived from its getters.
+     */
+    private static final ClassValue<Boolean> CUSTOM_LEGALITY = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return (type.getMethod("isLegal", ITechProgression.class).getDeclaringClass() != ITechFilter.class)
+                        || (type.getMethod("isLegal", ITechProgression.class, boolean.class)
+                        .getDeclaringClass() != ITechFilter.class);
+            } catch (NoSuchMethodException ex) {
+                // Cannot happen for an implementation of the interface
+                return true;
+            }
+        }
+    };
+
+    private final ComponentIndex index;
+    private final Map<FilterKey, BitSet> cache;
+
+    /**
+     * @return A shared index with the default cache size
+     */
+    public static TechAvailabilityIndex getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Creates an index over all components in the library.
+     *
+     * @param cacheSize The maximum number of filter results to keep
+     */
+    public TechAvailabilityIndex(int cacheSize) {
+        this(ComponentLibrary.getInstance().getIndex(), cacheSize);
+    }
+
+    TechAvailabilityIndex(ComponentIndex index, int cacheSize) {
+        this.index = index;
+        cache = new LinkedHashMap<FilterKey, BitSet>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FilterKey, BitSet> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * @param filter The tech filter
+     * @return       A new set containing the ordinals of all components that are legal under the filter.
+     *               The caller is free to modify it, such as by combining it with other component sets.
+     */
+    public BitSet legal(ITechFilter filter) {
+        return (BitSet) lookup(filter).clone();
+    }
+
+    /**
+     * @param filter    The tech filter
+     * @param component The component to check
+     * @return          Whether the component is legal under the filter
+     */
+    public boolean isLegal(ITechFilter filter, Component component) {
+        final int ordinal = index.ordinal(component);
+        if ((ordinal < 0) || hasCustomLegality(filter)) {
+            return filter.isLegal(component);
+        }
+        return lookup(filter).get(ordinal);
+    }
+
+    /**
+     * @param filter The tech filter
+     * @return       All components that are legal under the filter
+     */
+    public List<Component> legalComponents(ITechFilter filter) {
+        return index.toList(lookup(filter));
+    }
+
+    /**
+     * @param filter The tech filter
+     * @param type   The type of component
+     * @return       All components of the given type that are legal under the filter
+     */
+    public List<Component> legalComponents(ITechFilter filter, ComponentType type) {
+        final BitSet legal = lookup(filter);
+        final List<Component> list = new ArrayList<>();
+        for (int i = legal.nextSetBit(0); i >= 0; i = legal.nextSetBit(i + 1)) {
+            if (index.get(i).getType() == type) {
+                list.add(index.get(i));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @return The number of filter results currently cached
+     */
+    public int cachedCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * @param filter The tech filter
+     * @return       Whether the results for the filter's values are currently cached
+     */
+    public boolean isCached(ITechFilter filter) {
+        if (hasCustomLegality(filter)) {
+            return false;
+        }
+        synchronized (cache) {
+            return cache.containsKey(FilterKey.of(filter));
+        }
+    }
+
+    private static boolean hasCustomLegality(ITechFilter filter) {
+        return !(filter instanceof FilterKey) && CUSTOM_LEGALITY.get(filter.getClass());
+    }
+
+    /**
+     * @return The legal components for the filter. This may be the cached set, which must not be modified.
+     */
+    private BitSet lookup(ITechFilter filter) {
+        if (hasCustomLegality(filter)) {
+            return evaluate(filter);
+        }
+        final FilterKey key = FilterKey.of(filter);
+        synchronized (cache) {
+            final BitSet cached = cache.get(key);
+            if (null != cached) {
+                return cached;
+            }
+        }
+        // Evaluate outside the lock; if another thread computes the same key first the results are identical
+        final BitSet legal = evaluate(key);
+        synchronized (cache) {
+            cache.put(key, legal);
+        }
+        return legal;
+    }
+
+    private BitSet evaluate(ITechFilter filter) {
+        final BitSet legal = new BitSet(index.size());
+        for (int i = 0; i < index.size(); i++) {
+            if (filter.isLegal(index.get(i))) {
+                legal.set(i);
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * Immutable copy of the values of an {@link ITechFilter} that affect legality, used as the cache key.
+     */
+    public static final class FilterKey implements ITechFilter {
+        private final int year;
+        private final TechBase techBase;
+        private final TechLevel techLevel;
+        private final Faction faction;
+        private final boolean eraBasedProgression;
+        private final boolean hideExtinct;
+
+        public FilterKey(int year, TechBase techBase, TechLevel techLevel, @Nullable Faction faction,
+                         boolean eraBasedProgression, boolean hideExtinct) {
+            this.year = year;
+            this.techBase = techBase;
+            this.techLevel = techLevel;
+            this.faction = faction;
+            this.eraBasedProgression = eraBasedProgression;
+            this.hideExtinct = hideExtinct;
+        }
+
+        /**
+         * Copies the values returned by the filter's getters. Any other behavior of the filter, such as its
+         * own implementation of {@code isLegal}, is not part of the key.
+         *
+         * @param filter The tech filter
+         * @return       The key for the filter's values
+         */
+        public static FilterKey of(ITechFilter filter) {
+            if (filter instanceof FilterKey) {
+                return (FilterKey) filter;
+            }
+            return new FilterKey(filter.getYear(), filter.getTechBase(), filter.getTechLevel(),
+                    filter.getFaction(), filter.eraBasedProgression(), filter.hideExtinct());
+        }
+
+        @Override
+        public int getYear() {
+            return year;
+        }
+
+        @Override
+        public TechBase getTechBase() {
+            return techBase;
+        }
+
+        @Override
+        public TechLevel getTechLevel() {
+            return techLevel;
+        }
+
+        @Override
+        public @Nullable Faction getFaction() {
+            return faction;
+        }
+
+        @Override
+        public boolean eraBasedProgression() {
+            return eraBasedProgression;
+        }
+
+        @Override
+        public boolean hideExtinct() {
+            return hideExtinct;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FilterKey)) {
+                return false;
+            }
+            final FilterKey other = (FilterKey) o;
+            return (year == other.year)
+                    && (techBase == other.techBase)
+                    && (techLevel == other.techLevel)
+                    && (faction == other.faction)
+                    && (eraBasedProgression == other.eraBasedProgression)
+                    && (hideExtinct == other.hideExtinct);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(year, techBase, techLevel, faction, eraBasedProgression, hideExtinct);
+        }
+    }
+}
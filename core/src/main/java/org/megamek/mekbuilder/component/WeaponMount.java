@@ -19,6 +19,7 @@
 package org.megamek.mekbuilder.component;
 
 import com.sun.istack.Nullable;
+import org.megamek.mekbuilder.unit.DesignFingerprint;
 import org.megamek.mekbuilder.unit.UnitBuild;
 
 import java.util.Set;
@@ -36,6 +37,25 @@ public class WeaponMount extends Mount {
         this.enhancement = enhancement;
     }
 
+    /**
+     * Also copies the linked enhancement, such as Artemis.
+     */
+    protected WeaponMount(WeaponMount other, UnitBuild unit) {
+        super(other, unit);
+        enhancement = other.enhancement;
+    }
+
+    @Override
+    public WeaponMount copyTo(UnitBuild unit) {
+        return new WeaponMount(this, unit);
+    }
+
+    @Override
+    public void fingerprint(DesignFingerprint.Builder builder) {
+        super.fingerprint(builder);
+        builder.add(null == enhancement ? null : enhancement.getInternalName());
+    }
+
     public HeavyWeapon getWeapon() {
         return (HeavyWeapon) getComponent();
     }
@@ -61,6 +81,7 @@ public class WeaponMount extends Mount {
                     .getInternalName() + " cannot link to " + enhancement.getInternalName());
         }
         this.enhancement = enhancement;
+        markModified();
     }
 
     /**
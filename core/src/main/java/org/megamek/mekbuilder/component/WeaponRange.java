@@ -19,7 +19,10 @@
 package org.megamek.mekbuilder.component;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.megamek.mekbuilder.utilities.JsonStreams;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -60,4 +63,37 @@ public class WeaponRange {
                 ranges.size() > 4 ? ranges.get(4) : 0
         );
     }
+
+    /**
+     * Reads a range from the json token stream.
+     *
+     * @param parser The parser, positioned on the start of the object
+     * @return       The range
+     * @throws IOException If there is an error reading the range
+     */
+    static WeaponRange read(JsonParser parser) throws IOException {
+        final int[] ranges = new int[5];
+        JsonStreams.readObject(parser, (name, p) -> {
+            switch (name) {
+                case "minRange":
+                    ranges[0] = p.getValueAsInt();
+                    return true;
+                case "shortRange":
+                    ranges[1] = p.getValueAsInt();
+                    return true;
+                case "medRange":
+                    ranges[2] = p.getValueAsInt();
+                    return true;
+                case "longRange":
+                    ranges[3] = p.getValueAsInt();
+                    return true;
+                case "extremeRange":
+                    ranges[4] = p.getValueAsInt();
+                    return true;
+                default:
+                    return false;
+            }
+        });
+        return new WeaponRange(ranges[0], ranges[1], ranges[2], ranges[3], ranges[4]);
+    }
 }
@@ -18,23 +18,8 @@
  */
 package org.megamek.mekbuilder.tech;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.JsonCreator;
-import com.fasterxml.jackson.annotation.JsonSetter;
-import com.fasterxml.jackson.annotation.Nulls;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
-import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.sun.istack.Nullable;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.*;
-
 /**
  * Keys that provide fixed values for accessing construction options
  */
@@ -148,74 +133,20 @@ public enum ConstructionOptionKey {
      * For internal use to determine which class to instantiate when deserializing
      */
     private final int _type;
-    private OptionMap optionMap;
 
     ConstructionOptionKey(int _type) {
         this._type = _type;
     }
 
-    public @Nullable ConstructionOption get() {
-        if (null == optionMap) {
-            optionMap = new OptionMap();
-        }
-        return optionMap.get(this);
+    /**
+     * @return The construction option class to use when deserializing: one of {@link #TYPE_BASIC},
+     *         {@link #TYPE_UNIT}, or {@link #TYPE_VEHICLE}
+     */
+    int optionType() {
+        return _type;
     }
 
-    private static class OptionMap {
-        private final Map<ConstructionOptionKey, ConstructionOption> optionMap = new HashMap<>();
-
-        @Nullable
-        ConstructionOption get(ConstructionOptionKey key) {
-            return optionMap.get(key);
-        }
-
-        OptionMap() {
-            final ObjectMapper mapper = new ObjectMapper();
-            mapper.setDefaultSetterInfo(JsonSetter.Value.forValueNulls(Nulls.SKIP));
-            mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
-                    .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-                    .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                    .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-                    .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE));
-            SimpleModule module = new SimpleModule();
-            module.addDeserializer(List.class, new OptionListDeserializer());
-            mapper.registerModule(module);
-            final InputStream is = ConstructionOption.class.getResourceAsStream("construction_options.json");
-            if (null != is) {
-                try {
-                    List<ConstructionOption> list = mapper.readValue(is, new TypeReference<List<ConstructionOption>>(){});
-                    list.forEach(o -> optionMap.put(o.getKey(), o));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-
-        public static class OptionListDeserializer extends StdDeserializer<List<ConstructionOption>> {
-            @JsonCreator
-            private OptionListDeserializer() {
-                super(List.class);
-            }
-
-            @Override
-            public List<ConstructionOption> deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
-                final List<ConstructionOption> list = new ArrayList<>();
-                @SuppressWarnings("unchecked")
-                final TypeReference<? extends ConstructionOption>[] typerefs = new TypeReference[]{
-                        new TypeReference<ConstructionOption>(){},
-                        new TypeReference<UnitConstructionOption>(){},
-                        new TypeReference<VehicleConstructionOption>(){}
-                };
-                ObjectMapper mapper = (ObjectMapper) parser.getCodec();
-                JsonNode node = mapper.readTree(parser);
-                for (Iterator<JsonNode> iter = node.elements(); iter.hasNext();) {
-                    final JsonNode element = iter.next();
-                    ConstructionOptionKey key = mapper.readValue(element.get("key").toString(), ConstructionOptionKey.class);
-                    ConstructionOption val = mapper.readValue(element.toString(), typerefs[key._type]);
-                    list.add(val);
-                }
-                return list;
-            }
-        }
+    public @Nullable ConstructionOption get() {
+        return ConstructionOptionRegistry.getInstance().get(this);
     }
 }
@@ -0,0 +1,243 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.tech;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.sun.istack.Nullable;
+import org.megamek.mekbuilder.unit.MotiveType;
+import org.megamek.mekbuilder.unit.UnitType;
+import org.megamek.mekbuilder.utilities.JsonStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Holds all the construction options, which are read from the data file the first time any option
+ * is requested. The registry is shared by all {@link ConstructionOptionKey}s and is safe to access
+ * from multiple threads.
+ */
+public class ConstructionOptionRegistry {
+
+    private final Map<ConstructionOptionKey, ConstructionOption> optionMap =
+            new EnumMap<>(ConstructionOptionKey.class);
+    private final long loadTimeNanos;
+
+    private static class Holder {
+        private static final ConstructionOptionRegistry INSTANCE = new ConstructionOptionRegistry();
+    }
+
+    private ConstructionOptionRegistry() {
+        final long start = System.nanoTime();
+        try (InputStream is = ConstructionOption.class.getResourceAsStream("construction_options.json")) {
+            if (null != is) {
+                final List<ConstructionOption> list = JsonStreams.useStreamingParser() ?
+                        readStreaming(is) : readDatabind(is);
+                list.forEach(o -> optionMap.put(o.getKey(), o));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        loadTimeNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Reads a list of construction options using databind.
+     *
+     * @param is The source of the json
+     * @return   The construction options
+     * @throws IOException If there is an error reading the options
+     */
+    static List<ConstructionOption> readDatabind(InputStream is) throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.setDefaultSetterInfo(JsonSetter.Value.forValueNulls(Nulls.SKIP));
+        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE));
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(List.class, new OptionListDeserializer());
+        mapper.registerModule(module);
+        return mapper.readValue(is, new TypeReference<List<ConstructionOption>>(){});
+    }
+
+    /**
+     * Reads a list of construction options directly from the json token stream. The fields of each
+     * option are collected first, since the key determines which class of option to create.
+     *
+     * @param is The source of the json
+     * @return   The construction options
+     * @throws IOException If there is an error reading the options
+     */
+    static List<ConstructionOption> readStreaming(InputStream is) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(is)) {
+            parser.nextToken();
+            return JsonStreams.readArray(parser, ConstructionOptionRegistry::readOption);
+        }
+    }
+
+    private static ConstructionOption readOption(JsonParser parser) throws IOException {
+        final OptionFields fields = new OptionFields();
+        JsonStreams.readObject(parser, fields);
+        if (null == fields.key) {
+            throw new JsonParseException(parser, "Construction option does not have a key");
+        }
+        return fields.build();
+    }
+
+    /**
+     * Collects the fields of a construction option from the token stream. Fields that are not present
+     * get the same defaults as the constructors used by databind.
+     */
+    private static class OptionFields implements JsonStreams.FieldReader {
+        private ConstructionOptionKey key;
+        private TechProgression techProgression = new TechProgression();
+        private UnitType unitType = UnitType.BATTLE_MEK;
+        private Double minWeight;
+        private Double maxWeight;
+        private Double weightIncrement;
+        private MotiveType motiveType = MotiveType.WHEELED;
+
+        @Override
+        public boolean readField(String name, JsonParser parser) throws IOException {
+            switch (name) {
+                case "key":
+                    key = JsonStreams.readEnum(parser, ConstructionOptionKey.class);
+                    return true;
+                case "techProgression":
+                    techProgression = TechProgression.parse(parser.getText());
+                    return true;
+                case "unitType":
+                    unitType = JsonStreams.readEnum(parser, UnitType.class);
+                    return true;
+                case "minWeight":
+                    minWeight = parser.getValueAsDouble();
+                    return true;
+                case "maxWeight":
+                    maxWeight = parser.getValueAsDouble();
+                    return true;
+                case "weightIncrement":
+                    weightIncrement = parser.getValueAsDouble();
+                    return true;
+                case "motiveType":
+                    motiveType = JsonStreams.readEnum(parser, MotiveType.class);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        ConstructionOption build() {
+            switch (key.optionType()) {
+                case ConstructionOptionKey.TYPE_UNIT:
+                    return new UnitConstructionOption(key, techProgression, unitType,
+                            null == minWeight ? 5.0 : minWeight,
+                            null == maxWeight ? 100.0 : maxWeight,
+                            null == weightIncrement ? 5.0 : weightIncrement);
+                case ConstructionOptionKey.TYPE_VEHICLE:
+                    return new VehicleConstructionOption(key, techProgression, unitType,
+                            null == minWeight ? 0.0 : minWeight,
+                            null == maxWeight ? 0.0 : maxWeight,
+                            null == weightIncrement ? 0.0 : weightIncrement,
+                            motiveType);
+                default:
+                    return new ConstructionOption(key, techProgression);
+            }
+        }
+    }
+
+    /**
+     * @return The registry, loading the options if they have not been loaded yet
+     */
+    public static ConstructionOptionRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Loads all construction options if they have not already been loaded. This can be called
+     * during startup to avoid the delay the first time an option is needed.
+     *
+     * @return All the construction options
+     */
+    public static Map<ConstructionOptionKey, ConstructionOption> loadAll() {
+        return getInstance().getAll();
+    }
+
+    /**
+     * @param key The option key
+     * @return    The construction option for the key, or {@code null} if it is not in the data file
+     */
+    public @Nullable ConstructionOption get(ConstructionOptionKey key) {
+        return optionMap.get(key);
+    }
+
+    /**
+     * @return An unmodifiable view of all the construction options
+     */
+    public Map<ConstructionOptionKey, ConstructionOption> getAll() {
+        return Collections.unmodifiableMap(optionMap);
+    }
+
+    /**
+     * @return The time it took to read and parse the construction options, in nanoseconds
+     */
+    public long getLoadTimeNanos() {
+        return loadTimeNanos;
+    }
+
+    public static class OptionListDeserializer extends StdDeserializer<List<ConstructionOption>> {
+        @JsonCreator
+        private OptionListDeserializer() {
+            super(List.class);
+        }
+
+        @Override
+        public List<ConstructionOption> deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+            final List<ConstructionOption> list = new ArrayList<>();
+            @SuppressWarnings("unchecked")
+            final TypeReference<? extends ConstructionOption>[] typerefs = new TypeReference[]{
+                    new TypeReference<ConstructionOption>(){},
+                    new TypeReference<UnitConstructionOption>(){},
+                    new TypeReference<VehicleConstructionOption>(){}
+            };
+            ObjectMapper mapper = (ObjectMapper) parser.getCodec();
+            JsonNode node = mapper.readTree(parser);
+            for (Iterator<JsonNode> iter = node.elements(); iter.hasNext();) {
+                final JsonNode element = iter.next();
+                ConstructionOptionKey key = mapper.treeToValue(element.get("key"), ConstructionOptionKey.class);
+                ConstructionOption val = mapper.readerFor(typerefs[key.optionType()]).readValue(element);
+                list.add(val);
+            }
+            return list;
+        }
+    }
+}
@@ -70,4 +70,47 @@ public interface ITechDelegator extends ITechProgression {
         return techDelegate().getDate(techStage, clan, faction);
     }
 
+    // The delegate may provide more efficient implementations of the following methods than
+    // the defaults, which are built on getDate.
+
+    @Override
+    default Integer getDate(TechStage techStage, boolean clan) {
+        return techDelegate().getDate(techStage, clan);
+    }
+
+    @Override
+    default Integer getDate(TechStage techStage) {
+        return techDelegate().getDate(techStage);
+    }
+
+    @Override
+    default Integer introDate(boolean clan, Faction faction) {
+        return techDelegate().introDate(clan, faction);
+    }
+
+    @Override
+    default Integer introDate() {
+        return techDelegate().introDate();
+    }
+
+    @Override
+    default TechLevel simpleLevel(int year, boolean clan, Faction faction) {
+        return techDelegate().simpleLevel(year, clan, faction);
+    }
+
+    @Override
+    default boolean extinct(int year, boolean clan, Faction faction) {
+        return techDelegate().extinct(year, clan, faction);
+    }
+
+    @Override
+    default boolean extinct(int year) {
+        return techDelegate().extinct(year);
+    }
+
+    @Override
+    default boolean availableIn(int year, boolean clan, Faction faction) {
+        return techDelegate().availableIn(year, clan, faction);
+    }
+
 }
@@ -48,12 +48,42 @@ public class TechProgression implements ITechProgression {
      */
     private static final int APPROXIMATE_LENGTH = 5;
 
+    /** Marks a stage that does not have a date. */
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private static final TechStage[] STAGES = TechStage.values();
+    private static final Faction[] FACTIONS = Faction.values();
+
+    /**
+     * For each faction, the bits of the faction itself and of the faction group it belongs to. A faction is not
+     * delayed at a stage if the stage's faction mask shares any of these bits.
+     */
+    private static final long[] FACTION_MATCH = new long[FACTIONS.length];
+
+    static {
+        if (FACTIONS.length > Long.SIZE) {
+            throw new IllegalStateException("Faction masks cannot hold " + FACTIONS.length + " factions");
+        }
+        for (Faction faction : FACTIONS) {
+            final Faction group;
+            if (faction.isClan()) {
+                group = Faction.CLAN;
+            } else if (faction.isPeriphery()) {
+                group = Faction.PER;
+            } else {
+                group = Faction.IS;
+            }
+            FACTION_MATCH[faction.ordinal()] = (1L << faction.ordinal()) | (1L << group.ordinal());
+        }
+    }
+
     private final TechBase techBase;
-    private final Map<TechStage, Integer> isProgression = new EnumMap<>(TechStage.class);
-    private final Map<TechStage, Integer> clanProgression = new EnumMap<>(TechStage.class);
-    private final Set<TechStage> isApproximate = EnumSet.noneOf(TechStage.class);
-    private final Set<TechStage> clanApproximate = EnumSet.noneOf(TechStage.class);
-    private final Map<TechStage, Set<Faction>> factions = new EnumMap<>(TechStage.class);
+    /** The IS dates indexed by stage ordinal followed by the Clan dates, with {@link #NONE} for missing dates. */
+    private final int[] dates = new int[STAGES.length * 2];
+    /** Bits set for approximate dates, using the same indices as {@link #dates}. */
+    private final int approximate;
+    /** Bitmasks of {@link Faction} ordinals indexed by stage ordinal. */
+    private final long[] factions = new long[STAGES.length];
     private final TechLevel staticLevel;
     private final Rating rating;
     private final Rating[] availability = new Rating[NUM_ERAS];
@@ -68,14 +98,26 @@ public class TechProgression implements ITechProgression {
         this.techBase = techBase;
         this.rating = rating;
         System.arraycopy(availability, 0, this.availability, 0, NUM_ERAS);
-        this.isProgression.putAll(isProgression);
-        this.clanProgression.putAll(clanProgression);
-        this.isApproximate.addAll(isApproximate);
-        this.clanApproximate.addAll(clanApproximate);
+        int approx = 0;
+        for (TechStage stage : STAGES) {
+            final Integer isDate = isProgression.get(stage);
+            final Integer clanDate = clanProgression.get(stage);
+            dates[index(stage, false)] = (null == isDate) ? NONE : isDate;
+            dates[index(stage, true)] = (null == clanDate) ? NONE : clanDate;
+            if (isApproximate.contains(stage)) {
+                approx |= 1 << index(stage, false);
+            }
+            if (clanApproximate.contains(stage)) {
+                approx |= 1 << index(stage, true);
+            }
+        }
+        this.approximate = approx;
         for (Map.Entry<TechStage, Set<Faction>> entry : factions.entrySet()) {
-            Set<Faction> set = EnumSet.noneOf(Faction.class);
-            set.addAll(entry.getValue());
-            this.factions.put(entry.getKey(), set);
+            long mask = 0;
+            for (Faction faction : entry.getValue()) {
+                mask |= 1L << faction.ordinal();
+            }
+            this.factions[entry.getKey().ordinal()] = mask;
         }
         this.staticLevel = staticLevel;
     }
@@ -87,14 +129,21 @@ public class TechProgression implements ITechProgression {
         this.techBase = TechBase.ALL;
         this.rating = Rating.RATING_A;
         Arrays.fill(this.availability, Rating.RATING_A);
-        for (TechStage stage : TechStage.values()) {
-            isProgression.put(stage, DATE_PS);
-            clanProgression.put(stage, DATE_PS);
-            factions.put(stage, EnumSet.noneOf(Faction.class));
-        }
+        Arrays.fill(dates, DATE_PS);
+        this.approximate = 0;
         this.staticLevel = TechLevel.STANDARD;
     }
 
+    /**
+     * Parses the string format used in the data files, which is the format produced by {@link #toString()}.
+     *
+     * @param str The string representation of the tech progression
+     * @return    The tech progression
+     */
+    public static TechProgression parse(String str) {
+        return new Parser(str).parse();
+    }
+
     static class Parser {
         private static final Pattern regex = Pattern.compile("(~?)(\\d+)(\\(.*\\))?");
 
@@ -181,14 +230,39 @@ public class TechProgression implements ITechProgression {
         return staticLevel;
     }
 
-    private boolean setContainsFactionGroup(Set<Faction> fSet, Faction faction) {
-        if (faction.isClan()) {
-            return fSet.contains(Faction.CLAN);
-        } else if (faction.isPeriphery()) {
-            return fSet.contains(Faction.PER);
-        } else {
-            return fSet.contains(Faction.IS);
+    private static int index(TechStage techStage, boolean clan) {
+        return clan ? STAGES.length + techStage.ordinal() : techStage.ordinal();
+    }
+
+    private static @Nullable Integer box(int date) {
+        return (date == NONE) ? null : date;
+    }
+
+    private static int earliest(int date1, int date2) {
+        if (date1 == NONE) {
+            return date2;
         }
+        if (date2 == NONE) {
+            return date1;
+        }
+        return Math.min(date1, date2);
+    }
+
+    private static int latest(int date1, int date2) {
+        if (date1 == NONE) {
+            return date2;
+        }
+        if (date2 == NONE) {
+            return date1;
+        }
+        return Math.max(date1, date2);
+    }
+
+    /**
+     * @return Whether the faction mask is not empty and contains neither the faction nor its faction group
+     */
+    private static boolean delayed(long mask, Faction faction) {
+        return (mask != 0) && ((mask & FACTION_MATCH[faction.ordinal()]) == 0);
     }
 
     /**
@@ -200,163 +274,233 @@ public class TechProgression implements ITechProgression {
      * @return          Whether the faction is delayed at the given stage
      */
     public boolean factionDelay(TechStage techStage, @Nullable Faction faction) {
-        if (null == faction) {
-            return false;
+        return (null != faction) && delayed(factions[techStage.ordinal()], faction);
+    }
+
+    /**
+     * The primitive equivalent of {@link #getDate(TechStage, boolean)}.
+     *
+     * @return The date adjusted for approximation, or {@link #NONE}
+     */
+    private int date(TechStage techStage, boolean clan) {
+        final int i = index(techStage, clan);
+        final int date = dates[i];
+        if ((date == NONE) || ((approximate & (1 << i)) == 0)) {
+            return date;
+        }
+        return date + (techStage == TechStage.EXTINCTION ? APPROXIMATE_LENGTH : -APPROXIMATE_LENGTH);
+    }
+
+    /**
+     * The primitive equivalent of {@link #getDate(TechStage, boolean, Faction)}.
+     */
+    private int date(TechStage techStage, boolean clan, @Nullable Faction faction) {
+        switch (techStage) {
+            // All except the common date require consideration of faction variations, and each
+            // stage handles it differently.
+            case PROTOTYPE : return prototypeDate(clan, faction);
+            case PRODUCTION: return productionDate(clan, faction);
+            case COMMON: return date(techStage, clan);
+            case EXTINCTION: return extinctionDate(clan, faction);
+            case REINTRODUCTION: return reintroductionDate(clan, faction);
+            default: return NONE;
+        }
+    }
+
+    /**
+     * The primitive equivalent of {@link #getDate(TechStage)}.
+     */
+    private int date(TechStage techStage) {
+        if (techStage != TechStage.EXTINCTION) {
+            return earliest(date(techStage, true), date(techStage, false));
+        }
+        // A missing extinction date for either Clan or IS is only meaningful if that tech base has access
+        // to the tech in the first place.
+        final int clanDate = date(TechStage.EXTINCTION, true);
+        if ((clanDate == NONE) && (intro(true, null) != NONE)) {
+            return NONE;
+        }
+        final int isDate = date(TechStage.EXTINCTION, false);
+        if ((isDate == NONE) && (intro(false, null) != NONE)) {
+            return NONE;
         }
-        Set<Faction> fList = factions.get(techStage);
-        return (fList != null)
-                && !fList.isEmpty()
-                && !fList.contains(faction)
-                && !setContainsFactionGroup(fList, faction);
+        return latest(isDate, clanDate);
+    }
+
+    private int intro(boolean clan, @Nullable Faction faction) {
+        int date = date(TechStage.PROTOTYPE, clan, faction);
+        if (date == NONE) {
+            date = date(TechStage.PRODUCTION, clan, faction);
+        }
+        if (date == NONE) {
+            date = date(TechStage.COMMON, clan, faction);
+        }
+        return date;
     }
 
     @Override
     public @Nullable Integer getDate(TechStage techStage, boolean clan) {
-        Integer date = clan ? clanProgression.get(techStage) : isProgression.get(techStage);
-        if (null == date) {
-            return null;
+        return box(date(techStage, clan));
+    }
+
+    @Override
+    public @Nullable Integer getDate(TechStage techStage, boolean clan, @Nullable Faction faction) {
+        return box(date(techStage, clan, faction));
+    }
+
+    @Override
+    public @Nullable Integer getDate(TechStage techStage) {
+        return box(date(techStage));
+    }
+
+    @Override
+    public @Nullable Integer introDate(boolean clan, @Nullable Faction faction) {
+        return box(intro(clan, faction));
+    }
+
+    @Override
+    public @Nullable Integer introDate() {
+        int date = date(TechStage.PROTOTYPE);
+        if (date == NONE) {
+            date = date(TechStage.PRODUCTION);
         }
-        boolean approximate = clan ? clanApproximate.contains(techStage) : isApproximate.contains(techStage);
-        if (approximate) {
-            return date + (techStage == TechStage.EXTINCTION ? APPROXIMATE_LENGTH : -APPROXIMATE_LENGTH);
-        } else {
-            return date;
+        if (date == NONE) {
+            date = date(TechStage.COMMON);
         }
+        return box(date);
     }
 
     @Override
-    public @Nullable Integer getDate(TechStage techStage, boolean clan, @Nullable Faction faction) {
-        switch (techStage) {
-            // All except the common date require consideration of faction variations, and each
-            // stage handles it differently.
-            case PROTOTYPE : return getPrototypeDate(clan, faction);
-            case PRODUCTION: return getProductionDate(clan, faction);
-            case COMMON: return getDate(techStage, clan);
-            case EXTINCTION: return getExtinctionDate(clan, faction);
-            case REINTRODUCTION: return getReintroductionDate(clan, faction);
-            default: return null;
+    public TechLevel simpleLevel(int year, boolean clan, @Nullable Faction faction) {
+        if (staticLevel == TechLevel.UNOFFICIAL) {
+            return TechLevel.UNOFFICIAL;
+        }
+        final int common = date(TechStage.COMMON, clan, faction);
+        if ((common != NONE) && (year >= common)) {
+            return (staticLevel == TechLevel.INTRO) ? TechLevel.INTRO : TechLevel.STANDARD;
+        }
+        // Like ITechProgression#simpleLevel(int, Integer, Integer, Integer), this does not
+        // currently distinguish the production stage from the prototype stage.
+        final int prototype = date(TechStage.PROTOTYPE, clan, faction);
+        if ((prototype != NONE) && (year >= prototype)) {
+            return TechLevel.EXPERIMENTAL;
         }
+        return TechLevel.UNOFFICIAL;
     }
 
-    private @Nullable Integer getPrototypeDate(boolean clan, @Nullable Faction faction) {
-        Integer baseDate = getDate(TechStage.PROTOTYPE, clan);
-        if (null == baseDate) {
-            return null;
+    @Override
+    public boolean extinct(int year, boolean clan, @Nullable Faction faction) {
+        // Tech that is lost but later recovered in the IS is not lost to ComStar.
+        if ((null != faction) && faction.isComStar() && (date(TechStage.REINTRODUCTION, false) != NONE)) {
+            return false;
         }
-        if (null == faction) {
-            return baseDate;
+        final int extinction = date(TechStage.EXTINCTION, clan, faction);
+        if ((extinction == NONE) || (extinction > year)) {
+            return false;
         }
-        Set<Faction> fSet = factions.get(TechStage.PROTOTYPE);
-        if (null == fSet
-                || fSet.isEmpty()
-                || fSet.contains(faction)
-                || setContainsFactionGroup(fSet, faction)) {
+        final int reintro = date(TechStage.REINTRODUCTION, clan, faction);
+        return (reintro == NONE) || (year < reintro);
+    }
+
+    @Override
+    public boolean extinct(int year) {
+        final int extinction = date(TechStage.EXTINCTION);
+        if ((extinction == NONE) || (extinction > year)) {
+            return false;
+        }
+        final int reintro = date(TechStage.REINTRODUCTION);
+        return (reintro == NONE) || (year < reintro);
+    }
+
+    @Override
+    public boolean availableIn(int year, boolean clan, @Nullable Faction faction) {
+        final int intro = intro(clan, faction);
+        return (intro != NONE) && (year >= intro) && !extinct(year, clan, faction);
+    }
+
+    private int prototypeDate(boolean clan, @Nullable Faction faction) {
+        final int baseDate = date(TechStage.PROTOTYPE, clan);
+        if ((baseDate == NONE) || (null == faction)
+                || !delayed(factions[TechStage.PROTOTYPE.ordinal()], faction)) {
             return baseDate;
         }
         // Per IO p. 34, tech with only a prototype date becomes available to
         // other factions after 3d6+5 years if it hasn't gone extinct by then.
         // Using the minimum value here.
-        if (getDate(TechStage.PRODUCTION, clan) == null
-                && getDate(TechStage.COMMON, clan) == null
-                && !extinct(baseDate + 8, clan)) {
+        if ((date(TechStage.PRODUCTION, clan) == NONE)
+                && (date(TechStage.COMMON, clan) == NONE)
+                && !extinct(baseDate + 8, clan, null)) {
             return baseDate + 8;
         } else {
-            return null;
+            return NONE;
         }
     }
 
-    private @Nullable Integer getProductionDate(boolean clan, @Nullable Faction faction) {
-        Integer baseDate = getDate(TechStage.PRODUCTION, clan);
-        if (null == baseDate) {
-            return null;
-        }
-        if (null == faction) {
-            return baseDate;
-        }
-        Set<Faction> fSet = factions.get(TechStage.PROTOTYPE);
-        if (null == fSet
-                || fSet.isEmpty()
-                || fSet.contains(faction)
-                || setContainsFactionGroup(fSet, faction)) {
+    private int productionDate(boolean clan, @Nullable Faction faction) {
+        final int baseDate = date(TechStage.PRODUCTION, clan);
+        if ((baseDate == NONE) || (null == faction)
+                || !delayed(factions[TechStage.PROTOTYPE.ordinal()], faction)) {
             return baseDate;
         }
         // Per IO p. 34, tech with no common date becomes available to
         // other factions after 10 years if it hasn't gone extinct by then.
-        if (getDate(TechStage.COMMON, clan) == null
-                && !extinct(baseDate + 10, clan)) {
+        if ((date(TechStage.COMMON, clan) == NONE)
+                && !extinct(baseDate + 10, clan, null)) {
             return baseDate + 10;
         } else {
-            return null;
+            return NONE;
         }
     }
 
-    private @Nullable Integer getReintroductionDate(boolean clan, @Nullable Faction faction) {
-        Integer baseDate = getDate(TechStage.REINTRODUCTION, clan);
-        if (null == baseDate) {
-            return null;
-        }
-        if (null == faction) {
-            return baseDate;
-        }
-        Set<Faction> fSet = factions.get(TechStage.PROTOTYPE);
-        if (null == fSet
-                || fSet.isEmpty()
-                || fSet.contains(faction)
-                || setContainsFactionGroup(fSet, faction)) {
+    private int reintroductionDate(boolean clan, @Nullable Faction faction) {
+        final int baseDate = date(TechStage.REINTRODUCTION, clan);
+        if ((baseDate == NONE) || (null == faction)
+                || !delayed(factions[TechStage.PROTOTYPE.ordinal()], faction)) {
             return baseDate;
         }
         // If the production or common date is later than the reintroduction date, that is
         // when it becomes available to other factions. Otherwise we use reintro + 10 as with
         // production date.
-        if (!fSet.isEmpty()) {
-            Integer production = getProductionDate(clan, faction);
-            Integer common = getDate(TechStage.COMMON, clan);
-            if (production != null && production > baseDate) {
-                return production;
-            } else if (common != null && common > baseDate) {
-                return common;
-            } else {
-                return baseDate + 10;
-            }
-
+        final int production = productionDate(clan, faction);
+        final int common = date(TechStage.COMMON, clan);
+        if ((production != NONE) && (production > baseDate)) {
+            return production;
+        } else if ((common != NONE) && (common > baseDate)) {
+            return common;
+        } else {
+            return baseDate + 10;
         }
-        return baseDate;
     }
 
-    private @Nullable Integer getExtinctionDate(boolean clan, @Nullable Faction faction) {
-        Integer baseDate = getDate(TechStage.EXTINCTION, clan);
-        if (null == baseDate) {
-            return null;
-        }
-        if (null == faction) {
+    private int extinctionDate(boolean clan, @Nullable Faction faction) {
+        final int baseDate = date(TechStage.EXTINCTION, clan);
+        if ((baseDate == NONE) || (null == faction)) {
             return baseDate;
         }
         // Need to check whether there are extinction factions. If so and the faction is not among them,
-        // return null
-        Set<Faction> fSet = factions.get(TechStage.PROTOTYPE);
-        if (fSet == null
-                || fSet.isEmpty() || fSet.contains(faction)
-                || setContainsFactionGroup(fSet, faction)) {
-            return null;
-        } else {
-            return baseDate;
-        }
+        // there is no extinction date.
+        return delayed(factions[TechStage.PROTOTYPE.ordinal()], faction) ? baseDate : NONE;
     }
 
-    private String formatProg(Map<TechStage,Integer> prog, Set<TechStage> approx, boolean clan) {
+    private String formatProg(boolean clan) {
         StringJoiner sj = new StringJoiner(",");
-        for (TechStage stage : TechStage.values()) {
+        for (TechStage stage : STAGES) {
             StringBuilder sb = new StringBuilder();
-            if (approx.contains(stage)) {
+            final int i = index(stage, clan);
+            if ((approximate & (1 << i)) != 0) {
                 sb.append("~");
             }
-            sb.append(prog.get(stage) == null ? "-" : prog.get(stage));
-            Set<Faction> fList = factions.get(stage);
-            String str = fList.stream().filter(f -> f.isClan() == clan)
-                    .map(Faction::toString).collect(Collectors.joining("/"));
-            if (!str.isEmpty()) {
+            sb.append(dates[i] == NONE ? "-" : String.valueOf(dates[i]));
+            final long mask = factions[stage.ordinal()];
+            StringJoiner fsj = new StringJoiner("/");
+            for (Faction f : FACTIONS) {
+                if (((mask & (1L << f.ordinal())) != 0) && (f.isClan() == clan)) {
+                    fsj.add(f.toString());
+                }
+            }
+            if (fsj.length() > 0) {
                 sb.append("(");
-                sb.append(str);
+                sb.append(fsj);
                 sb.append(")");
             }
             sj.add(sb.toString());
@@ -371,8 +515,8 @@ public class TechProgression implements ITechProgression {
         sj.add(techRating().toString().replace("RATING_", ""));
         sj.add(Arrays.stream(availability).map(a -> a.toString().replace("RATING_", ""))
             .collect(Collectors.joining("")));
-        sj.add(formatProg(isProgression, isApproximate, false));
-        sj.add(formatProg(clanProgression, clanApproximate, true));
+        sj.add(formatProg(false));
+        sj.add(formatProg(true));
         sj.add(staticLevel.toString());
 
         return sj.toString();
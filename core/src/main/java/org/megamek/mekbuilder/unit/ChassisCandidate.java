@@ -0,0 +1,143 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.component.*;
+
+/**
+ * One combination of chassis components found by {@link MekChassisOptimizer}, with the armor that can
+ * be fitted to it and the tonnage left for equipment.
+ */
+public class ChassisCandidate {
+
+    private final MVFEngine engine;
+    private final int engineRating;
+    private final Component structure;
+    private final Component gyro;
+    private final HeatSink heatSinkType;
+    private final int heatSinks;
+    private final SecondaryMotiveSystem jumpJets;
+    private final Armor armor;
+    private final double chassisWeight;
+    private final double armorTonnage;
+    private final int armorPoints;
+    private final double freeTonnage;
+    private final int slots;
+
+    ChassisCandidate(MekBuild mek, @Nullable SecondaryMotiveSystem jumpJets, Armor armor,
+                     double armorTonnage, int armorPoints, int slots) {
+        engine = mek.getEngineType();
+        engineRating = mek.getEngineRating();
+        structure = mek.getStructureType();
+        gyro = mek.getGyroType();
+        heatSinkType = mek.getHeatSinkType();
+        heatSinks = mek.getHeatSinkMount().totalHeatSinks();
+        this.jumpJets = jumpJets;
+        this.armor = armor;
+        chassisWeight = mek.buildWeight();
+        this.armorTonnage = armorTonnage;
+        this.armorPoints = armorPoints;
+        freeTonnage = mek.getTonnage() - chassisWeight - armorTonnage;
+        this.slots = slots;
+    }
+
+    public MVFEngine getEngine() {
+        return engine;
+    }
+
+    public int getEngineRating() {
+        return engineRating;
+    }
+
+    public Component getStructure() {
+        return structure;
+    }
+
+    public Component getGyro() {
+        return gyro;
+    }
+
+    public HeatSink getHeatSinkType() {
+        return heatSinkType;
+    }
+
+    /**
+     * @return The total number of heat sinks, including those included with the engine
+     */
+    public int getHeatSinks() {
+        return heatSinks;
+    }
+
+    /**
+     * @return The type of jump jets, or {@code null} if the unit does not have jump MP
+     */
+    public @Nullable SecondaryMotiveSystem getJumpJets() {
+        return jumpJets;
+    }
+
+    public Armor getArmor() {
+        return armor;
+    }
+
+    /**
+     * @return The weight of the chassis components, not including armor
+     */
+    public double getChassisWeight() {
+        return chassisWeight;
+    }
+
+    public double getArmorTonnage() {
+        return armorTonnage;
+    }
+
+    public int getArmorPoints() {
+        return armorPoints;
+    }
+
+    /**
+     * @return The tonnage remaining for equipment after the chassis and armor
+     */
+    public double getFreeTonnage() {
+        return freeTonnage;
+    }
+
+    /**
+     * @return The number of critical slots used by the chassis components and armor
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    /**
+     * @param other Another candidate
+     * @return      Whether this candidate has at least as much free tonnage and armor as the other
+     */
+    public boolean dominates(ChassisCandidate other) {
+        return (freeTonnage >= other.freeTonnage) && (armorPoints >= other.armorPoints);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %d, %s, %s, %d %s%s, %s %d pts: %.1f tons free",
+                engine.getShortName(), engineRating, structure.getShortName(), gyro.getShortName(), heatSinks,
+                heatSinkType.getShortName(), null == jumpJets ? "" : ", " + jumpJets.getShortName(),
+                armor.getShortName(), armorPoints, freeTonnage);
+    }
+}
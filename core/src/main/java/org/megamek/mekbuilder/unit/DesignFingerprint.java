@@ -0,0 +1,186 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.component.Mount;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * A hash of everything about a unit that affects its calculated values: the construction option,
+ * tonnage, configuration, and each mount's component, size, location, and flags. Names and other
+ * descriptive values are not included. Two units with the same fingerprint have the same statistics,
+ * so the fingerprint can be used as a key for caching them, including across runs.
+ *
+ * <p>The fingerprint is the first 128 bits of a SHA-256 digest of the unit's values written in a fixed
+ * order by {@link UnitBuild#fingerprint(Builder)} and {@link Mount#fingerprint(Builder)}.</p>
+ *
+ * <p>A fingerprint can also be taken of the description a unit is built from, using {@link #builder()},
+ * so that a cached value can be found without building the unit.</p>
+ */
+public final class DesignFingerprint {
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final int LENGTH = 16;
+
+    private final byte[] hash;
+
+    private DesignFingerprint(byte[] hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * @param unit The unit
+     * @return     The unit's fingerprint
+     */
+    public static DesignFingerprint of(UnitBuild unit) {
+        final Builder builder = new Builder();
+        unit.fingerprint(builder);
+        return builder.build();
+    }
+
+    /**
+     * @return A builder for a fingerprint of values other than a unit's, such as a design description
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param text The hexadecimal form produced by {@link #toString()}
+     * @return     The fingerprint
+     * @throws IllegalArgumentException if the text is not a valid fingerprint
+     */
+    public static DesignFingerprint parse(String text) {
+        if (text.length() != LENGTH * 2) {
+            throw new IllegalArgumentException("Invalid fingerprint " + text);
+        }
+        final byte[] hash = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            final int hi = Character.digit(text.charAt(i * 2), 16);
+            final int lo = Character.digit(text.charAt(i * 2 + 1), 16);
+            if ((hi < 0) || (lo < 0)) {
+                throw new IllegalArgumentException("Invalid fingerprint " + text);
+            }
+            hash[i] = (byte) ((hi << 4) | lo);
+        }
+        return new DesignFingerprint(hash);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof DesignFingerprint) && Arrays.equals(hash, ((DesignFingerprint) o).hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(hash);
+    }
+
+    /**
+     * @return The fingerprint as 32 hexadecimal digits
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(LENGTH * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Collects the values that make up a fingerprint. Each value is written with a type marker so that
+     * different sequences of values cannot produce the same input to the digest.
+     */
+    public static final class Builder {
+        private final MessageDigest digest;
+        private final byte[] buffer = new byte[9];
+
+        private Builder() {
+            try {
+                digest = MessageDigest.getInstance(ALGORITHM);
+            } catch (NoSuchAlgorithmException ex) {
+                // Every Java implementation is required to support SHA-256
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        public Builder add(long value) {
+            buffer[0] = 'L';
+            for (int i = 0; i < 8; i++) {
+                buffer[i + 1] = (byte) (value >>> (56 - i * 8));
+            }
+            digest.update(buffer, 0, 9);
+            return this;
+        }
+
+        public Builder add(int value) {
+            return add((long) value);
+        }
+
+        public Builder add(double value) {
+            buffer[0] = 'D';
+            final long bits = Double.doubleToLongBits(value);
+            for (int i = 0; i < 8; i++) {
+                buffer[i + 1] = (byte) (bits >>> (56 - i * 8));
+            }
+            digest.update(buffer, 0, 9);
+            return this;
+        }
+
+        public Builder add(boolean value) {
+            digest.update(value ? (byte) 'T' : (byte) 'F');
+            return this;
+        }
+
+        public Builder add(@Nullable String value) {
+            if (null == value) {
+                digest.update((byte) 'N');
+            } else {
+                final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                buffer[0] = 'S';
+                for (int i = 0; i < 4; i++) {
+                    buffer[i + 1] = (byte) (bytes.length >>> (24 - i * 8));
+                }
+                digest.update(buffer, 0, 5);
+                digest.update(bytes);
+            }
+            return this;
+        }
+
+        /**
+         * Adds an enum constant by name, so the fingerprint does not change if constants are reordered.
+         */
+        public Builder add(@Nullable Enum<?> value) {
+            return add(null == value ? null : value.name());
+        }
+
+        /**
+         * @return The fingerprint of the values added
+         */
+        public DesignFingerprint build() {
+            return new DesignFingerprint(Arrays.copyOf(digest.digest(), LENGTH));
+        }
+    }
+}
@@ -23,8 +23,10 @@ import org.megamek.mekbuilder.tech.ConstructionOptionKey;
 import org.megamek.mekbuilder.tech.ITechFilter;
 import org.megamek.mekbuilder.tech.UnitConstructionOption;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -56,27 +58,83 @@ public class MekBuild extends UnitBuild {
         criticalSlots = new EnumMap<>(UnitLocation.class);
         configuration = MekConfiguration.getConfiguration(UnitType.BATTLE_MEK, MekConfiguration.SubType.STANDARD_BIPED);
         internalStructure = (MekInternalStructure) createMount(getDefaultStructure());
-        getComponents().add(internalStructure);
+        addMount(internalStructure);
         engineMount = (MekEngineMount) createMount(getDefaultEngine());
         engineMount.setRating(20);
-        getComponents().add(engineMount);
+        addMount(engineMount);
         cockpitMount = (CockpitMount) createMount(getDefaultCockpit());
-        getComponents().add(cockpitMount);
+        addMount(cockpitMount);
         gyroMount = createMount(getDefaultGyro());
-        getComponents().add(gyroMount);
+        addMount(gyroMount);
         secondaryMotiveMount = (CompoundMount) createMount(getDefaultSecondaryMotiveType());
-        getComponents().add(secondaryMotiveMount);
+        addMount(secondaryMotiveMount);
         heatSinkMount = (HeatSinkMount) createMount(getDefaultHeatSinkType());
         heatSinkMount.setCount(0);
-        getComponents().add(heatSinkMount);
+        addMount(heatSinkMount);
         myomerMount = (DistributedMount) createMount(ComponentLibrary.getInstance()
                 .getComponent(ComponentKeys.MYOMER_STANDARD));
-        getComponents().add(myomerMount);
+        addMount(myomerMount);
         armorMount = (ArmorMount) createMount(ComponentLibrary.getInstance()
                 .getComponent(getDefaultArmorName()));
         initCriticalSlots();
     }
 
+    /**
+     * Creates a deep copy of another Mek. The copy has its own mounts, so changes to either unit do not
+     * affect the other. Copying is much faster than building a new unit and is suitable for creating
+     * a large number of variants of a design.
+     *
+     * @param other The unit to copy
+     */
+    public MekBuild(MekBuild other) {
+        super(other);
+        criticalSlots = new EnumMap<>(other.criticalSlots);
+        configuration = other.configuration;
+        tonnage = other.tonnage;
+        omni = other.omni;
+        internalStructure = copyOf(other, other.internalStructure);
+        engineMount = copyOf(other, other.engineMount);
+        cockpitMount = copyOf(other, other.cockpitMount);
+        secondaryMotiveMount = copyOf(other, other.secondaryMotiveMount);
+        heatSinkMount = copyOf(other, other.heatSinkMount);
+        gyroMount = copyOf(other, other.gyroMount);
+        myomerMount = copyOf(other, other.myomerMount);
+        armorMount = other.armorMount.copyTo(this);
+    }
+
+    /**
+     * @return A deep copy of this unit
+     */
+    public MekBuild copy() {
+        return new MekBuild(this);
+    }
+
+    @Override
+    protected void fingerprint(DesignFingerprint.Builder builder) {
+        super.fingerprint(builder);
+        builder.add(configuration.getSubType()).add(omni);
+        armorMount.fingerprint(builder);
+    }
+
+    /**
+     * Finds the copy of one of the original unit's mounts, which is at the same position in the list.
+     */
+    @SuppressWarnings("unchecked")
+    private <M extends Mount> M copyOf(MekBuild original, M mount) {
+        final List<Mount> mounts = original.getComponents();
+        for (int i = 0; i < mounts.size(); i++) {
+            if (mounts.get(i) == mount) {
+                return (M) getComponents().get(i);
+            }
+        }
+        return (M) mount.copyTo(this);
+    }
+
+    @Override
+    protected Collection<Mount> getAdditionalSlotMounts() {
+        return Collections.singletonList(armorMount);
+    }
+
     @Override
     public boolean isBiped() {
         return configuration.getLimbConfiguration().equals(LimbConfiguration.BIPED)
@@ -188,6 +246,7 @@ public class MekBuild extends UnitBuild {
     public void setConfiguration(MekConfiguration configuration) {
         LimbConfiguration oldLimbs = getLimbConfiguration();
         this.configuration = configuration;
+        markModified();
         if (oldLimbs != getLimbConfiguration()) {
             resetLimbConfiguration();
         }
@@ -253,6 +312,7 @@ public class MekBuild extends UnitBuild {
      * @param loc A location on the unit
      * @return    The total number of slots in the location. If the location does not exist on the unit, returns 0.
      */
+    @Override
     public int slotsInLocation(UnitLocation loc) {
         return criticalSlots.getOrDefault(loc, 0);
     }
@@ -265,6 +325,7 @@ public class MekBuild extends UnitBuild {
     public void setTonnage(double tonnage) {
         int walk = getBaseWalkMP();
         this.tonnage = tonnage;
+        markModified();
         setBaseWalkMP(walk);
     }
 
@@ -276,6 +337,7 @@ public class MekBuild extends UnitBuild {
     @Override
     public void setOmni(boolean omni) {
         this.omni = omni && configuration.isOmniAllowed();
+        markModified();
     }
 
     @Override
@@ -315,6 +377,10 @@ public class MekBuild extends UnitBuild {
         return myomerMount;
     }
 
+    public ArmorMount getArmorMount() {
+        return armorMount;
+    }
+
     public Component getStructureType() {
         return internalStructure.getComponent();
     }
@@ -590,6 +656,16 @@ public class MekBuild extends UnitBuild {
         return armorMount.getTotalArmorPoints();
     }
 
+    @Override
+    public int getArmorPoints(UnitLocation loc) {
+        return armorMount.getArmorPoints(loc);
+    }
+
+    @Override
+    public int getRearArmorPoints(UnitLocation loc) {
+        return armorMount.getRearArmorPoints(loc);
+    }
+
     @Override
     public int getMaxArmorPoints(UnitLocation loc) {
         if (loc.equals(UnitLocation.MEK_HEAD)) {
@@ -604,10 +680,9 @@ public class MekBuild extends UnitBuild {
     }
 
     public Component getDefaultStructure() {
-        return ComponentLibrary.getInstance().getAllComponents().stream()
-                .filter(c -> c.getType().equals(ComponentType.MEK_STRUCTURE)
-                && c.isDefault() && allowed(c)).findFirst()
-                .orElse(ComponentLibrary.getInstance().getComponent(ComponentKeys.MEK_STRUCTURE_STANDARD));
+        final Component structure = findDefaultComponent(ComponentType.MEK_STRUCTURE);
+        return (null != structure) ? structure
+                : ComponentLibrary.getInstance().getComponent(ComponentKeys.MEK_STRUCTURE_STANDARD);
     }
 
     public Cockpit getDefaultCockpit() {
@@ -618,26 +693,20 @@ public class MekBuild extends UnitBuild {
     }
 
     public Component getDefaultGyro() {
-        return ComponentLibrary.getInstance().getAllComponents().stream()
-                .filter(c -> c.getType().equals(ComponentType.GYRO)
-                        && c.isDefault() && allowed(c)).findFirst()
-                .orElse(ComponentLibrary.getInstance().getComponent(ComponentKeys.GYRO_STANDARD));
+        final Component gyro = findDefaultComponent(ComponentType.GYRO);
+        return (null != gyro) ? gyro : ComponentLibrary.getInstance().getComponent(ComponentKeys.GYRO_STANDARD);
     }
 
     @Override
     public SecondaryMotiveSystem getDefaultSecondaryMotiveType() {
-        return (SecondaryMotiveSystem) ComponentLibrary.getInstance().getAllComponents().stream()
-                .filter(c -> c.getType().equals(ComponentType.SECONDARY_MOTIVE_SYSTEM)
-                        && c.isDefault() && allowed(c)).findFirst()
-                .orElse(super.getDefaultSecondaryMotiveType());
+        final Component sms = findDefaultComponent(ComponentType.SECONDARY_MOTIVE_SYSTEM);
+        return (null != sms) ? (SecondaryMotiveSystem) sms : super.getDefaultSecondaryMotiveType();
     }
 
     @Override
     public HeatSink getDefaultHeatSinkType() {
-        return (HeatSink) ComponentLibrary.getInstance().getAllComponents().stream()
-                .filter(c -> c.getType().equals(ComponentType.HEAT_SINK)
-                        && c.isDefault() && allowed(c)).findFirst()
-                .orElse(super.getDefaultHeatSinkType());
+        final Component hs = findDefaultComponent(ComponentType.HEAT_SINK);
+        return (null != hs) ? (HeatSink) hs : super.getDefaultHeatSinkType();
     }
 
     @Override
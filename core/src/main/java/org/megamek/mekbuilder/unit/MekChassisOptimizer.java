@@ -0,0 +1,492 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import org.megamek.mekbuilder.component.*;
+import org.megamek.mekbuilder.tech.ITechFilter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Searches the combinations of engine, internal structure, gyro, heat sink, jump jet and armor types
+ * that can be used to build a Mek of a given tonnage and movement, and finds those that offer the best
+ * trade-off between armor and the tonnage left over for equipment. Each combination is given as much armor
+ * as it can carry, up to the maximum for the unit, and the result is the Pareto front of free tonnage against
+ * armor points: no combination on the front has both less free tonnage and fewer armor points than any other.
+ *
+ * <p>The search is divided into a task for each engine and structure pair, which run in parallel. Within a task
+ * the remaining choices are made one at a time, and a branch is abandoned as soon as the lightest possible way of
+ * completing it either exceeds the unit's tonnage or could not improve on the front found so far by any task.</p>
+ */
+public class MekChassisOptimizer {
+
+    private final double tonnage;
+    private final int walkMP;
+    private final int jumpMP;
+    private final ITechFilter techFilter;
+    private MekConfiguration configuration =
+            MekConfiguration.getConfiguration(UnitType.BATTLE_MEK, MekConfiguration.SubType.STANDARD_BIPED);
+    private int heatSinks = 10;
+
+    /**
+     * @param tonnage    The tonnage of the unit
+     * @param walkMP     The required base walk MP
+     * @param jumpMP     The required jump MP, or zero for a unit without jump jets
+     * @param techFilter Determines which components can be used
+     */
+    public MekChassisOptimizer(double tonnage, int walkMP, int jumpMP, ITechFilter techFilter) {
+        this.tonnage = tonnage;
+        this.walkMP = walkMP;
+        this.jumpMP = jumpMP;
+        this.techFilter = techFilter;
+    }
+
+    public MekConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * @param configuration The chassis configuration to search. Defaults to a standard biped.
+     */
+    public void setConfiguration(MekConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    public int getHeatSinks() {
+        return heatSinks;
+    }
+
+    /**
+     * @param heatSinks The total number of heat sinks, including those that come with the engine. Defaults to ten.
+     */
+    public void setHeatSinks(int heatSinks) {
+        this.heatSinks = heatSinks;
+    }
+
+    /**
+     * Runs the search on the common fork/join pool and waits for it to complete.
+     *
+     * @return The Pareto front, in order of decreasing free tonnage
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    public List<ChassisCandidate> optimize() throws InterruptedException {
+        try {
+            return start(ForkJoinPool.commonPool(), c -> {}).get();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Starts the search on the common fork/join pool.
+     *
+     * @param listener Notified each time a candidate is added to the front; a candidate may be removed
+     *                 again later if a better one is found. This is called from the worker threads.
+     * @return         The running search
+     */
+    public Search start(Consumer<? super ChassisCandidate> listener) {
+        return start(ForkJoinPool.commonPool(), listener);
+    }
+
+    /**
+     * Starts the search.
+     *
+     * @param executor Runs the search tasks
+     * @param listener Notified each time a candidate is added to the front; a candidate may be removed
+     *                 again later if a better one is found. This is called from the worker threads.
+     * @return         The running search
+     */
+    public Search start(Executor executor, Consumer<? super ChassisCandidate> listener) {
+        final MekBuild template = createUnit();
+        final List<Component> engines = options(template, ComponentType.ENGINE,
+                c -> !((MVFEngine) c).isLargeEngine());
+        final List<Component> structures = options(template, ComponentType.MEK_STRUCTURE, c -> true);
+        final Search search = new Search(listener, engines.size() * structures.size());
+        if (search.remaining.getCount() == 0) {
+            search.finish();
+        }
+        for (Component engine : engines) {
+            for (Component structure : structures) {
+                executor.execute(new Task(search, (MVFEngine) engine, structure));
+            }
+        }
+        return search;
+    }
+
+    private MekBuild createUnit() {
+        final MekBuild mek = new MekBuild();
+        mek.setConfiguration(configuration);
+        mek.setYear(techFilter.getYear());
+        mek.setTechBase(techFilter.getTechBase());
+        mek.setFaction(techFilter.getFaction());
+        mek.setTonnage(tonnage);
+        return mek;
+    }
+
+    private boolean legal(MekBuild mek, Component component) {
+        return mek.allowed(component)
+                && TechAvailabilityIndex.getInstance().isLegal(techFilter, component);
+    }
+
+    private List<Component> options(MekBuild mek, ComponentType type, Predicate<Component> test) {
+        final List<Component> list = new ArrayList<>();
+        for (Component c : TechAvailabilityIndex.getInstance().legalComponents(techFilter, type)) {
+            if (mek.allowed(c) && test.test(c)) {
+                list.add(c);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * One of the choices made within a task. Options are installed on the task's unit in turn and the
+     * default restored once they have all been tried, so that the choices after it always hold the default.
+     */
+    private static class Level {
+        final List<Component> options;
+        final BiConsumer<MekBuild, Component> install;
+        final Predicate<MekBuild> valid;
+        final Component initial;
+        // The weight of the lightest option relative to the default, used for the lower bound
+        double minDelta;
+
+        Level(MekBuild mek, List<Component> options, Component initial,
+              BiConsumer<MekBuild, Component> install, Predicate<MekBuild> valid) {
+            this.options = options;
+            this.initial = initial;
+            this.install = install;
+            this.valid = valid;
+            final double base = mek.buildWeight();
+            minDelta = options.isEmpty() ? 0 : Double.POSITIVE_INFINITY;
+            for (Component c : options) {
+                install.accept(mek, c);
+                minDelta = Math.min(minDelta, mek.buildWeight() - base);
+            }
+            install.accept(mek, initial);
+        }
+    }
+
+    /**
+     * Searches all combinations that use a single engine and structure type.
+     */
+    private class Task implements Runnable {
+        private final Search search;
+        private final MVFEngine engine;
+        private final Component structure;
+
+        private MekBuild mek;
+        private Level[] levels;
+        private List<ArmorMount> armor;
+        private double[] armorForMax;
+        private int maxArmorPoints;
+        private int slotCapacity;
+        private double bestPointsPerTon;
+
+        Task(Search search, MVFEngine engine, Component structure) {
+            this.search = search;
+            this.engine = engine;
+            this.structure = structure;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!search.cancelled && init()) {
+                    search(0);
+                }
+            } catch (RuntimeException ex) {
+                search.fail(ex);
+            } finally {
+                search.taskDone();
+            }
+        }
+
+        private boolean init() {
+            mek = createUnit();
+            mek.setEngineType(engine);
+            mek.setBaseWalkMP(walkMP);
+            if ((mek.getBaseWalkMP() != walkMP) || !legal(mek, mek.getEngineType())) {
+                return false;
+            }
+            mek.setStructureType(structure);
+            if (!mek.compatibleWithInstalled(structure) || !mek.compatibleWithInstalled(mek.getEngineType())) {
+                return false;
+            }
+            mek.setAdditionalHeatSinkCount(Math.max(0, heatSinks - engine.getWeightFreeHeatSinks()));
+
+            final List<Level> list = new ArrayList<>();
+            list.add(new Level(mek, options(mek, ComponentType.GYRO, c -> true), mek.getGyroType(),
+                    MekBuild::setGyroType, m -> m.compatibleWithInstalled(m.getGyroType())));
+            list.add(new Level(mek, options(mek, ComponentType.HEAT_SINK, c -> true), mek.getHeatSinkType(),
+                    (m, c) -> m.setHeatSinkType((HeatSink) c),
+                    m -> m.compatibleWithInstalled(m.getHeatSinkType())));
+            if (jumpMP > 0) {
+                list.add(new Level(mek, options(mek, ComponentType.SECONDARY_MOTIVE_SYSTEM,
+                        c -> ((SecondaryMotiveSystem) c).getMode() == MotiveType.JUMP),
+                        mek.getSecondaryMotiveType(),
+                        (m, c) -> {
+                            m.setSecondaryMotiveType((SecondaryMotiveSystem) c);
+                            m.setSecondaryMP(((SecondaryMotiveSystem) c).getMode() == MotiveType.GROUND ? 0 : jumpMP);
+                        },
+                        m -> (jumpMP >= m.minSecondaryMP()) && (jumpMP <= m.maxSecondaryMP())
+                                && m.compatibleWithInstalled(m.getSecondaryMotiveType())));
+            }
+            levels = list.toArray(new Level[0]);
+
+            maxArmorPoints = 0;
+            slotCapacity = 0;
+            for (UnitLocation loc : mek.getLocationSet()) {
+                maxArmorPoints += mek.getMaxArmorPoints(loc);
+                slotCapacity += mek.slotsInLocation(loc);
+            }
+            armor = new ArrayList<>();
+            for (Component c : options(mek, ComponentType.ARMOR, c -> !c.hasFlag(ComponentSwitch.PATCHWORK_ARMOR))) {
+                final ArmorMount mount = (ArmorMount) mek.createMount(c);
+                if (mount.getPointsPerTon() > 0) {
+                    armor.add(mount);
+                    bestPointsPerTon = Math.max(bestPointsPerTon, mount.getPointsPerTon());
+                }
+            }
+            armorForMax = new double[armor.size()];
+            for (int i = 0; i < armorForMax.length; i++) {
+                armorForMax[i] = Math.ceil(maxArmorPoints * armor.get(i).getWeightPerPoint() * 2) / 2;
+            }
+            return !armor.isEmpty();
+        }
+
+        private void search(int depth) {
+            if (search.cancelled) {
+                return;
+            }
+            double lowerBound = mek.buildWeight();
+            for (int i = depth; i < levels.length; i++) {
+                lowerBound += levels[i].minDelta;
+            }
+            final double available = tonnage - lowerBound;
+            if ((available < 0) || search.front.dominated(maxFree(available), maxArmor(available))) {
+                search.pruned.incrementAndGet();
+                return;
+            }
+            if (depth == levels.length) {
+                fitArmor();
+                return;
+            }
+            final Level level = levels[depth];
+            for (Component c : level.options) {
+                level.install.accept(mek, c);
+                if (level.valid.test(mek)) {
+                    search(depth + 1);
+                }
+            }
+            level.install.accept(mek, level.initial);
+        }
+
+        private double maxFree(double available) {
+            final double armorTons = Math.floor(available * 2) / 2;
+            double free = 0;
+            for (double forMax : armorForMax) {
+                free = Math.max(free, available - Math.min(forMax, armorTons));
+            }
+            return free;
+        }
+
+        private int maxArmor(double available) {
+            return Math.min(maxArmorPoints, (int) (Math.floor(available * 2) / 2 * bestPointsPerTon));
+        }
+
+        private void fitArmor() {
+            final double available = tonnage - mek.buildWeight();
+            final double armorTons = Math.floor(available * 2) / 2;
+            int slots = 0;
+            for (Mount m : mek.getComponents()) {
+                slots += m.getComponentSlots();
+            }
+            final SecondaryMotiveSystem jumpJets = (jumpMP > 0) ? mek.getSecondaryMotiveType() : null;
+            for (int i = 0; i < armor.size(); i++) {
+                final ArmorMount mount = armor.get(i);
+                if ((slots + mount.getComponentSlots() > slotCapacity)
+                        || !mek.compatibleWithInstalled(mount.getComponent())) {
+                    continue;
+                }
+                final double tons = Math.min(armorForMax[i], armorTons);
+                final int points = Math.min(maxArmorPoints, (int) (tons * mount.getPointsPerTon()));
+                search.evaluated.incrementAndGet();
+                search.offer(new ChassisCandidate(mek, jumpJets, (Armor) mount.getComponent(),
+                        tons, points, slots + mount.getComponentSlots()));
+            }
+        }
+    }
+
+    /**
+     * The candidates that are not dominated by any other candidate found so far.
+     */
+    private static class ParetoFront {
+        private final List<ChassisCandidate> members = new ArrayList<>();
+
+        /**
+         * Adds the candidate if no current member has at least as much free tonnage and armor, and removes
+         * any members that it dominates.
+         *
+         * @return Whether the candidate was added
+         */
+        synchronized boolean offer(ChassisCandidate candidate) {
+            for (ChassisCandidate c : members) {
+                if (c.dominates(candidate)) {
+                    return false;
+                }
+            }
+            members.removeIf(candidate::dominates);
+            members.add(candidate);
+            return true;
+        }
+
+        synchronized boolean dominated(double freeTonnage, int armorPoints) {
+            for (ChassisCandidate c : members) {
+                if ((c.getFreeTonnage() >= freeTonnage) && (c.getArmorPoints() >= armorPoints)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized List<ChassisCandidate> toList() {
+            final List<ChassisCandidate> list = new ArrayList<>(members);
+            list.sort(Comparator.comparingDouble(ChassisCandidate::getFreeTonnage).reversed()
+                    .thenComparingInt(ChassisCandidate::getArmorPoints));
+            return list;
+        }
+    }
+
+    /**
+     * A running search. The front found so far can be read at any time, and the search can be cancelled
+     * without waiting for the tasks to finish; tasks that have not reached a worker thread yet exit as soon as
+     * they start.
+     */
+    public static class Search implements Future<List<ChassisCandidate>> {
+        private final Consumer<? super ChassisCandidate> listener;
+        private final ParetoFront front = new ParetoFront();
+        private final CountDownLatch remaining;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicLong evaluated = new AtomicLong();
+        private final AtomicLong pruned = new AtomicLong();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        private Search(Consumer<? super ChassisCandidate> listener, int tasks) {
+            this.listener = listener;
+            remaining = new CountDownLatch(tasks);
+        }
+
+        private void offer(ChassisCandidate candidate) {
+            if (front.offer(candidate)) {
+                listener.accept(candidate);
+            }
+        }
+
+        private void fail(Throwable ex) {
+            if (null == error) {
+                error = ex;
+            }
+            cancelled = true;
+        }
+
+        private void taskDone() {
+            remaining.countDown();
+            if (remaining.getCount() == 0) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            done.countDown();
+        }
+
+        /**
+         * @return The candidates found so far that are not dominated by any other, in order of decreasing
+         *         free tonnage
+         */
+        public List<ChassisCandidate> getFront() {
+            return front.toList();
+        }
+
+        /**
+         * @return The number of complete combinations that have been evaluated
+         */
+        public long getEvaluatedCount() {
+            return evaluated.get();
+        }
+
+        /**
+         * @return The number of branches abandoned without being fully explored
+         */
+        public long getPrunedCount() {
+            return pruned.get();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (isDone()) {
+                return false;
+            }
+            cancelled = true;
+            done.countDown();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled && (null == error);
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        @Override
+        public List<ChassisCandidate> get() throws InterruptedException, ExecutionException {
+            done.await();
+            return result();
+        }
+
+        @Override
+        public List<ChassisCandidate> get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            if (!done.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            return result();
+        }
+
+        private List<ChassisCandidate> result() throws ExecutionException {
+            if (null != error) {
+                throw new ExecutionException(error);
+            }
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            return front.toList();
+        }
+    }
+}
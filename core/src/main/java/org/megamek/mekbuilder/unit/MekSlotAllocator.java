@@ -0,0 +1,376 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import org.megamek.mekbuilder.component.*;
+
+import java.util.*;
+
+/**
+ * Assigns locations to all the mounts on a Mek that need critical slots but have not been allocated.
+ * Components that are already allocated and those with fixed locations are left in place, and the
+ * rest are fitted into the remaining space of each location as given by {@link MekBuild#slotsInLocation(UnitLocation)}.
+ *
+ * <p>A mount that is not {@link Component#spreadable() spreadable} is placed whole in a single permitted
+ * location. Spreadable components such as ferro-fibrous armor and endo steel structure are placed one
+ * slot at a time, and heat sinks and jump jets one item at a time. No location can have more than the
+ * number of {@link ComponentSwitch#LOCATION_EXCLUSIVE location exclusive} components of the same type
+ * that the component allows.</p>
+ *
+ * <p>The search places the largest and most constrained pieces first, trying the location with the
+ * least space that can hold each one. After each placement it checks that the space in every set of
+ * permitted locations is enough for the pieces that are restricted to them, and it backtracks when
+ * that fails. Pieces that are interchangeable are placed in location order so the same layout is not
+ * tried more than once, and states that have already failed are remembered.</p>
+ */
+public class MekSlotAllocator {
+
+    /**
+     * The default maximum number of placements to try before giving up
+     */
+    public static final long DEFAULT_NODE_LIMIT = 1_000_000;
+
+    private final MekBuild mek;
+    private long nodeLimit = DEFAULT_NODE_LIMIT;
+    private long nodeCount;
+
+    public MekSlotAllocator(MekBuild mek) {
+        this.mek = mek;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     * @param nodeLimit The maximum number of placements to try before giving up
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * @return The number of placements tried by the last call to {@link #allocate()}
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Finds a location for every piece of every mount that has not been allocated and applies it to the unit.
+     *
+     * @return Whether all the mounts could be allocated. If not, the unit is not changed.
+     */
+    public boolean allocate() {
+        nodeCount = 0;
+        final UnitLocation[] locations = mek.getLocationSet().toArray(new UnitLocation[0]);
+        final int[] free = new int[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            free[i] = mek.getFreeSlots(locations[i]);
+        }
+        final List<Mount> mounts = new ArrayList<>(mek.getComponents());
+        mounts.add(mek.getArmorMount());
+
+        final Map<Component, Integer> exclusiveGroups = new HashMap<>();
+        final List<Piece> pieces = new ArrayList<>();
+        for (Mount m : mounts) {
+            final Component c = m.getComponent();
+            if (c.locationExclusive()) {
+                exclusiveGroups.putIfAbsent(c, exclusiveGroups.size());
+            }
+            for (int size : unallocatedPieces(m)) {
+                final int domain = domain(c, size, locations, free);
+                if (0 == domain) {
+                    return false;
+                }
+                pieces.add(new Piece(m, size, domain, exclusiveGroups.getOrDefault(c, -1)));
+            }
+        }
+        if (pieces.isEmpty()) {
+            return true;
+        }
+        final int[][] exclusiveCount = new int[exclusiveGroups.size()][locations.length];
+        final int[] exclusiveLimit = new int[exclusiveGroups.size()];
+        for (Map.Entry<Component, Integer> entry : exclusiveGroups.entrySet()) {
+            final Object limit = entry.getKey().flagValue(ComponentSwitch.LOCATION_EXCLUSIVE);
+            exclusiveLimit[entry.getValue()] = (limit instanceof Integer) ? (Integer) limit : 1;
+        }
+        for (Mount m : mounts) {
+            final Integer group = exclusiveGroups.get(m.getComponent());
+            if ((null != group) && (m.getLocation() != UnitLocation.NO_LOCATION)) {
+                for (int i = 0; i < locations.length; i++) {
+                    if (locations[i] == m.getLocation()) {
+                        exclusiveCount[group][i]++;
+                    }
+                }
+            }
+        }
+
+        // Largest pieces first, then those with the fewest permitted locations
+        pieces.sort(Comparator.comparingInt((Piece p) -> -p.size)
+                .thenComparingInt(p -> Integer.bitCount(p.domain))
+                .thenComparingInt(p -> p.domain)
+                .thenComparing(p -> p.mount.getComponent().getInternalName()));
+        final Search search = new Search(pieces, free, exclusiveCount, exclusiveLimit);
+        if (!search.solve(0, -1)) {
+            return false;
+        }
+        apply(pieces, search.assignment, locations);
+        return true;
+    }
+
+    /**
+     * @return The sizes of the pieces of the mount that still need to be placed
+     */
+    private List<Integer> unallocatedPieces(Mount m) {
+        final Component c = m.getComponent();
+        if (mek.hasFixedSlots(m)) {
+            return Collections.emptyList();
+        }
+        if (!(m instanceof DistributedMount)) {
+            final int slots = m.getComponentSlots();
+            return ((slots > 0) && (m.getLocation() == UnitLocation.NO_LOCATION)) ?
+                    Collections.singletonList(slots) : Collections.emptyList();
+        }
+        int remaining = m.getComponentSlots();
+        for (int slots : ((DistributedMount) m).getLocations().values()) {
+            remaining -= slots;
+        }
+        if (remaining <= 0) {
+            return Collections.emptyList();
+        }
+        int pieceSize = remaining;
+        if (m instanceof CompoundMount) {
+            pieceSize = Math.max(1, (int) Math.ceil(((CompoundMount) m).getSlotsPerItem()));
+        } else if (c.spreadable()) {
+            pieceSize = 1;
+        }
+        final List<Integer> list = new ArrayList<>();
+        for (; remaining >= pieceSize; remaining -= pieceSize) {
+            list.add(pieceSize);
+        }
+        if (remaining > 0) {
+            list.add(remaining);
+        }
+        return list;
+    }
+
+    /**
+     * @return A bit mask of the indices of all locations that permit the component and have room for the piece
+     */
+    private int domain(Component c, int size, UnitLocation[] locations, int[] free) {
+        int domain = 0;
+        for (int i = 0; i < locations.length; i++) {
+            if ((free[i] >= size) && c.locationIsPermitted(locations[i], mek)) {
+                domain |= 1 << i;
+            }
+        }
+        return domain;
+    }
+
+    private void apply(List<Piece> pieces, int[] assignment, UnitLocation[] locations) {
+        final Map<DistributedMount, int[]> distributed = new LinkedHashMap<>();
+        for (int i = 0; i < pieces.size(); i++) {
+            final Mount m = pieces.get(i).mount;
+            if (m instanceof DistributedMount) {
+                distributed.computeIfAbsent((DistributedMount) m, k -> new int[locations.length])[assignment[i]]
+                        += pieces.get(i).size;
+            } else {
+                mek.moveMount(m, locations[assignment[i]]);
+            }
+        }
+        for (Map.Entry<DistributedMount, int[]> entry : distributed.entrySet()) {
+            for (int i = 0; i < locations.length; i++) {
+                if (entry.getValue()[i] > 0) {
+                    entry.getKey().setSlots(locations[i],
+                            entry.getKey().getLocations().getOrDefault(locations[i], 0) + entry.getValue()[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * A part of a mount that must be placed in a single location.
+     */
+    private static class Piece {
+        final Mount mount;
+        final int size;
+        final int domain;
+        final int exclusiveGroup;
+
+        Piece(Mount mount, int size, int domain, int exclusiveGroup) {
+            this.mount = mount;
+            this.size = size;
+            this.domain = domain;
+            this.exclusiveGroup = exclusiveGroup;
+        }
+
+        /**
+         * Pieces are interchangeable if they are the same component and size and can go in the same places.
+         */
+        boolean interchangeable(Piece other) {
+            return (size == other.size) && (domain == other.domain)
+                    && (mount.getComponent() == other.mount.getComponent());
+        }
+    }
+
+    private class Search {
+        private final Piece[] pieces;
+        private final int[] free;
+        private final int[][] exclusiveCount;
+        private final int[] exclusiveLimit;
+        private final int[] assignment;
+        // Distinct domains of the pieces, used for checking that each set of locations has enough room
+        private final int[] domains;
+        // Total size of the pieces with each domain, starting with each piece
+        private final int[][] suffixDemand;
+        private final Set<State> failed = new HashSet<>();
+
+        Search(List<Piece> list, int[] free, int[][] exclusiveCount, int[] exclusiveLimit) {
+            pieces = list.toArray(new Piece[0]);
+            this.free = free;
+            this.exclusiveCount = exclusiveCount;
+            this.exclusiveLimit = exclusiveLimit;
+            assignment = new int[pieces.length];
+            domains = Arrays.stream(pieces).mapToInt(p -> p.domain).distinct().toArray();
+            suffixDemand = new int[pieces.length + 1][domains.length];
+            for (int i = pieces.length - 1; i >= 0; i--) {
+                System.arraycopy(suffixDemand[i + 1], 0, suffixDemand[i], 0, domains.length);
+                for (int d = 0; d < domains.length; d++) {
+                    if ((pieces[i].domain & ~domains[d]) == 0) {
+                        suffixDemand[i][d] += pieces[i].size;
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param index   The index of the next piece to place
+         * @param minLoc  The lowest location index allowed for the piece, to avoid trying the same layout of
+         *                interchangeable pieces in a different order
+         * @return        Whether all the remaining pieces could be placed
+         */
+        boolean solve(int index, int minLoc) {
+            if (index == pieces.length) {
+                return true;
+            }
+            if (++nodeCount > nodeLimit) {
+                return false;
+            }
+            if (!hasRoom(index)) {
+                return false;
+            }
+            final State state = new State(index, minLoc, free, exclusiveCount);
+            if (failed.contains(state)) {
+                return false;
+            }
+            final Piece piece = pieces[index];
+            final boolean nextInterchangeable = (index + 1 < pieces.length)
+                    && piece.interchangeable(pieces[index + 1]);
+            for (int loc : candidates(piece, minLoc)) {
+                free[loc] -= piece.size;
+                if (piece.exclusiveGroup >= 0) {
+                    exclusiveCount[piece.exclusiveGroup][loc]++;
+                }
+                assignment[index] = loc;
+                final boolean solved = solve(index + 1, nextInterchangeable ? loc : -1);
+                free[loc] += piece.size;
+                if (piece.exclusiveGroup >= 0) {
+                    exclusiveCount[piece.exclusiveGroup][loc]--;
+                }
+                if (solved) {
+                    return true;
+                }
+                if (nodeCount > nodeLimit) {
+                    return false;
+                }
+            }
+            failed.add(state);
+            return false;
+        }
+
+        /**
+         * Checks that the remaining pieces restricted to each set of locations do not need more room than
+         * those locations have.
+         */
+        private boolean hasRoom(int index) {
+            for (int d = 0; d < domains.length; d++) {
+                if (suffixDemand[index][d] > 0) {
+                    int capacity = 0;
+                    for (int mask = domains[d]; mask != 0; mask &= mask - 1) {
+                        capacity += free[Integer.numberOfTrailingZeros(mask)];
+                    }
+                    if (capacity < suffixDemand[index][d]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return The locations that can hold the piece, with the least space first
+         */
+        private List<Integer> candidates(Piece piece, int minLoc) {
+            final List<Integer> list = new ArrayList<>();
+            for (int mask = piece.domain; mask != 0; mask &= mask - 1) {
+                final int loc = Integer.numberOfTrailingZeros(mask);
+                if ((loc >= minLoc) && (free[loc] >= piece.size)
+                        && ((piece.exclusiveGroup < 0)
+                            || (exclusiveCount[piece.exclusiveGroup][loc] < exclusiveLimit[piece.exclusiveGroup]))) {
+                    list.add(loc);
+                }
+            }
+            list.sort(Comparator.comparingInt(loc -> free[loc]));
+            return list;
+        }
+    }
+
+    /**
+     * The values that determine whether the remaining pieces can be placed.
+     */
+    private static final class State {
+        private final int index;
+        private final int minLoc;
+        private final int[] free;
+        private final int[] exclusive;
+
+        State(int index, int minLoc, int[] free, int[][] exclusiveCount) {
+            this.index = index;
+            this.minLoc = minLoc;
+            this.free = free.clone();
+            exclusive = Arrays.stream(exclusiveCount).flatMapToInt(Arrays::stream).toArray();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) {
+                return false;
+            }
+            final State other = (State) o;
+            return (index == other.index) && (minLoc == other.minLoc)
+                    && Arrays.equals(free, other.free) && Arrays.equals(exclusive, other.exclusive);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * (31 * index + minLoc) + Arrays.hashCode(free)) * 31 + Arrays.hashCode(exclusive);
+        }
+    }
+}
@@ -27,7 +27,12 @@ import org.megamek.mekbuilder.tech.TechBase;
 import org.megamek.mekbuilder.tech.UnitConstructionOption;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -36,7 +41,28 @@ import java.util.Set;
 
 public abstract class UnitBuild {
 
+    /**
+     * Totals over all the mounts that are cached until the next modification to the unit.
+     */
+    private enum Aggregate {
+        BUILD_WEIGHT, WEAPON_TONNAGE, ENERGY_WEAPON_TONNAGE, TC_LINKED_TONNAGE,
+        MOVEMENT_HEAT, MAX_WEAPON_HEAT, HEAT_DISSIPATION;
+
+        private static final int COUNT = values().length;
+    }
+
     private final List<Mount> components = new ArrayList<>();
+    private long revision;
+    private final double[] aggregates = new double[Aggregate.COUNT];
+    private final long[] aggregateRevisions = new long[Aggregate.COUNT];
+    private BitSet installedIncompatible;
+    private long installedIncompatibleRevision = -1;
+    private volatile UnitBuildSnapshot snapshot;
+    // Slots occupied in each location, indexed by UnitLocation ordinal
+    private final int[] occupiedSlots = new int[UnitLocation.values().length];
+    private long occupiedSlotsRevision = -1;
+    // Whether any mount's slots depend on the other mounts, which prevents incremental updates
+    private boolean occupancyMountDependent;
     private UnitConstructionOption baseConstructionOption;
 
     private String chassis = "";
@@ -49,10 +75,181 @@ public abstract class UnitBuild {
 
     protected UnitBuild(UnitConstructionOption option) {
         this.baseConstructionOption = option;
+        Arrays.fill(aggregateRevisions, -1L);
     }
 
+    /**
+     * Creates a copy of another unit. Each mount is copied with {@link Mount#copyTo(UnitBuild)} so the
+     * copy can be changed without affecting the original. Since nothing has changed, the cached totals
+     * of the original remain valid for the copy.
+     *
+     * @param other The unit to copy
+     */
+    protected UnitBuild(UnitBuild other) {
+        for (Mount m : other.components) {
+            components.add(m.copyTo(this));
+        }
+        revision = other.revision;
+        System.arraycopy(other.aggregates, 0, aggregates, 0, aggregates.length);
+        System.arraycopy(other.aggregateRevisions, 0, aggregateRevisions, 0, aggregateRevisions.length);
+        // The set is replaced rather than modified when it is recalculated, so it can be shared
+        installedIncompatible = other.installedIncompatible;
+        installedIncompatibleRevision = other.installedIncompatibleRevision;
+        System.arraycopy(other.occupiedSlots, 0, occupiedSlots, 0, occupiedSlots.length);
+        occupiedSlotsRevision = other.occupiedSlotsRevision;
+        occupancyMountDependent = other.occupancyMountDependent;
+        baseConstructionOption = other.baseConstructionOption;
+        chassis = other.chassis;
+        model = other.model;
+        source = other.source;
+        year = other.year;
+        techBase = other.techBase;
+        faction = other.faction;
+        tonnage = other.tonnage;
+    }
+
+    /**
+     * @return An unmodifiable view of the mounts on the unit. Use {@link #addMount(Mount)} and
+     *         {@link #removeMount(Mount)} to change them.
+     */
     public List<Mount> getComponents() {
-        return components;
+        return Collections.unmodifiableList(components);
+    }
+
+    /**
+     * @return The mounts on the unit together with those that are not listed by {@link #getComponents()},
+     *         such as armor on a Mek
+     */
+    public List<Mount> getAllMounts() {
+        final Collection<Mount> additional = getAdditionalSlotMounts();
+        if (additional.isEmpty()) {
+            return getComponents();
+        }
+        final List<Mount> list = new ArrayList<>(components.size() + additional.size());
+        list.addAll(components);
+        list.addAll(additional);
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * The revision is incremented by every change to the unit or any of its mounts, so two calls that return
+     * the same value indicate that nothing has changed in between.
+     *
+     * @return The current revision of the unit
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Notifies the unit that something that can affect calculated values has changed. This is called by
+     * the unit's setters and by its mounts, and invalidates any cached totals.
+     */
+    public void markModified() {
+        revision++;
+    }
+
+    /**
+     * Captures the current state of the unit and publishes it so it can be read by other threads using
+     * {@link #getPublishedSnapshot()}. Like the rest of the unit this must be called from the thread that
+     * is editing the unit. If nothing has changed since the last snapshot, the last one is returned.
+     *
+     * @return An immutable snapshot of the unit's current values
+     */
+    public UnitBuildSnapshot snapshot() {
+        UnitBuildSnapshot current = snapshot;
+        if ((null == current) || (current.getRevision() != revision)) {
+            current = new UnitBuildSnapshot(this);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * Finds the snapshot most recently created by {@link #snapshot()}. This is safe to call from any thread
+     * while the unit is being edited; the values will be those at the time the snapshot was created.
+     *
+     * @return The most recently published snapshot, or {@code null} if one has not been created
+     */
+    public @Nullable UnitBuildSnapshot getPublishedSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return A hash of all the values that affect the unit's calculated values
+     * @see DesignFingerprint
+     */
+    public DesignFingerprint fingerprint() {
+        return DesignFingerprint.of(this);
+    }
+
+    /**
+     * Adds the values that affect the unit's calculated values to a fingerprint. Subclasses that have
+     * additional values should add them after calling this method.
+     *
+     * @param builder Collects the values
+     */
+    protected void fingerprint(DesignFingerprint.Builder builder) {
+        builder.add(baseConstructionOption.getKey())
+                .add(getTonnage())
+                .add(components.size());
+        for (Mount m : components) {
+            m.fingerprint(builder);
+        }
+    }
+
+    /**
+     * Looks up a total, computing it if anything has changed since it was last computed. Computing one
+     * total may require another, such as a targeting computer that needs the tonnage of linked weapons.
+     */
+    private double aggregate(Aggregate aggregate) {
+        final int i = aggregate.ordinal();
+        if (aggregateRevisions[i] != revision) {
+            final long rev = revision;
+            aggregates[i] = computeAggregate(aggregate);
+            aggregateRevisions[i] = rev;
+        }
+        return aggregates[i];
+    }
+
+    private double computeAggregate(Aggregate aggregate) {
+        double total = 0;
+        for (int i = 0; i < components.size(); i++) {
+            final Mount m = components.get(i);
+            final Component c = m.getComponent();
+            switch (aggregate) {
+                case BUILD_WEIGHT:
+                    total += m.getComponentWeight();
+                    break;
+                case WEAPON_TONNAGE:
+                    if (c.getType().equals(ComponentType.HEAVY_WEAPON)
+                            || c.getType().equals(ComponentType.INF_WEAPON)) {
+                        total += m.getComponentWeight();
+                    }
+                    break;
+                case ENERGY_WEAPON_TONNAGE:
+                    if (c.getType().equals(ComponentType.HEAVY_WEAPON)
+                            && ((HeavyWeapon) c).hasFlag(WeaponFlag.DIRECT_FIRE_ENERGY)) {
+                        total += m.getComponentWeight();
+                    }
+                    break;
+                case TC_LINKED_TONNAGE:
+                    if (c.hasFlag(ComponentSwitch.TC_LINKABLE)) {
+                        total += m.getComponentWeight();
+                    }
+                    break;
+                case MOVEMENT_HEAT:
+                    total += c.movementHeat(getUnitType());
+                    break;
+                case MAX_WEAPON_HEAT:
+                    total += m.maxWeaponHeat();
+                    break;
+                case HEAT_DISSIPATION:
+                    total += m.heatDissipation();
+                    break;
+            }
+        }
+        return total;
     }
 
     /**
@@ -61,7 +258,7 @@ public abstract class UnitBuild {
      * @return The current build weight
      */
     public double buildWeight() {
-        return components.stream().mapToDouble(Mount::getComponentWeight).sum();
+        return aggregate(Aggregate.BUILD_WEIGHT);
     }
 
     public boolean isBiped() {
@@ -94,6 +291,7 @@ public abstract class UnitBuild {
             throw new IllegalArgumentException("Illegal change of unit type.");
         }
         baseConstructionOption = option;
+        markModified();
     }
 
     public UnitType getUnitType() {
@@ -114,6 +312,7 @@ public abstract class UnitBuild {
      */
     public void setChassis(String chassis) {
         this.chassis = chassis;
+        markModified();
     }
 
     /**
@@ -130,6 +329,7 @@ public abstract class UnitBuild {
      */
     public void setModel(String model) {
         this.model = model;
+        markModified();
     }
 
     /**
@@ -146,6 +346,7 @@ public abstract class UnitBuild {
      */
     public void setSource(String source) {
         this.source = source;
+        markModified();
     }
 
     /**
@@ -162,6 +363,7 @@ public abstract class UnitBuild {
      */
     public void setYear(int year) {
         this.year = year;
+        markModified();
     }
 
     /**
@@ -178,6 +380,7 @@ public abstract class UnitBuild {
      */
     public void setTechBase(TechBase techBase) {
         this.techBase = techBase;
+        markModified();
     }
 
     /**
@@ -197,6 +400,7 @@ public abstract class UnitBuild {
      */
     public void setFaction(@Nullable Faction faction) {
         this.faction = faction;
+        markModified();
     }
 
     /**
@@ -215,6 +419,7 @@ public abstract class UnitBuild {
      */
     public void setTonnage(double tonnage) {
         this.tonnage = tonnage;
+        markModified();
     }
 
     /**
@@ -241,10 +446,7 @@ public abstract class UnitBuild {
      * @return The total tonnage of all installed weapons
      */
     public double getWeaponTonnage() {
-        return getComponents().stream()
-                .filter(m -> m.getComponent().getType().equals(ComponentType.HEAVY_WEAPON)
-                    || m.getComponent().getType().equals(ComponentType.INF_WEAPON))
-                .mapToDouble(Mount::getComponentWeight).sum();
+        return aggregate(Aggregate.WEAPON_TONNAGE);
     }
 
     /**
@@ -262,19 +464,14 @@ public abstract class UnitBuild {
      * @return The total tonnage of all installed energy weapons
      */
     public double getEnergyWeaponTonnage() {
-        return getComponents().stream()
-                .filter(m -> m.getComponent().getType().equals(ComponentType.HEAVY_WEAPON)
-                        && ((HeavyWeapon) m.getComponent()).hasFlag(WeaponFlag.DIRECT_FIRE_ENERGY))
-                .mapToDouble(Mount::getComponentWeight).sum();
+        return aggregate(Aggregate.ENERGY_WEAPON_TONNAGE);
     }
 
     /**
      * @return The total tonnage of weapons that can be linked to a targeting computer.
      */
     public double getTCLinkedTonnage() {
-        return getComponents().stream()
-                .filter(m -> m.getComponent().hasFlag(ComponentSwitch.TC_LINKABLE))
-                .mapToDouble(Mount::getComponentWeight).sum();
+        return aggregate(Aggregate.TC_LINKED_TONNAGE);
     }
 
     /**
@@ -300,6 +497,24 @@ public abstract class UnitBuild {
      */
     abstract public int getMaxArmorPoints(UnitLocation loc);
 
+    /**
+     * @param loc A location on the unit
+     * @return    The number of armor points allocated to the front of the location
+     */
+    abstract public int getArmorPoints(UnitLocation loc);
+
+    /**
+     * @param loc A location on the unit
+     * @return    The number of armor points allocated to the rear of the location
+     */
+    abstract public int getRearArmorPoints(UnitLocation loc);
+
+    /**
+     * @param loc A location on the unit
+     * @return    The total number of slots in the location. If the location does not exist on the unit, returns 0.
+     */
+    abstract public int slotsInLocation(UnitLocation loc);
+
     /**
      * @return The unit's weight class, based on declared weight.
      */
@@ -452,6 +667,22 @@ public abstract class UnitBuild {
                 .getComponent(ComponentKeys.HEAT_SINK_SINGLE);
     }
 
+    /**
+     * Finds the first component of a type that is flagged as the default for its type and can be
+     * installed on this unit.
+     *
+     * @param type The type of component
+     * @return     The default component, or {@code null} if there is none for this unit
+     */
+    protected @Nullable Component findDefaultComponent(ComponentType type) {
+        for (Component c : ComponentLibrary.getInstance().getComponentsOfType(type, getUnitType())) {
+            if (c.isDefault() && allowed(c)) {
+                return c;
+            }
+        }
+        return null;
+    }
+
     /**
      * Determines whether the component is allow on the unit. By default this checks
      * unit type, but subclasses will apply additional restrictions.
@@ -469,6 +700,13 @@ public abstract class UnitBuild {
      * @return          Whether the component is compatible
      */
     public boolean compatibleWithInstalled(Component component) {
+        final ComponentLibrary library = ComponentLibrary.getInstance();
+        final int ordinal = library.getOrdinal(component);
+        // Other mounts of the same component are skipped, so a component that is incompatible with itself
+        // cannot be checked against the combined set.
+        if ((ordinal >= 0) && !library.incompatible(component, component)) {
+            return !installedIncompatibility().get(ordinal);
+        }
         for (Mount m : getComponents()) {
             if (!m.getComponent().equals(component)
                     && m.getComponent().incompatibleWith(component)) {
@@ -478,6 +716,34 @@ public abstract class UnitBuild {
         return true;
     }
 
+    /**
+     * Finds all the components in the library that conflict with something installed on the unit, which can be
+     * combined with other sets of component ordinals such as {@link TechAvailabilityIndex#legal(ITechFilter)}.
+     * Unlike {@link #compatibleWithInstalled(Component)}, this includes an installed component that is
+     * incompatible with itself.
+     *
+     * @return A new set containing the ordinals of the components that are incompatible with the installed components
+     */
+    public BitSet incompatibleWithInstalled() {
+        return (BitSet) installedIncompatibility().clone();
+    }
+
+    /**
+     * @return The ordinals of all components that are incompatible with at least one installed component,
+     *         recalculated only when the unit has changed
+     */
+    private BitSet installedIncompatibility() {
+        if (installedIncompatibleRevision != revision) {
+            final List<Component> installed = new ArrayList<>(components.size());
+            for (Mount m : components) {
+                installed.add(m.getComponent());
+            }
+            installedIncompatible = ComponentLibrary.getInstance().incompatibleWithAny(installed);
+            installedIncompatibleRevision = revision;
+        }
+        return installedIncompatible;
+    }
+
     /**
      * Creates the correct {@link Mount} type for the component. The mount is not added to the unit.
      *
@@ -525,7 +791,28 @@ public abstract class UnitBuild {
      * @param m The equipment mount to add
      */
     public void addMount(Mount m) {
+        final boolean current = canUpdateOccupancy(m);
         components.add(m);
+        markModified();
+        if (current) {
+            updateOccupancy(m, 1);
+        }
+    }
+
+    /**
+     * Adds the equipment mount at a position in the list of mounts, such as when restoring a mount
+     * that was removed.
+     *
+     * @param index The position in the list of mounts
+     * @param m     The equipment mount to add
+     */
+    void insertMount(int index, Mount m) {
+        final boolean current = canUpdateOccupancy(m);
+        components.add(index, m);
+        markModified();
+        if (current) {
+            updateOccupancy(m, 1);
+        }
     }
 
     /**
@@ -535,7 +822,136 @@ public abstract class UnitBuild {
      * @return  Whether the mount was found and removed
      */
     public boolean removeMount(Mount m) {
-        return components.remove(m);
+        final boolean current = canUpdateOccupancy(m);
+        if (components.remove(m)) {
+            markModified();
+            if (current) {
+                updateOccupancy(m, -1);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves a mount to a new location. This has the same effect as {@link Mount#setLocation(UnitLocation)},
+     * but updates the count of occupied slots in each location without recounting all the mounts.
+     *
+     * @param m        The mount to move
+     * @param location The new location
+     */
+    public void moveMount(Mount m, UnitLocation location) {
+        final boolean current = isOccupancyCurrent();
+        if (current) {
+            addOccupancy(m, -1);
+        }
+        m.setLocation(location);
+        if (current) {
+            updateOccupancy(m, 1);
+        }
+    }
+
+    /**
+     * The number of slots occupied in each location is updated as mounts are added, removed, or moved
+     * using {@link #addMount(Mount)}, {@link #removeMount(Mount)}, and {@link #moveMount(Mount, UnitLocation)}.
+     * Any other change to the unit causes all the mounts to be counted again the next time it is needed, as does
+     * adding or removing a mount when the unit has a component whose slots depend on the other mounts.
+     *
+     * @param loc A location on the unit
+     * @return    The number of slots in the location that are occupied by mounts
+     */
+    public int getOccupiedSlots(UnitLocation loc) {
+        if (!isOccupancyCurrent()) {
+            Arrays.fill(occupiedSlots, 0);
+            occupancyMountDependent = false;
+            for (int i = 0; i < components.size(); i++) {
+                addOccupancy(components.get(i), 1);
+                occupancyMountDependent |= components.get(i).getComponent().slotsDependOnMounts();
+            }
+            for (Mount m : getAdditionalSlotMounts()) {
+                addOccupancy(m, 1);
+                occupancyMountDependent |= m.getComponent().slotsDependOnMounts();
+            }
+            occupiedSlotsRevision = revision;
+        }
+        return occupiedSlots[loc.ordinal()];
+    }
+
+    /**
+     * @param loc A location on the unit
+     * @return    The number of unoccupied slots in the location. This is negative if the location is overfilled.
+     */
+    public int getFreeSlots(UnitLocation loc) {
+        return slotsInLocation(loc) - getOccupiedSlots(loc);
+    }
+
+    /**
+     * Mounts that occupy slots but are not included in {@link #getComponents()}, such as armor on a Mek.
+     *
+     * @return The additional mounts
+     */
+    protected Collection<Mount> getAdditionalSlotMounts() {
+        return Collections.emptyList();
+    }
+
+    private boolean isOccupancyCurrent() {
+        return occupiedSlotsRevision == revision;
+    }
+
+    /**
+     * Adding or removing a mount can change the size of mounts whose slots depend on the other mounts, such as
+     * a targeting computer, so the table is only adjusted for the one mount if there are none of those.
+     */
+    private boolean canUpdateOccupancy(Mount m) {
+        return isOccupancyCurrent() && !occupancyMountDependent && !m.getComponent().slotsDependOnMounts();
+    }
+
+    /**
+     * Adjusts the occupied slots for a mount after a change and marks the table as matching the
+     * current revision.
+     */
+    private void updateOccupancy(Mount m, int sign) {
+        addOccupancy(m, sign);
+        occupiedSlotsRevision = revision;
+    }
+
+    private void addOccupancy(Mount m, int sign) {
+        if ((m instanceof DistributedMount) && !((DistributedMount) m).getLocations().isEmpty()) {
+            for (Map.Entry<UnitLocation, Integer> entry : ((DistributedMount) m).getLocations().entrySet()) {
+                occupiedSlots[entry.getKey().ordinal()] += sign * entry.getValue();
+            }
+        } else if (hasFixedSlots(m)) {
+            // Fixed components such as the engine and cockpit occupy their slots without being assigned
+            for (UnitLocation loc : getLocationSet()) {
+                occupiedSlots[loc.ordinal()] += sign * fixedSlots(m, loc);
+            }
+        } else if (m.getLocation() != UnitLocation.NO_LOCATION) {
+            occupiedSlots[m.getLocation().ordinal()] += sign * m.getComponentSlots();
+        }
+    }
+
+    /**
+     * @return The number of slots the mount requires in a location regardless of where it is assigned
+     */
+    int fixedSlots(Mount m, UnitLocation loc) {
+        return (m instanceof DistributedMount) ?
+                ((DistributedMount) m).fixedSlots(loc) : m.getComponent().fixedSlots(this, loc);
+    }
+
+    /**
+     * A component can have fixed locations on some unit types and not others.
+     *
+     * @return Whether the mount requires slots in any of this unit's locations regardless of where it is assigned
+     */
+    boolean hasFixedSlots(Mount m) {
+        if (m.getComponent().locationFixed()) {
+            for (UnitLocation loc : getLocationSet()) {
+                if (fixedSlots(m, loc) > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     /**
@@ -545,9 +961,7 @@ public abstract class UnitBuild {
      * @return The unit's movement heat
      */
     public int movementHeat() {
-        return getComponents().stream()
-                .mapToInt(m -> m.getComponent().movementHeat(getUnitType()))
-                .sum();
+        return (int) aggregate(Aggregate.MOVEMENT_HEAT);
     }
 
     /**
@@ -556,9 +970,7 @@ public abstract class UnitBuild {
      * @return The maximum weapon heat
      */
     public int maxWeaponHeat() {
-        return getComponents().stream()
-                .mapToInt(Mount::maxWeaponHeat)
-                .sum();
+        return (int) aggregate(Aggregate.MAX_WEAPON_HEAT);
     }
 
     /**
@@ -576,7 +988,6 @@ public abstract class UnitBuild {
      * @return The amount of heat that can be dissipated by the unit per round.
      */
     public int heatDissipation() {
-        return getComponents().stream()
-                .mapToInt(Mount::heatDissipation).sum();
+        return (int) aggregate(Aggregate.HEAT_DISSIPATION);
     }
 }
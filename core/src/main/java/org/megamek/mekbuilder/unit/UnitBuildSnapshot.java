@@ -0,0 +1,273 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.component.Component;
+import org.megamek.mekbuilder.component.Mount;
+import org.megamek.mekbuilder.tech.Faction;
+import org.megamek.mekbuilder.tech.TechBase;
+import org.megamek.mekbuilder.tech.UnitConstructionOption;
+
+import java.util.*;
+
+/**
+ * An immutable copy of the calculated values of a {@link UnitBuild} at a single revision. Snapshots
+ * are created by {@link UnitBuild#snapshot()} on the thread that edits the unit, and can be read from
+ * any thread without locking, such as by summary displays, exporters, and validators.
+ */
+public final class UnitBuildSnapshot {
+
+    private static final int LOCATION_COUNT = UnitLocation.values().length;
+
+    private final long revision;
+    private final UnitConstructionOption constructionOption;
+    private final String chassis;
+    private final String model;
+    private final int year;
+    private final TechBase techBase;
+    private final Faction faction;
+    private final boolean omni;
+    private final UnitWeightClass weightClass;
+    private final double tonnage;
+    private final double buildWeight;
+    private final double structureTonnage;
+    private final double armorTonnage;
+    private final double weaponTonnage;
+    private final double totalArmorPoints;
+    private final int walkMP;
+    private final int runMP;
+    private final int secondaryMP;
+    private final int movementHeat;
+    private final int maxWeaponHeat;
+    private final int heatDissipation;
+    private final List<Component> components;
+    private final Set<UnitLocation> locations;
+    // Values for each location, indexed by UnitLocation ordinal
+    private final int[] slots = new int[LOCATION_COUNT];
+    private final int[] usedSlots = new int[LOCATION_COUNT];
+    private final int[] armorPoints = new int[LOCATION_COUNT];
+    private final int[] rearArmorPoints = new int[LOCATION_COUNT];
+    private final int[] maxArmorPoints = new int[LOCATION_COUNT];
+
+    UnitBuildSnapshot(UnitBuild unit) {
+        revision = unit.getRevision();
+        constructionOption = unit.getBaseConstructionOption();
+        chassis = unit.getChassis();
+        model = unit.getModel();
+        year = unit.getYear();
+        techBase = unit.getTechBase();
+        faction = unit.getFaction();
+        omni = unit.isOmni();
+        weightClass = unit.getWeightClass();
+        tonnage = unit.getTonnage();
+        buildWeight = unit.buildWeight();
+        structureTonnage = unit.getStructureTonnage();
+        armorTonnage = unit.getArmorTonnage();
+        weaponTonnage = unit.getWeaponTonnage();
+        totalArmorPoints = unit.getTotalArmorPoints();
+        walkMP = unit.getWalkMP();
+        runMP = unit.getRunMP();
+        secondaryMP = unit.getSecondaryMP();
+        movementHeat = unit.movementHeat();
+        maxWeaponHeat = unit.maxWeaponHeat();
+        heatDissipation = unit.heatDissipation();
+
+        final List<Component> list = new ArrayList<>(unit.getComponents().size());
+        for (Mount m : unit.getComponents()) {
+            list.add(m.getComponent());
+        }
+        components = Collections.unmodifiableList(list);
+        final Set<UnitLocation> locs = EnumSet.noneOf(UnitLocation.class);
+        locs.addAll(unit.getLocationSet());
+        locations = Collections.unmodifiableSet(locs);
+        for (UnitLocation loc : locations) {
+            final int i = loc.ordinal();
+            slots[i] = unit.slotsInLocation(loc);
+            usedSlots[i] = unit.getOccupiedSlots(loc);
+            if (loc.isArmored()) {
+                armorPoints[i] = unit.getArmorPoints(loc);
+                maxArmorPoints[i] = unit.getMaxArmorPoints(loc);
+            }
+            if (loc.hasRearArmor()) {
+                rearArmorPoints[i] = unit.getRearArmorPoints(loc);
+            }
+        }
+    }
+
+    /**
+     * @return The revision of the unit when the snapshot was created
+     * @see UnitBuild#getRevision()
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    public UnitConstructionOption getConstructionOption() {
+        return constructionOption;
+    }
+
+    public UnitType getUnitType() {
+        return constructionOption.getUnitType();
+    }
+
+    public String getChassis() {
+        return chassis;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public TechBase getTechBase() {
+        return techBase;
+    }
+
+    public @Nullable Faction getFaction() {
+        return faction;
+    }
+
+    public boolean isOmni() {
+        return omni;
+    }
+
+    public UnitWeightClass getWeightClass() {
+        return weightClass;
+    }
+
+    /**
+     * @return The declared weight of the unit
+     */
+    public double getTonnage() {
+        return tonnage;
+    }
+
+    /**
+     * @return The weight of all installed components
+     */
+    public double getBuildWeight() {
+        return buildWeight;
+    }
+
+    /**
+     * @return The declared tonnage less the build weight
+     */
+    public double getFreeTonnage() {
+        return tonnage - buildWeight;
+    }
+
+    public double getStructureTonnage() {
+        return structureTonnage;
+    }
+
+    public double getArmorTonnage() {
+        return armorTonnage;
+    }
+
+    public double getWeaponTonnage() {
+        return weaponTonnage;
+    }
+
+    public double getTotalArmorPoints() {
+        return totalArmorPoints;
+    }
+
+    public int getWalkMP() {
+        return walkMP;
+    }
+
+    public int getRunMP() {
+        return runMP;
+    }
+
+    public int getSecondaryMP() {
+        return secondaryMP;
+    }
+
+    public int getMovementHeat() {
+        return movementHeat;
+    }
+
+    public int getMaxWeaponHeat() {
+        return maxWeaponHeat;
+    }
+
+    public int getHeatDissipation() {
+        return heatDissipation;
+    }
+
+    /**
+     * @return The components of all the unit's mounts, in the order they were mounted
+     */
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    /**
+     * @return The locations on the unit
+     */
+    public Set<UnitLocation> getLocationSet() {
+        return locations;
+    }
+
+    /**
+     * @param loc A location on the unit
+     * @return    The total number of slots in the location, or 0 if the location does not exist on the unit
+     */
+    public int getSlots(UnitLocation loc) {
+        return slots[loc.ordinal()];
+    }
+
+    /**
+     * @param loc A location on the unit
+     * @return    The number of slots in the location that are occupied by mounts
+     */
+    public int getUsedSlots(UnitLocation loc) {
+        return usedSlots[loc.ordinal()];
+    }
+
+    /**
+     * @param loc A location on the unit
+     * @return    The number of unoccupied slots in the location. This is negative if the location is overfilled.
+     */
+    public int getFreeSlots(UnitLocation loc) {
+        return slots[loc.ordinal()] - usedSlots[loc.ordinal()];
+    }
+
+    public int getArmorPoints(UnitLocation loc) {
+        return armorPoints[loc.ordinal()];
+    }
+
+    public int getRearArmorPoints(UnitLocation loc) {
+        return rearArmorPoints[loc.ordinal()];
+    }
+
+    public int getMaxArmorPoints(UnitLocation loc) {
+        return maxArmorPoints[loc.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        return chassis + " " + model + " (rev " + revision + "): " + buildWeight + "/" + tonnage + " tons";
+    }
+}
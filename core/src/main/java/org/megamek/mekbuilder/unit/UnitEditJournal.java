@@ -0,0 +1,413 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.component.*;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Records changes to units so they can be undone and redone. Each change is stored as an {@link Edit}
+ * that holds only the values needed to reverse it, so undoing or redoing costs the same as the original
+ * change regardless of the size of the unit. Repeated changes to the same value within a short interval,
+ * such as those made by a spinner, are combined into a single edit. The number of edits that can be undone
+ * is limited, and the oldest are dropped once the limit is reached.
+ *
+ * Edits should be made through the journal's methods rather than directly on the unit, and the journal
+ * must only be used from the thread that edits the unit.
+ */
+public class UnitEditJournal {
+
+    public static final int DEFAULT_DEPTH = 100;
+    public static final long DEFAULT_COALESCE_MILLIS = 500;
+
+    /**
+     * A change that has already been applied to a unit.
+     */
+    public interface Edit {
+        /**
+         * Restores the values from before the change.
+         */
+        void undo();
+
+        /**
+         * Applies the change again after it has been undone.
+         */
+        void redo();
+
+        /**
+         * Attempts to combine a change that immediately follows this one into this edit, so a single
+         * undo reverses both.
+         *
+         * @param next The following edit
+         * @return     Whether the following edit was combined into this one
+         */
+        default boolean merge(Edit next) {
+            return false;
+        }
+    }
+
+    private final Deque<Edit> undoStack = new ArrayDeque<>();
+    private final Deque<Edit> redoStack = new ArrayDeque<>();
+    private final int maxDepth;
+    private final long coalesceNanos;
+    private final LongSupplier clock;
+    private long lastRecorded;
+    private boolean mergeAllowed;
+
+    /**
+     * Creates a journal with the default depth and coalescing interval
+     */
+    public UnitEditJournal() {
+        this(DEFAULT_DEPTH, DEFAULT_COALESCE_MILLIS);
+    }
+
+    /**
+     * @param maxDepth       The maximum number of edits that can be undone
+     * @param coalesceMillis Changes to the same value that are no further apart than this are combined into
+     *                       a single edit. A value of zero disables coalescing.
+     */
+    public UnitEditJournal(int maxDepth, long coalesceMillis) {
+        this(maxDepth, coalesceMillis, System::nanoTime);
+    }
+
+    UnitEditJournal(int maxDepth, long coalesceMillis, LongSupplier clock) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("History depth must be at least one");
+        }
+        this.maxDepth = maxDepth;
+        this.coalesceNanos = TimeUnit.MILLISECONDS.toNanos(coalesceMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Adds a change that has already been applied to the history. Anything that was undone can no longer
+     * be redone.
+     *
+     * @param edit The change
+     */
+    public void record(Edit edit) {
+        redoStack.clear();
+        final long now = clock.getAsLong();
+        final Edit last = undoStack.peekLast();
+        if (mergeAllowed && (null != last) && (coalesceNanos > 0)
+                && (now - lastRecorded <= coalesceNanos) && last.merge(edit)) {
+            lastRecorded = now;
+            return;
+        }
+        undoStack.addLast(edit);
+        while (undoStack.size() > maxDepth) {
+            undoStack.removeFirst();
+        }
+        lastRecorded = now;
+        mergeAllowed = true;
+    }
+
+    /**
+     * Reverses the most recent change.
+     *
+     * @return Whether there was a change to undo
+     */
+    public boolean undo() {
+        final Edit edit = undoStack.pollLast();
+        if (null == edit) {
+            return false;
+        }
+        edit.undo();
+        redoStack.addLast(edit);
+        mergeAllowed = false;
+        return true;
+    }
+
+    /**
+     * Applies the most recently undone change again.
+     *
+     * @return Whether there was a change to redo
+     */
+    public boolean redo() {
+        final Edit edit = redoStack.pollLast();
+        if (null == edit) {
+            return false;
+        }
+        edit.redo();
+        undoStack.addLast(edit);
+        mergeAllowed = false;
+        return true;
+    }
+
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    /**
+     * @return The number of edits that can currently be undone
+     */
+    public int getUndoCount() {
+        return undoStack.size();
+    }
+
+    /**
+     * @return The number of edits that can currently be redone
+     */
+    public int getRedoCount() {
+        return redoStack.size();
+    }
+
+    /**
+     * @return The maximum number of edits that are kept
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Removes all history.
+     */
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        mergeAllowed = false;
+    }
+
+    /**
+     * Changes a value and records the change. Changes to the same value of the same object are combined
+     * if they are made within the coalescing interval.
+     *
+     * @param target   The object that holds the value
+     * @param property Identifies the value within the target
+     * @param getter   Provides the current value
+     * @param setter   Changes the value
+     * @param value    The new value
+     * @param <T>      The type of value
+     */
+    public <T> void set(Object target, Object property, Supplier<T> getter, Consumer<T> setter, T value) {
+        final T previous = getter.get();
+        setter.accept(value);
+        record(new PropertyEdit<>(target, property, setter, previous, value));
+    }
+
+    /**
+     * Changes the tonnage of the unit. Since this can also change the engine to keep the same movement,
+     * undoing restores the previous engine.
+     */
+    public void setTonnage(UnitBuild unit, double tonnage) {
+        final TonnageEdit edit = new TonnageEdit(unit);
+        unit.setTonnage(tonnage);
+        edit.tonnage = tonnage;
+        record(edit);
+    }
+
+    public void setEngineType(MekBuild mek, MVFEngine engine) {
+        set(mek, "engineType", mek::getEngineType, mek::setEngineType, engine);
+    }
+
+    public void setLocation(Mount mount, UnitLocation location) {
+        set(mount, "location", mount::getLocation, loc -> {
+            final UnitBuild unit = mount.getUnit();
+            if (null != unit) {
+                unit.moveMount(mount, loc);
+            } else {
+                mount.setLocation(loc);
+            }
+        }, location);
+    }
+
+    public void setArmorPoints(ArmorMount armor, UnitLocation loc, int points) {
+        set(armor, new LocationKey(loc, false), () -> armor.getArmorPoints(loc),
+                p -> armor.setArmorPoints(loc, p), points);
+    }
+
+    public void setRearArmorPoints(ArmorMount armor, UnitLocation loc, int points) {
+        set(armor, new LocationKey(loc, true), () -> armor.getRearArmorPoints(loc),
+                p -> armor.setRearArmorPoints(loc, p), points);
+    }
+
+    /**
+     * Adds a mount to the unit and records the change.
+     */
+    public void addMount(UnitBuild unit, Mount mount) {
+        unit.addMount(mount);
+        record(new MountEdit(unit, mount, unit.getComponents().size() - 1, true));
+    }
+
+    /**
+     * Removes a mount from the unit and records the change. Undoing the removal restores the mount to the
+     * same position in the unit's list of mounts.
+     *
+     * @return Whether the mount was found and removed
+     */
+    public boolean removeMount(UnitBuild unit, Mount mount) {
+        final int index = unit.getComponents().indexOf(mount);
+        if ((index < 0) || !unit.removeMount(mount)) {
+            return false;
+        }
+        record(new MountEdit(unit, mount, index, false));
+        return true;
+    }
+
+    private static class PropertyEdit<T> implements Edit {
+        private final Object target;
+        private final Object property;
+        private final Consumer<T> setter;
+        private final T previous;
+        private T value;
+
+        PropertyEdit(Object target, Object property, Consumer<T> setter, @Nullable T previous, @Nullable T value) {
+            this.target = target;
+            this.property = property;
+            this.setter = setter;
+            this.previous = previous;
+            this.value = value;
+        }
+
+        @Override
+        public void undo() {
+            setter.accept(previous);
+        }
+
+        @Override
+        public void redo() {
+            setter.accept(value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean merge(Edit next) {
+            if (next instanceof PropertyEdit) {
+                final PropertyEdit<?> other = (PropertyEdit<?>) next;
+                if ((other.target == target) && other.property.equals(property)) {
+                    value = (T) other.value;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class TonnageEdit implements Edit {
+        private final UnitBuild unit;
+        private final double previous;
+        private final Component previousEngine;
+        private final int previousRating;
+        private double tonnage;
+
+        TonnageEdit(UnitBuild unit) {
+            this.unit = unit;
+            previous = unit.getTonnage();
+            if (unit.getEngine() instanceof MekEngineMount) {
+                previousEngine = ((MekEngineMount) unit.getEngine()).getComponent();
+            } else {
+                previousEngine = null;
+            }
+            previousRating = unit.getEngine().getEngineRating();
+        }
+
+        @Override
+        public void undo() {
+            unit.setTonnage(previous);
+            if (null != previousEngine) {
+                final MekEngineMount engine = (MekEngineMount) unit.getEngine();
+                engine.setComponent(previousEngine);
+                engine.setRating(previousRating);
+            }
+        }
+
+        @Override
+        public void redo() {
+            unit.setTonnage(tonnage);
+        }
+
+        @Override
+        public boolean merge(Edit next) {
+            if ((next instanceof TonnageEdit) && (((TonnageEdit) next).unit == unit)) {
+                tonnage = ((TonnageEdit) next).tonnage;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static class MountEdit implements Edit {
+        private final UnitBuild unit;
+        private final Mount mount;
+        private final int index;
+        private final boolean added;
+
+        MountEdit(UnitBuild unit, Mount mount, int index, boolean added) {
+            this.unit = unit;
+            this.mount = mount;
+            this.index = index;
+            this.added = added;
+        }
+
+        @Override
+        public void undo() {
+            if (added) {
+                unit.removeMount(mount);
+            } else {
+                unit.insertMount(index, mount);
+            }
+        }
+
+        @Override
+        public void redo() {
+            if (added) {
+                unit.insertMount(index, mount);
+            } else {
+                unit.removeMount(mount);
+            }
+        }
+    }
+
+    /**
+     * Distinguishes the front and rear armor values of each location.
+     */
+    private static final class LocationKey {
+        private final UnitLocation location;
+        private final boolean rear;
+
+        LocationKey(UnitLocation location, boolean rear) {
+            this.location = location;
+            this.rear = rear;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof LocationKey)
+                    && (((LocationKey) o).location == location)
+                    && (((LocationKey) o).rear == rear);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(location, rear);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.utilities;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Static methods for reading data files directly from the {@link JsonParser} token stream, which
+ * avoids the overhead of databind. The readers follow the same conventions as the databind configuration
+ * used for the data files: null values leave the field's default in place and unknown fields are ignored.
+ */
+public class JsonStreams {
+
+    /**
+     * System property that can be set to {@code false} to read data files using databind instead of
+     * the streaming parser.
+     */
+    public static final String PROP_STREAMING_PARSER = "mekbuilder.streamingJsonParser";
+
+    /**
+     * @return Whether data files should be read using the streaming parser
+     */
+    public static boolean useStreamingParser() {
+        return Boolean.parseBoolean(System.getProperty(PROP_STREAMING_PARSER, "true"));
+    }
+
+    /**
+     * Reads a single value from the parser, which is positioned on the first token of the value.
+     */
+    @FunctionalInterface
+    public interface ValueReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Handles a field of an object. The parser is positioned on the first token of the value, which
+     * is never null.
+     */
+    @FunctionalInterface
+    public interface FieldReader {
+        /**
+         * @param name   The name of the field
+         * @param parser The parser
+         * @return       Whether the field was recognized. If not, the value will be skipped.
+         * @throws IOException If there was an error reading the value
+         */
+        boolean readField(String name, JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Reads an array.
+     *
+     * @param parser The parser, positioned on the start of the array
+     * @param reader Used to read each element of the array
+     * @return       The list of elements
+     * @throws IOException If the current token is not the start of an array, or there is an error reading an element
+     */
+    public static <T> List<T> readArray(JsonParser parser, ValueReader<T> reader) throws IOException {
+        expect(parser, JsonToken.START_ARRAY);
+        final List<T> list = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            list.add(reader.read(parser));
+        }
+        return list;
+    }
+
+    /**
+     * Reads the fields of an object. Fields with a null value and fields that are not recognized
+     * are skipped.
+     *
+     * @param parser The parser, positioned on the start of the object
+     * @param reader Handles each field
+     * @throws IOException If the current token is not the start of an object, or there is an error reading a field
+     */
+    public static void readObject(JsonParser parser, FieldReader reader) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+            if ((token == JsonToken.VALUE_NULL) || !reader.readField(name, parser)) {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    public static <E extends Enum<E>> E readEnum(JsonParser parser, Class<E> enumClass) throws IOException {
+        final String text = parser.getText();
+        try {
+            return Enum.valueOf(enumClass, text);
+        } catch (IllegalArgumentException ex) {
+            throw new JsonParseException(parser, "Unknown " + enumClass.getSimpleName() + " value " + text);
+        }
+    }
+
+    public static <E extends Enum<E>> Set<E> readEnumSet(JsonParser parser, Class<E> enumClass) throws IOException {
+        final Set<E> set = EnumSet.noneOf(enumClass);
+        set.addAll(readArray(parser, p -> readEnum(p, enumClass)));
+        return set;
+    }
+
+    public static <E extends Enum<E>> Map<E, Integer> readEnumIntMap(JsonParser parser, Class<E> enumClass) throws IOException {
+        final Map<E, Integer> map = new EnumMap<>(enumClass);
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final E key = readEnum(parser, enumClass);
+            parser.nextToken();
+            map.put(key, parser.getValueAsInt());
+        }
+        return map;
+    }
+
+    public static List<Double> readDoubleList(JsonParser parser) throws IOException {
+        return readArray(parser, JsonParser::getValueAsDouble);
+    }
+
+    private static void expect(JsonParser parser, JsonToken token) throws IOException {
+        if (parser.currentToken() != token) {
+            throw new JsonParseException(parser, "Expected " + token + " but found " + parser.currentToken());
+        }
+    }
+}
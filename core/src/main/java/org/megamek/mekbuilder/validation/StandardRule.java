@@ -0,0 +1,252 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.validation;
+
+import org.megamek.mekbuilder.component.*;
+import org.megamek.mekbuilder.tech.ITechFilter;
+import org.megamek.mekbuilder.unit.UnitBuild;
+import org.megamek.mekbuilder.unit.UnitLocation;
+
+import java.util.*;
+
+import static org.megamek.mekbuilder.validation.UnitProperty.*;
+
+/**
+ * The construction rules that apply to all units.
+ */
+public enum StandardRule implements ValidationRule {
+    /** The weight of the components and armor cannot exceed the unit's tonnage */
+    WEIGHT_LIMIT (TONNAGE, WEIGHT) {
+        @Override
+        public List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter) {
+            final double weight = unit.buildWeight() + unit.getArmorTonnage();
+            if (weight > unit.getTonnage()) {
+                return Collections.singletonList(new ValidationIssue(this,
+                        String.format("Weight of %s tons exceeds tonnage of %s", weight, unit.getTonnage())));
+            }
+            return Collections.emptyList();
+        }
+    },
+    /** The mounts in a location cannot occupy more slots than the location has */
+    SLOT_LIMIT (CONFIGURATION, LOCATIONS) {
+        @Override
+        public List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter) {
+            final List<ValidationIssue> issues = new ArrayList<>();
+            for (UnitLocation loc : unit.getLocationSet()) {
+                if (unit.getFreeSlots(loc) < 0) {
+                    issues.add(new ValidationIssue(this,
+                            String.format("%d slots used of %d", unit.getOccupiedSlots(loc), unit.slotsInLocation(loc)),
+                            loc, null));
+                }
+            }
+            return issues;
+        }
+    },
+    /** The armor in a location cannot exceed the maximum, and the total cannot exceed the armor tonnage */
+    ARMOR_LIMIT (UnitProperty.ARMOR, CONFIGURATION) {
+        @Override
+        public List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter) {
+            final List<ValidationIssue> issues = new ArrayList<>();
+            int total = 0;
+            for (UnitLocation loc : unit.getLocationSet()) {
+                final int points = unit.getArmorPoints(loc) + unit.getRearArmorPoints(loc);
+                total += points;
+                if (points > unit.getMaxArmorPoints(loc)) {
+                    issues.add(new ValidationIssue(this,
+                            String.format("%d armor points exceeds maximum of %d", points, unit.getMaxArmorPoints(loc)),
+                            loc, null));
+                }
+            }
+            if (total > unit.getTotalArmorPoints()) {
+                issues.add(new ValidationIssue(this,
+                        String.format("%d armor points allocated of %d", total, (int) unit.getTotalArmorPoints())));
+            }
+            return issues;
+        }
+    },
+    /** The component must be allowed on the unit's type and configuration */
+    ALLOWED (CONFIGURATION, TONNAGE, EQUIPMENT) {
+        @Override
+        public List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter) {
+            final List<ValidationIssue> issues = new ArrayList<>();
+            for (Mount m : unit.getAllMounts()) {
+                if (!unit.allowed(m.getComponent())) {
+                    issues.add(mountIssue(m, "%s is not allowed on this unit"));
+                }
+            }
+            return issues;
+        }
+    },
+    /** The component must be available under the tech filter */
+    TECH_LEGALITY (TECH, EQUIPMENT) {
+        @Override
+        public List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter) {
+            final TechAvailabilityIndex index = TechAvailabilityIndex.getInstance();
+            final List<ValidationIssue> issues = new ArrayList<>();
+            final Set<Component> checked = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Mount m : unit.getAllMounts()) {
+                if (checked.add(m.getComponent()) && !index.isLegal(techFilter, m.getComponent())) {
+                    issues.add(mountIssue(m, "%s is not available"));
+                }
+            }
+            return issues;
+        }
+    },
+    /** Each flag required by a component must be provided by another installed component */
+    REQUIREMENTS (EQUIPMENT) {
+        @Override
+        public List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter) {
+            final List<Mount> mounts = unit.getAllMounts();
+            final Map<ComponentSwitch, Integer> provided = new EnumMap<>(ComponentSwitch.class);
+            for (Mount m : mounts) {
+                for (ComponentSwitch cs : ComponentSwitch.values()) {
+                    if (m.getComponent().hasFlag(cs)) {
+                        provided.merge(cs, 1, Integer::sum);
+                    }
+                }
+            }
+            final List<ValidationIssue> issues = new ArrayList<>();
+            for (Mount m : mounts) {
+                for (ComponentSwitch cs : m.getComponent().requirements()) {
+                    // A component cannot meet its own requirement
+                    final int own = m.getComponent().hasFlag(cs) ? 1 : 0;
+                    if (provided.getOrDefault(cs, 0) <= own) {
+                        issues.add(mountIssue(m, "%s requires " + cs));
+                    }
+                }
+            }
+            return issues;
+        }
+    },
+    /** No two installed components can be incompatible with each other */
+    INCOMPATIBILITY (EQUIPMENT) {
+        @Override
+        public List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter) {
+            final ComponentLibrary library = ComponentLibrary.getInstance();
+            // Compare each distinct component once, skipping other mounts of the same component
+            final Map<Component, Mount> installed = new LinkedHashMap<>();
+            for (Mount m : unit.getAllMounts()) {
+                installed.putIfAbsent(m.getComponent(), m);
+            }
+            final List<Mount> distinct = new ArrayList<>(installed.values());
+            final List<ValidationIssue> issues = new ArrayList<>();
+            for (int i = 0; i < distinct.size(); i++) {
+                final Component first = distinct.get(i).getComponent();
+                for (int j = i + 1; j < distinct.size(); j++) {
+                    if (library.incompatible(first, distinct.get(j).getComponent())) {
+                        issues.add(mountIssue(distinct.get(j), "%s is incompatible with "
+                                + first.getShortName()));
+                    }
+                }
+            }
+            return issues;
+        }
+    },
+    /** A component cannot be mounted more times on the unit than it allows */
+    UNIT_EXCLUSIVE (EQUIPMENT) {
+        @Override
+        public List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter) {
+            final Map<Component, Integer> counts = new LinkedHashMap<>();
+            final Map<Component, Mount> first = new HashMap<>();
+            for (Mount m : unit.getAllMounts()) {
+                if (m.getComponent().hasFlag(ComponentSwitch.UNIT_EXCLUSIVE)) {
+                    counts.merge(m.getComponent(), 1, Integer::sum);
+                    first.putIfAbsent(m.getComponent(), m);
+                }
+            }
+            final List<ValidationIssue> issues = new ArrayList<>();
+            for (Map.Entry<Component, Integer> entry : counts.entrySet()) {
+                final int limit = limit(entry.getKey(), ComponentSwitch.UNIT_EXCLUSIVE);
+                if (entry.getValue() > limit) {
+                    issues.add(mountIssue(first.get(entry.getKey()),
+                            "%s is mounted " + entry.getValue() + " times; the limit is " + limit));
+                }
+            }
+            return issues;
+        }
+    },
+    /** A component cannot be mounted more times in a location than it allows */
+    LOCATION_EXCLUSIVE (EQUIPMENT, LOCATIONS) {
+        @Override
+        public List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter) {
+            final Map<Component, int[]> counts = new LinkedHashMap<>();
+            final Map<Component, Mount> first = new HashMap<>();
+            for (Mount m : unit.getAllMounts()) {
+                if (m.getComponent().locationExclusive()) {
+                    final int[] count = counts.computeIfAbsent(m.getComponent(),
+                            c -> new int[UnitLocation.values().length]);
+                    first.putIfAbsent(m.getComponent(), m);
+                    if (m instanceof DistributedMount) {
+                        for (UnitLocation loc : ((DistributedMount) m).getLocations().keySet()) {
+                            count[loc.ordinal()]++;
+                        }
+                    } else if (m.getLocation() != UnitLocation.NO_LOCATION) {
+                        count[m.getLocation().ordinal()]++;
+                    }
+                }
+            }
+            final List<ValidationIssue> issues = new ArrayList<>();
+            for (Map.Entry<Component, int[]> entry : counts.entrySet()) {
+                final int limit = limit(entry.getKey(), ComponentSwitch.LOCATION_EXCLUSIVE);
+                for (UnitLocation loc : UnitLocation.values()) {
+                    if (entry.getValue()[loc.ordinal()] > limit) {
+                        issues.add(new ValidationIssue(this,
+                                String.format("%s is mounted %d times; the limit is %d",
+                                        entry.getKey().getShortName(), entry.getValue()[loc.ordinal()], limit),
+                                loc, first.get(entry.getKey())));
+                    }
+                }
+            }
+            return issues;
+        }
+    };
+
+    private final Set<UnitProperty> dependencies;
+
+    StandardRule(UnitProperty first, UnitProperty... rest) {
+        dependencies = Collections.unmodifiableSet(EnumSet.of(first, rest));
+    }
+
+    @Override
+    public String getName() {
+        return name();
+    }
+
+    @Override
+    public Set<UnitProperty> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @param m      The mount with the problem
+     * @param format The message, with {@code %s} in place of the component name
+     */
+    ValidationIssue mountIssue(Mount m, String format) {
+        return new ValidationIssue(this, String.format(format, m.getComponent().getShortName()),
+                m.getLocation(), m);
+    }
+
+    /**
+     * @return The number of the component allowed by an exclusivity flag
+     */
+    private static int limit(Component component, ComponentSwitch flag) {
+        final Object value = component.flagValue(flag);
+        return (value instanceof Integer) ? (Integer) value : 1;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.validation;
+
+import org.megamek.mekbuilder.component.DistributedMount;
+import org.megamek.mekbuilder.component.Mount;
+import org.megamek.mekbuilder.unit.UnitBuild;
+import org.megamek.mekbuilder.unit.UnitLocation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The parts of a unit that a {@link ValidationRule} can depend on. Each property computes a signature
+ * from the values it covers, and a change in the signature tells {@link UnitValidator} that the rules
+ * depending on the property need to be checked again.
+ */
+public enum UnitProperty {
+    /** The tonnage of the unit */
+    TONNAGE {
+        @Override
+        long signature(UnitBuild unit) {
+            return Double.doubleToLongBits(unit.getTonnage());
+        }
+    },
+    /** The weight of the installed components and armor */
+    WEIGHT {
+        @Override
+        long signature(UnitBuild unit) {
+            return 31 * Double.doubleToLongBits(unit.buildWeight()) + Double.doubleToLongBits(unit.getArmorTonnage());
+        }
+    },
+    /** The unit type, construction option, and the locations and slots they provide */
+    CONFIGURATION {
+        @Override
+        long signature(UnitBuild unit) {
+            long sig = unit.getUnitType().ordinal();
+            sig = 31 * sig + Objects.hashCode(unit.getBaseConstructionOption());
+            sig = 31 * sig + (unit.isOmni() ? 1 : 0);
+            for (UnitLocation loc : unit.getLocationSet()) {
+                sig = 31 * sig + loc.ordinal();
+                sig = 31 * sig + unit.slotsInLocation(loc);
+            }
+            return sig;
+        }
+    },
+    /** Which components are mounted, and their sizes */
+    EQUIPMENT {
+        @Override
+        long signature(UnitBuild unit) {
+            final List<Mount> mounts = unit.getAllMounts();
+            long sig = mounts.size();
+            for (Mount m : mounts) {
+                sig = 31 * sig + System.identityHashCode(m.getComponent());
+                sig = 31 * sig + Double.doubleToLongBits(m.getSize());
+            }
+            return sig;
+        }
+    },
+    /** Where the mounts are placed and the number of slots they occupy */
+    LOCATIONS {
+        @Override
+        long signature(UnitBuild unit) {
+            long sig = 0;
+            for (Mount m : unit.getAllMounts()) {
+                sig = 31 * sig + m.getLocation().ordinal();
+                sig = 31 * sig + (m.isRearFacing() ? 1 : 0);
+                if (m instanceof DistributedMount) {
+                    for (Map.Entry<UnitLocation, Integer> entry : ((DistributedMount) m).getLocations().entrySet()) {
+                        sig = 31 * sig + entry.getKey().ordinal();
+                        sig = 31 * sig + entry.getValue();
+                    }
+                }
+            }
+            for (UnitLocation loc : unit.getLocationSet()) {
+                sig = 31 * sig + unit.getOccupiedSlots(loc);
+            }
+            return sig;
+        }
+    },
+    /** The armor points in each location and the maximum allowed */
+    ARMOR {
+        @Override
+        long signature(UnitBuild unit) {
+            long sig = Double.doubleToLongBits(unit.getTotalArmorPoints());
+            for (UnitLocation loc : unit.getLocationSet()) {
+                sig = 31 * sig + unit.getArmorPoints(loc);
+                sig = 31 * sig + unit.getRearArmorPoints(loc);
+                sig = 31 * sig + unit.getMaxArmorPoints(loc);
+            }
+            return sig;
+        }
+    },
+    /** The year, tech base, and faction used to determine whether components are available */
+    TECH {
+        @Override
+        long signature(UnitBuild unit) {
+            long sig = unit.getYear();
+            sig = 31 * sig + unit.getTechBase().ordinal();
+            sig = 31 * sig + Objects.hashCode(unit.getFaction());
+            return sig;
+        }
+    };
+
+    /**
+     * Computes a value from the parts of the unit covered by this property. Any change to those parts
+     * is expected to change the value.
+     *
+     * @param unit The unit
+     * @return     The signature
+     */
+    abstract long signature(UnitBuild unit);
+}
@@ -0,0 +1,197 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.validation;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.component.TechAvailabilityIndex;
+import org.megamek.mekbuilder.tech.ITechFilter;
+import org.megamek.mekbuilder.tech.TechLevel;
+import org.megamek.mekbuilder.unit.UnitBuild;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Checks a unit against a set of {@link ValidationRule}s and keeps the results between checks. Each call to
+ * {@link #validate()} compares the signature of each {@link UnitProperty} to the values from the last check
+ * and only runs the rules that depend on a property that has changed, so validating after a small edit
+ * does not repeat the work of the rules that could not have been affected.
+ *
+ * <p>{@link #validateAll()} runs every rule, dividing them among threads. The unit must not be changed while
+ * either method is running.</p>
+ */
+public class UnitValidator {
+
+    private final UnitBuild unit;
+    private final ValidationRule[] rules;
+    private final List<List<ValidationIssue>> results;
+    private final long[] signatures = new long[UnitProperty.values().length];
+    private final Set<UnitProperty> marked = EnumSet.noneOf(UnitProperty.class);
+    private long checkedRevision = -1;
+    private boolean checked = false;
+    private ITechFilter techFilter;
+    private int lastRuleCount;
+
+    /**
+     * Creates a validator that checks all of the {@link StandardRule}s.
+     *
+     * @param unit The unit to validate
+     */
+    public UnitValidator(UnitBuild unit) {
+        this(unit, EnumSet.allOf(StandardRule.class));
+    }
+
+    /**
+     * @param unit  The unit to validate
+     * @param rules The rules to check
+     */
+    public UnitValidator(UnitBuild unit, Collection<? extends ValidationRule> rules) {
+        this.unit = unit;
+        this.rules = rules.toArray(new ValidationRule[0]);
+        results = new ArrayList<>(Collections.nCopies(this.rules.length, Collections.emptyList()));
+    }
+
+    public UnitBuild getUnit() {
+        return unit;
+    }
+
+    /**
+     * @return The filter used to check component availability, or {@code null} if the unit's own
+     *         year, tech base, and faction are used
+     */
+    public @Nullable ITechFilter getTechFilter() {
+        return techFilter;
+    }
+
+    /**
+     * @param techFilter The filter used to check component availability, or {@code null} to use the
+     *                   unit's year, tech base, and faction with any rules level up to experimental
+     */
+    public void setTechFilter(@Nullable ITechFilter techFilter) {
+        this.techFilter = techFilter;
+        markChanged(UnitProperty.TECH);
+    }
+
+    /**
+     * Forces the rules that depend on the properties to be checked by the next call to {@link #validate()}.
+     * Changes to the unit are detected without this, but it can be used when something outside the unit
+     * affects a rule.
+     *
+     * @param properties The properties that have changed
+     */
+    public void markChanged(UnitProperty... properties) {
+        marked.addAll(Arrays.asList(properties));
+    }
+
+    /**
+     * Checks the rules that depend on any property that has changed since the last check. The first call
+     * checks all the rules.
+     *
+     * @return All the problems found with the unit
+     */
+    public List<ValidationIssue> validate() {
+        if (!checked) {
+            return validateAll();
+        }
+        final Set<UnitProperty> changed = findChanges();
+        final ITechFilter filter = effectiveTechFilter();
+        lastRuleCount = 0;
+        if (!changed.isEmpty()) {
+            for (int i = 0; i < rules.length; i++) {
+                if (!Collections.disjoint(rules[i].getDependencies(), changed)) {
+                    results.set(i, rules[i].check(unit, filter));
+                    lastRuleCount++;
+                }
+            }
+        }
+        return getIssues();
+    }
+
+    /**
+     * Checks every rule, running them in parallel.
+     *
+     * @return All the problems found with the unit
+     */
+    public List<ValidationIssue> validateAll() {
+        // Computing the signatures also fills the unit's cached values, so the rules only read them
+        findChanges();
+        final ITechFilter filter = effectiveTechFilter();
+        final List<List<ValidationIssue>> all = Arrays.stream(rules).parallel()
+                .map(r -> r.check(unit, filter)).collect(Collectors.toList());
+        for (int i = 0; i < rules.length; i++) {
+            results.set(i, all.get(i));
+        }
+        lastRuleCount = rules.length;
+        checked = true;
+        return getIssues();
+    }
+
+    /**
+     * @return The problems found by the most recent check of each rule
+     */
+    public List<ValidationIssue> getIssues() {
+        final List<ValidationIssue> issues = new ArrayList<>();
+        for (List<ValidationIssue> list : results) {
+            issues.addAll(list);
+        }
+        return issues;
+    }
+
+    /**
+     * @return Whether the most recent check of each rule found no problems
+     */
+    public boolean isValid() {
+        return results.stream().allMatch(List::isEmpty);
+    }
+
+    /**
+     * @return The number of rules checked by the last call to {@link #validate()} or {@link #validateAll()}
+     */
+    public int getLastRuleCount() {
+        return lastRuleCount;
+    }
+
+    /**
+     * @return The properties that have changed or been marked since the last check
+     */
+    private Set<UnitProperty> findChanges() {
+        final Set<UnitProperty> changed = EnumSet.noneOf(UnitProperty.class);
+        changed.addAll(marked);
+        marked.clear();
+        if (unit.getRevision() != checkedRevision) {
+            for (UnitProperty property : UnitProperty.values()) {
+                final long signature = property.signature(unit);
+                if (!checked || (signature != signatures[property.ordinal()])) {
+                    changed.add(property);
+                }
+                signatures[property.ordinal()] = signature;
+            }
+            checkedRevision = unit.getRevision();
+        }
+        return changed;
+    }
+
+    private ITechFilter effectiveTechFilter() {
+        if (null != techFilter) {
+            return techFilter;
+        }
+        return new TechAvailabilityIndex.FilterKey(unit.getYear(), unit.getTechBase(), TechLevel.EXPERIMENTAL,
+                unit.getFaction(), false, false);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.validation;
+
+import megamek.common.annotations.Nullable;
+import org.megamek.mekbuilder.component.Mount;
+import org.megamek.mekbuilder.unit.UnitLocation;
+
+/**
+ * A problem found when validating a unit.
+ */
+public final class ValidationIssue {
+
+    private final ValidationRule rule;
+    private final String message;
+    private final UnitLocation location;
+    private final Mount mount;
+
+    /**
+     * @param rule     The rule that found the problem
+     * @param message  A description of the problem
+     * @param location The location with the problem, or {@link UnitLocation#NO_LOCATION} if it applies to
+     *                 the unit as a whole
+     * @param mount    The mount that caused the problem, or {@code null} if there is not a particular mount
+     */
+    public ValidationIssue(ValidationRule rule, String message, UnitLocation location, @Nullable Mount mount) {
+        this.rule = rule;
+        this.message = message;
+        this.location = location;
+        this.mount = mount;
+    }
+
+    public ValidationIssue(ValidationRule rule, String message) {
+        this(rule, message, UnitLocation.NO_LOCATION, null);
+    }
+
+    public ValidationRule getRule() {
+        return rule;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public UnitLocation getLocation() {
+        return location;
+    }
+
+    public @Nullable Mount getMount() {
+        return mount;
+    }
+
+    @Override
+    public String toString() {
+        return rule.getName() + ": " + message;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.validation;
+
+import org.megamek.mekbuilder.tech.ITechFilter;
+import org.megamek.mekbuilder.unit.UnitBuild;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A single check of a unit's construction. Rules are run by a {@link UnitValidator}, which only checks a
+ * rule again when one of the properties it depends on has changed, so a rule must not read any part of the
+ * unit that is not covered by its dependencies. Rules may be run in parallel with each other and must not
+ * modify the unit.
+ */
+public interface ValidationRule {
+
+    /**
+     * @return A name that identifies the rule
+     */
+    String getName();
+
+    /**
+     * @return The properties of the unit that can change the result of the rule
+     */
+    Set<UnitProperty> getDependencies();
+
+    /**
+     * Checks the unit against the rule.
+     *
+     * @param unit       The unit to check
+     * @param techFilter The criteria for available components
+     * @return           Any problems found. An empty list indicates the unit passes the rule.
+     */
+    List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter);
+}
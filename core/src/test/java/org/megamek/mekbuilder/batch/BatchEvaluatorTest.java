@@ -0,0 +1,162 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.unit.UnitLocation;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchEvaluatorTest {
+
+    private static MekDesign design(double tonnage) {
+        MekDesign design = new MekDesign();
+        design.setChassis("Test");
+        design.setModel(String.valueOf((int) tonnage));
+        design.setTonnage(tonnage);
+        design.setWalkMP(4);
+        return design;
+    }
+
+    @Test
+    void evaluatesAllDesigns() throws InterruptedException {
+        List<DesignResult> results = new ArrayList<>();
+        long count;
+        try (BatchEvaluator evaluator = new BatchEvaluator(4)) {
+            count = evaluator.evaluate(IntStream.rangeClosed(4, 20).mapToObj(i -> design(i * 5)), results::add);
+        }
+        results.sort(Comparator.comparingLong(DesignResult::getIndex));
+
+        assertAll(
+                () -> assertEquals(17, count),
+                () -> assertEquals(17, results.size()),
+                () -> assertTrue(results.stream().allMatch(DesignResult::isSuccess)),
+                () -> assertEquals(20.0, results.get(0).getTonnage()),
+                () -> assertEquals(100.0, results.get(16).getTonnage()),
+                () -> assertEquals("Test 100", results.get(16).getName()),
+                () -> assertTrue(results.get(16).getBuildWeight() > results.get(0).getBuildWeight())
+        );
+    }
+
+    @Test
+    void matchesSequentialBuild() throws InterruptedException {
+        MekDesign design = design(50);
+        design.getEquipment().add(new MekDesign.Equipment("Large Laser", UnitLocation.MEK_RARM));
+        DesignResult expected = DesignResult.of(0, design.toString(), design.build());
+        List<DesignResult> results = new ArrayList<>();
+        try (BatchEvaluator evaluator = new BatchEvaluator(2)) {
+            evaluator.evaluate(Collections.singletonList(design).stream(), results::add);
+        }
+
+        assertAll(
+                () -> assertEquals(1, results.size()),
+                () -> assertEquals(expected.getBuildWeight(), results.get(0).getBuildWeight()),
+                () -> assertEquals(expected.getSlots(), results.get(0).getSlots()),
+                () -> assertEquals(expected.getCost(), results.get(0).getCost()),
+                () -> assertEquals(expected.getMaxWeaponHeat(), results.get(0).getMaxWeaponHeat()),
+                () -> assertTrue(results.get(0).getMaxWeaponHeat() > 0)
+        );
+    }
+
+    @Test
+    void capturesErrorsPerDesign() throws InterruptedException {
+        MekDesign bad = design(50);
+        bad.getEquipment().add(new MekDesign.Equipment("No Such Component", UnitLocation.MEK_RARM));
+        List<DesignResult> results = new ArrayList<>();
+        try (BatchEvaluator evaluator = new BatchEvaluator(2)) {
+            evaluator.evaluate(Arrays.asList(design(20), bad, design(30)).stream(), results::add);
+        }
+        Map<Long, DesignResult> byIndex = results.stream()
+                .collect(Collectors.toMap(DesignResult::getIndex, r -> r));
+
+        assertAll(
+                () -> assertEquals(3, results.size()),
+                () -> assertTrue(byIndex.get(0L).isSuccess()),
+                () -> assertFalse(byIndex.get(1L).isSuccess()),
+                () -> assertTrue(byIndex.get(1L).getError() instanceof IllegalArgumentException),
+                () -> assertTrue(byIndex.get(2L).isSuccess())
+        );
+    }
+
+    @Test
+    void limitsDesignsInProgress() throws InterruptedException {
+        final int maxInFlight = 3;
+        AtomicInteger pulled = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger maxOutstanding = new AtomicInteger();
+        Iterator<MekDesign> source = IntStream.range(0, 200)
+                .mapToObj(i -> {
+                    pulled.incrementAndGet();
+                    return design(20 + (i % 17) * 5);
+                }).iterator();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            new BatchEvaluator(executor, maxInFlight).evaluate(source, MekDesign::build, r -> {
+                consumed.incrementAndGet();
+                maxOutstanding.accumulateAndGet(pulled.get() - consumed.get(), Math::max);
+            });
+        } finally {
+            executor.shutdown();
+        }
+
+        // The stream's iterator reads one element ahead when checking hasNext()
+        assertAll(
+                () -> assertEquals(200, consumed.get()),
+                () -> assertTrue(maxOutstanding.get() <= maxInFlight)
+        );
+    }
+
+    @Test
+    void cancelsDesignsInProgressWhenConsumerFails() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(2);
+        Iterator<Integer> source = IntStream.range(0, 20).boxed().iterator();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            assertThrows(IllegalStateException.class, () -> new BatchEvaluator(executor, 4).evaluate(source, i -> {
+                started.countDown();
+                try {
+                    if (i == 0) {
+                        // Make sure the other worker is busy before the first result is delivered
+                        started.await();
+                    } else {
+                        Thread.sleep(60_000);
+                    }
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                return design(50).build();
+            }, r -> {
+                throw new IllegalStateException("Consumer failed");
+            }));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
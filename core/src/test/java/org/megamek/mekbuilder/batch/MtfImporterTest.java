@@ -0,0 +1,209 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.component.DistributedMount;
+import org.megamek.mekbuilder.component.Mount;
+import org.megamek.mekbuilder.unit.MekBuild;
+import org.megamek.mekbuilder.unit.UnitLocation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MtfImporterTest {
+
+    private static final String HUNCHBACK = String.join("\n",
+            "Version:1.0",
+            "Hunchback",
+            "HBK-4G",
+            "",
+            "Config:Biped",
+            "techbase:Inner Sphere",
+            "era:2572",
+            "mass:50",
+            "engine:200 Fusion Engine",
+            "structure:IS Standard",
+            "myomer:Standard",
+            "heat sinks:13 Single",
+            "walk mp:4",
+            "jump mp:2",
+            "armor:Standard(Inner Sphere)",
+            "LA armor:16",
+            "RA armor:16",
+            "LT armor:20",
+            "RT armor:20",
+            "CT armor:26",
+            "HD armor:9",
+            "LL armor:20",
+            "RL armor:20",
+            "RTL armor:4",
+            "RTR armor:4",
+            "RTC armor:5",
+            "",
+            "Weapons:3",
+            "Autocannon/20, Right Torso",
+            "Medium Laser, Left Arm",
+            "Medium Laser, Center Torso (R)",
+            "",
+            "Left Arm:",
+            "Shoulder",
+            "Upper Arm Actuator",
+            "Lower Arm Actuator",
+            "Hand Actuator",
+            "Medium Laser",
+            "Widget Of Doom",
+            "",
+            "Right Torso:",
+            "Autocannon/20",
+            "Autocannon/20",
+            "Autocannon/20",
+            "Autocannon/20",
+            "Autocannon/20",
+            "Autocannon/20",
+            "Autocannon/20",
+            "Autocannon/20",
+            "Autocannon/20",
+            "Autocannon/20",
+            "IS Ammo AC/20",
+            "IS Ammo AC/20",
+            "",
+            "Center Torso:",
+            "Fusion Engine",
+            "Gyro",
+            "Medium Laser (R)",
+            "Heat Sink",
+            "Heat Sink",
+            "Heat Sink",
+            "",
+            "Left Leg:",
+            "Hip",
+            "Jump Jet",
+            "-Empty-",
+            "",
+            "Right Leg:",
+            "Hip",
+            "Jump Jet",
+            "-Empty-",
+            "",
+            "overview:The Hunchback is a street fighter.");
+
+    private Path directory;
+
+    @BeforeEach
+    void createFiles() throws IOException {
+        directory = Files.createTempDirectory("mtf");
+        for (int i = 0; i < 20; i++) {
+            final Path dir = Files.createDirectories(directory.resolve("group" + (i % 3)));
+            Files.write(dir.resolve("Hunchback " + i + ".mtf"),
+                    HUNCHBACK.replace("HBK-4G", "HBK-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(directory.resolve("notes.txt"), "Not a mek".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private static List<Mount> mounts(MekBuild mek, String internalName) {
+        return mek.getComponents().stream()
+                .filter(m -> m.getComponent().getInternalName().equals(internalName))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void readsHeaderAndEquipment() throws IOException {
+        final MtfImport result = MtfImporter.read(0, "Hunchback",
+                new BufferedReader(new StringReader(HUNCHBACK)));
+        final MekBuild mek = result.getUnit();
+        final List<Mount> lasers = mounts(mek, "Medium Laser");
+
+        assertAll(
+                () -> assertTrue(result.isSuccess()),
+                () -> assertEquals("Hunchback", mek.getChassis()),
+                () -> assertEquals("HBK-4G", mek.getModel()),
+                () -> assertEquals(2572, mek.getYear()),
+                () -> assertEquals(50.0, mek.getTonnage()),
+                () -> assertEquals(200, mek.getEngineRating()),
+                () -> assertEquals(4, mek.getBaseWalkMP()),
+                () -> assertEquals(13, mek.getHeatSinkMount().totalHeatSinks()),
+                () -> assertEquals(3, (int) mek.getHeatSinkMount().getLocations().get(UnitLocation.MEK_CTORSO)),
+                () -> assertEquals(2, mek.getBaseSecondaryMP()),
+                () -> assertEquals(1, (int) ((DistributedMount) mek.getAllMounts().stream()
+                        .filter(m -> m.getComponent().equals(mek.getSecondaryMotiveType())).findFirst().get())
+                        .getLocations().get(UnitLocation.MEK_LLEG)),
+                () -> assertEquals(1, mounts(mek, "Autocannon/20").size()),
+                () -> assertEquals(UnitLocation.MEK_RTORSO, mounts(mek, "Autocannon/20").get(0).getLocation()),
+                () -> assertEquals(2, lasers.size()),
+                () -> assertEquals(1, lasers.stream().filter(Mount::isRearFacing).count()),
+                () -> assertEquals(UnitLocation.MEK_CTORSO,
+                        lasers.stream().filter(Mount::isRearFacing).findFirst().get().getLocation()),
+                () -> assertEquals(2, mek.getComponents().stream()
+                        .filter(m -> m.getComponent().getMMName().equals("IS Ammo AC/20")).count()),
+                () -> assertEquals(16, mek.getArmorPoints(UnitLocation.MEK_LARM)),
+                () -> assertEquals(5, mek.getRearArmorPoints(UnitLocation.MEK_CTORSO)),
+                () -> assertEquals(10.0, mek.getArmorTonnage()),
+                () -> assertEquals(Collections.singletonList("Widget Of Doom"), result.getUnresolved())
+        );
+    }
+
+    @Test
+    void stopsReadingAfterSlotTables() throws IOException {
+        final String text = HUNCHBACK + "\nRight Arm:\nWidget Of Gloom\n";
+        final MtfImport result = MtfImporter.read(0, "Hunchback", new BufferedReader(new StringReader(text)));
+
+        assertEquals(Collections.singletonList("Widget Of Doom"), result.getUnresolved());
+    }
+
+    @Test
+    void importsDirectory() throws Exception {
+        final List<MtfImport> results = new ArrayList<>();
+        final long count;
+        try (MtfImporter importer = new MtfImporter(4)) {
+            count = importer.importAll(directory, results::add);
+        }
+        final Set<Long> indices = results.stream().map(MtfImport::getIndex).collect(Collectors.toSet());
+        final Set<String> models = results.stream().map(r -> r.getUnit().getModel()).collect(Collectors.toSet());
+
+        assertAll(
+                () -> assertEquals(20, count),
+                () -> assertEquals(20, results.size()),
+                () -> assertEquals(20, indices.size()),
+                () -> assertEquals(20, models.size()),
+                () -> assertTrue(results.stream().allMatch(MtfImport::isSuccess)),
+                () -> assertTrue(results.stream().noneMatch(MtfImport::isComplete))
+        );
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.unit.DesignFingerprint;
+import org.megamek.mekbuilder.unit.MekBuild;
+import org.megamek.mekbuilder.unit.UnitLocation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsCacheTest {
+
+    private static DesignFingerprint fingerprint(double tonnage) {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(tonnage);
+        return mek.fingerprint();
+    }
+
+    private static DesignStats stats(double tonnage) {
+        return new DesignStats(tonnage, tonnage / 2, 30, 1234567.5, 2, 8, 10);
+    }
+
+    /**
+     * Records the values passed through to a slower cache.
+     */
+    private static class MapCache implements StatsCache {
+        final Map<DesignFingerprint, DesignStats> map = new ConcurrentHashMap<>();
+        final AtomicInteger gets = new AtomicInteger();
+
+        @Override
+        public DesignStats get(DesignFingerprint fingerprint) {
+            gets.incrementAndGet();
+            return map.get(fingerprint);
+        }
+
+        @Override
+        public void put(DesignFingerprint fingerprint, DesignStats stats) {
+            map.put(fingerprint, stats);
+        }
+    }
+
+    @Test
+    void lruDropsLeastRecentlyUsed() {
+        MapCache backing = new MapCache();
+        LruStatsCache cache = new LruStatsCache(2, backing);
+        cache.put(fingerprint(20), stats(20));
+        cache.put(fingerprint(25), stats(25));
+        cache.get(fingerprint(20));
+        cache.put(fingerprint(30), stats(30));
+        final int size = cache.size();
+        final DesignStats fromBacking = cache.get(fingerprint(25));
+
+        assertAll(
+                () -> assertEquals(2, size),
+                () -> assertEquals(stats(25), fromBacking),
+                () -> assertEquals(1, backing.gets.get()),
+                () -> assertEquals(3, backing.map.size()),
+                () -> assertNull(new LruStatsCache(2).get(fingerprint(20)))
+        );
+    }
+
+    @Test
+    void fileCacheRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("stats-cache");
+        try {
+            FileStatsCache cache = new FileStatsCache(dir);
+            cache.put(fingerprint(20), stats(20));
+            cache.put(fingerprint(20), stats(21));
+            FileStatsCache reopened = new FileStatsCache(dir);
+
+            assertAll(
+                    () -> assertEquals(stats(21), reopened.get(fingerprint(20))),
+                    () -> assertNull(reopened.get(fingerprint(25))),
+                    () -> assertEquals(stats(20), FileStatsCache.parse(FileStatsCache.format(stats(20)))),
+                    () -> assertNull(FileStatsCache.parse("stats0 1 2 3 4 5 6 7"))
+            );
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path p : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(p);
+                }
+            }
+        }
+    }
+
+    @Test
+    void batchUsesCachedValues() throws InterruptedException {
+        MapCache cache = new MapCache();
+        List<DesignResult> first = new ArrayList<>();
+        List<DesignResult> second = new ArrayList<>();
+        try (BatchEvaluator evaluator = new BatchEvaluator(2)) {
+            evaluator.setStatsCache(cache);
+            evaluator.evaluate(IntStream.rangeClosed(4, 8).mapToObj(i -> design(i * 5)), first::add);
+            // Replace the cached values to show that they are used instead of being calculated again
+            cache.map.replaceAll((k, v) -> stats(v.getTonnage()));
+            evaluator.evaluate(IntStream.rangeClosed(4, 8).mapToObj(i -> design(i * 5)), second::add);
+        }
+
+        assertAll(
+                () -> assertEquals(5, cache.map.size()),
+                () -> assertEquals(5, second.size()),
+                () -> assertTrue(first.stream().noneMatch(r -> r.getSlots() == 30)),
+                () -> assertTrue(second.stream().allMatch(r -> r.getStats().equals(stats(r.getTonnage()))))
+        );
+    }
+
+    @Test
+    void batchSkipsBuildingCachedDesigns() throws InterruptedException {
+        MapCache cache = new MapCache();
+        AtomicInteger builds = new AtomicInteger();
+        Function<MekDesign, MekBuild> builder = d -> {
+            builds.incrementAndGet();
+            return d.build();
+        };
+        List<DesignResult> second = new ArrayList<>();
+        final int firstBuilds;
+        try (BatchEvaluator evaluator = new BatchEvaluator(2)) {
+            evaluator.setStatsCache(cache);
+            evaluator.evaluate(IntStream.rangeClosed(4, 8).mapToObj(i -> design(i * 5)).iterator(),
+                    builder, MekDesign::fingerprint, r -> {});
+            firstBuilds = builds.getAndSet(0);
+            evaluator.evaluate(IntStream.rangeClosed(4, 8).mapToObj(i -> design(i * 5)).iterator(),
+                    builder, MekDesign::fingerprint, second::add);
+        }
+
+        assertAll(
+                () -> assertEquals(5, firstBuilds),
+                () -> assertEquals(0, builds.get()),
+                () -> assertEquals(5, second.size()),
+                () -> assertTrue(second.stream().allMatch(DesignResult::isSuccess))
+        );
+    }
+
+    @Test
+    void designFingerprintIgnoresNames() {
+        MekDesign renamed = design(50);
+        renamed.setChassis("Renamed");
+        renamed.setModel("X");
+        MekDesign armed = design(50);
+        armed.getEquipment().add(new MekDesign.Equipment("Medium Laser", UnitLocation.MEK_RARM));
+        MekDesign rear = design(50);
+        rear.getEquipment().add(new MekDesign.Equipment("Medium Laser", UnitLocation.MEK_RARM));
+        rear.getEquipment().get(0).setRearFacing(true);
+
+        assertAll(
+                () -> assertEquals(design(50).fingerprint(), renamed.fingerprint()),
+                () -> assertNotEquals(design(50).fingerprint(), design(55).fingerprint()),
+                () -> assertNotEquals(design(50).fingerprint(), armed.fingerprint()),
+                () -> assertNotEquals(armed.fingerprint(), rear.fingerprint())
+        );
+    }
+
+    private static MekDesign design(double tonnage) {
+        MekDesign design = new MekDesign();
+        design.setTonnage(tonnage);
+        design.setWalkMP(4);
+        return design;
+    }
+}
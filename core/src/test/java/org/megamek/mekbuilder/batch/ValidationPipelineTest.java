@@ -0,0 +1,197 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.component.TechAvailabilityIndex;
+import org.megamek.mekbuilder.tech.TechBase;
+import org.megamek.mekbuilder.tech.ITechFilter;
+import org.megamek.mekbuilder.tech.TechLevel;
+import org.megamek.mekbuilder.unit.UnitBuild;
+import org.megamek.mekbuilder.unit.UnitLocation;
+import org.megamek.mekbuilder.validation.UnitProperty;
+import org.megamek.mekbuilder.validation.ValidationIssue;
+import org.megamek.mekbuilder.validation.ValidationRule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationPipelineTest {
+
+    private static final TechAvailabilityIndex.FilterKey FILTER = new TechAvailabilityIndex.FilterKey(3067,
+            TechBase.ALL, TechLevel.EXPERIMENTAL, null, false, false);
+
+    private Path directory;
+
+    @BeforeEach
+    void createDesigns() throws IOException {
+        directory = Files.createTempDirectory("designs");
+        final ObjectMapper mapper = MekDesign.createMapper();
+        for (int i = 0; i < 20; i++) {
+            MekDesign design = new MekDesign();
+            design.setChassis("Valid");
+            design.setModel(String.valueOf(i));
+            design.setTonnage(50);
+            design.setWalkMP(4);
+            design.getEquipment().add(new MekDesign.Equipment("Medium Laser", UnitLocation.MEK_RARM));
+            final Path dir = Files.createDirectories(directory.resolve("group" + (i % 3)));
+            mapper.writeValue(dir.resolve("valid" + i + ".json").toFile(), design);
+        }
+        MekDesign overweight = new MekDesign();
+        overweight.setChassis("Overweight");
+        overweight.setTonnage(20);
+        overweight.setWalkMP(4);
+        for (int i = 0; i < 10; i++) {
+            overweight.getEquipment().add(new MekDesign.Equipment("Large Laser", UnitLocation.NO_LOCATION));
+        }
+        mapper.writeValue(directory.resolve("overweight.json").toFile(), overweight);
+        MekDesign unknown = new MekDesign();
+        unknown.setChassis("Unknown");
+        unknown.getEquipment().add(new MekDesign.Equipment("No Such Component", UnitLocation.MEK_RARM));
+        mapper.writeValue(directory.resolve("unknown.json").toFile(), unknown);
+        Files.write(directory.resolve("broken.json"), "{ \"chassis\" : ".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("notes.txt"), "Not a design".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void deleteDesigns() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private static String fileName(DesignValidation result) {
+        return result.getFile().getFileName().toString();
+    }
+
+    @Test
+    void validatesAllDesignFiles() throws IOException, InterruptedException {
+        ValidationPipeline pipeline = new ValidationPipeline(FILTER, 3);
+        List<DesignValidation> results = new ArrayList<>();
+
+        long count = pipeline.run(directory, results::add);
+        Map<String, DesignValidation> byName = results.stream()
+                .collect(Collectors.toMap(ValidationPipelineTest::fileName, r -> r));
+
+        assertAll(
+                () -> assertEquals(23, count),
+                () -> assertEquals(23, byName.size()),
+                () -> assertEquals(20, results.stream().filter(DesignValidation::isValid).count()),
+                () -> assertTrue(byName.get("overweight.json").isLoaded()),
+                () -> assertFalse(byName.get("overweight.json").isValid()),
+                () -> assertEquals(ValidationPipeline.Stage.BUILD, byName.get("unknown.json").getFailedStage()),
+                () -> assertEquals(ValidationPipeline.Stage.PARSE, byName.get("broken.json").getFailedStage()),
+                () -> assertEquals(23, pipeline.getFound()),
+                () -> assertEquals(23, pipeline.getCount(ValidationPipeline.Stage.READ)),
+                () -> assertEquals(22, pipeline.getCount(ValidationPipeline.Stage.PARSE)),
+                () -> assertEquals(21, pipeline.getCount(ValidationPipeline.Stage.VALIDATE)),
+                () -> assertEquals(LongStream.range(0, 23).boxed().collect(Collectors.toSet()), results.stream()
+                        .map(DesignValidation::getIndex).collect(Collectors.toSet()))
+        );
+    }
+
+    @Test
+    void writesReports() throws IOException, InterruptedException {
+        ValidationPipeline pipeline = new ValidationPipeline(FILTER, 2);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+
+        try (ValidationReport csvReport = ValidationReport.create(ValidationReport.Format.CSV, csv);
+             ValidationReport jsonReport = ValidationReport.create(ValidationReport.Format.JSON, json)) {
+            pipeline.run(directory, r -> {
+                try {
+                    csvReport.write(r);
+                    jsonReport.write(r);
+                } catch (IOException ex) {
+                    fail(ex);
+                }
+            });
+        }
+        String[] lines = csv.toString("UTF-8").split("\n");
+        JsonNode array = new ObjectMapper().readTree(json.toByteArray());
+
+        assertAll(
+                () -> assertEquals("file,name,status,problems", lines[0]),
+                () -> assertEquals(24, lines.length),
+                () -> assertEquals(1, Arrays.stream(lines).filter(l -> l.contains("INVALID")).count()),
+                () -> assertEquals(23, array.size()),
+                () -> assertEquals(2, countStatus(array, "ERROR"))
+        );
+    }
+
+    @Test
+    void rethrowsErrorFromWorker() {
+        ValidationRule failing = new ValidationRule() {
+            @Override
+            public String getName() {
+                return "Failing";
+            }
+
+            @Override
+            public Set<UnitProperty> getDependencies() {
+                return EnumSet.allOf(UnitProperty.class);
+            }
+
+            @Override
+            public List<ValidationIssue> check(UnitBuild unit, ITechFilter techFilter) {
+                throw new ExceptionInInitializerError("Rule failed");
+            }
+        };
+        ValidationPipeline pipeline = new ValidationPipeline(FILTER, 2, Collections.singletonList(failing));
+
+        ExceptionInInitializerError error = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(ExceptionInInitializerError.class, () -> pipeline.run(directory, r -> {})));
+
+        assertEquals("Rule failed", error.getMessage());
+    }
+
+    @Test
+    void rethrowsErrorFromMissingDirectory() {
+        ValidationPipeline pipeline = new ValidationPipeline(FILTER, 2);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(IOException.class, () -> pipeline.run(directory.resolve("missing"), r -> {})));
+    }
+
+    private static long countStatus(JsonNode array, String status) {
+        long count = 0;
+        for (JsonNode node : array) {
+            if (status.equals(node.get("status").asText())) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.unit.MekBuild;
+import org.megamek.mekbuilder.unit.UnitLocation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArmorMountTest {
+
+    private static int allocated(MekBuild mek, UnitLocation loc) {
+        return mek.getArmorPoints(loc) + mek.getRearArmorPoints(loc);
+    }
+
+    @Test
+    void allocateWithinMaximum() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        ArmorMount armor = mek.getArmorMount();
+
+        armor.allocate(8.0, ArmorProfile.DEFAULT);
+
+        assertAll(
+                () -> assertEquals(armor.getTotalArmorPoints(), armor.getAllocationArmorPoints()),
+                () -> assertEquals(mek.getMaxArmorPoints(UnitLocation.MEK_HEAD),
+                        mek.getArmorPoints(UnitLocation.MEK_HEAD)),
+                () -> assertTrue(mek.getRearArmorPoints(UnitLocation.MEK_CTORSO) > 0),
+                () -> assertTrue(mek.getRearArmorPoints(UnitLocation.MEK_CTORSO)
+                        < mek.getArmorPoints(UnitLocation.MEK_CTORSO)),
+                () -> assertEquals(allocated(mek, UnitLocation.MEK_LARM), allocated(mek, UnitLocation.MEK_RARM)),
+                () -> {
+                    for (UnitLocation loc : mek.getLocationSet()) {
+                        assertTrue(allocated(mek, loc) <= mek.getMaxArmorPoints(loc), loc.name());
+                    }
+                }
+        );
+    }
+
+    @Test
+    void allocateExcessTonnage() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        ArmorMount armor = mek.getArmorMount();
+
+        armor.allocate(30.0, new ArmorProfile(0.0, 0.0));
+
+        assertAll(
+                () -> assertEquals(0, mek.getRearArmorPoints(UnitLocation.MEK_CTORSO)),
+                () -> {
+                    for (UnitLocation loc : mek.getLocationSet()) {
+                        if (loc.isArmored()) {
+                            assertEquals(mek.getMaxArmorPoints(loc), allocated(mek, loc), loc.name());
+                        }
+                    }
+                }
+        );
+    }
+
+    @Test
+    void allocateAllMatchesSingleAllocation() {
+        MekBuild reference = new MekBuild();
+        reference.setTonnage(65);
+        reference.getArmorMount().allocate(9.5, ArmorProfile.DEFAULT);
+        List<ArmorMount> mounts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            MekBuild mek = new MekBuild();
+            mek.setTonnage(65);
+            mounts.add(mek.getArmorMount());
+        }
+
+        ArmorProfile.DEFAULT.allocateAll(mounts, m -> 9.5);
+
+        for (ArmorMount m : mounts) {
+            for (UnitLocation loc : reference.getLocationSet()) {
+                assertEquals(reference.getArmorPoints(loc), m.getArmorPoints(loc), loc.name());
+                assertEquals(reference.getRearArmorPoints(loc), m.getRearArmorPoints(loc), loc.name());
+            }
+        }
+    }
+
+    @Test
+    void invalidProfile() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new ArmorProfile(1.5, 1.0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new ArmorProfile(0.25, Double.NaN))
+        );
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentCatalogTest {
+
+    @Test
+    void catalogMatchesJson() throws IOException {
+        final Map<ComponentType, List<? extends Component>> json = ComponentLibrary.loadJson();
+        final ObjectMapper mapper = ComponentLibrary.createMapper();
+        final Path file = Files.createTempFile("components", ".catalog");
+        try {
+            try (OutputStream os = Files.newOutputStream(file)) {
+                ComponentCatalog.write(json, os);
+            }
+
+            final ComponentCatalog catalog = ComponentCatalog.open(file);
+
+            for (ComponentType type : ComponentType.values()) {
+                final List<? extends Component> expected = json.getOrDefault(type, Collections.emptyList());
+                final List<Component> actual = catalog.read(type);
+                assertEquals(expected.size(), actual.size(), type.name());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+                    assertEquals(normalize(mapper.valueToTree(expected.get(i))),
+                            normalize(mapper.valueToTree(actual.get(i))),
+                            expected.get(i).getInternalName());
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Sorts arrays of strings, since Jackson reads sets of enums as hash sets.
+     */
+    static JsonNode normalize(JsonNode node) {
+        if (node.isObject()) {
+            node.fields().forEachRemaining(e -> ((ObjectNode) node).set(e.getKey(), normalize(e.getValue())));
+        } else if (node.isArray()) {
+            final List<JsonNode> elements = new ArrayList<>();
+            node.elements().forEachRemaining(n -> elements.add(normalize(n)));
+            if (elements.stream().allMatch(JsonNode::isTextual)) {
+                elements.sort(Comparator.comparing(JsonNode::asText));
+            }
+            ((ArrayNode) node).removeAll();
+            ((ArrayNode) node).addAll(elements);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentFootprintTest {
+
+    private static List<Component> flatten(Map<ComponentType, List<? extends Component>> components) {
+        final List<Component> list = new ArrayList<>();
+        components.values().forEach(list::addAll);
+        return list;
+    }
+
+    @Test
+    void compactPreservesValues() {
+        final ObjectMapper mapper = ComponentLibrary.createMapper();
+        final List<Component> original = flatten(ComponentLibrary.loadJson());
+        final List<Component> compacted = flatten(ComponentLibrary.loadJson());
+        final FlyweightPool pool = new FlyweightPool();
+        compacted.forEach(c -> c.compact(pool));
+
+        for (int i = 0; i < original.size(); i++) {
+            final Component expected = original.get(i);
+            final Component actual = compacted.get(i);
+            assertEquals(ComponentCatalogTest.normalize(mapper.valueToTree(expected)),
+                    ComponentCatalogTest.normalize(mapper.valueToTree(actual)), expected.getInternalName());
+            for (ComponentSwitch cs : ComponentSwitch.values()) {
+                assertEquals(expected.hasFlag(cs), actual.hasFlag(cs), expected.getInternalName());
+                assertEquals(expected.flagValue(cs), actual.flagValue(cs), expected.getInternalName());
+            }
+        }
+    }
+
+    @Test
+    void compactReducesRetainedSize() {
+        final GraphLayout loaded = GraphLayout.parseInstance(flatten(ComponentLibrary.loadJson()).toArray());
+        final GraphLayout library = GraphLayout.parseInstance(
+                ComponentLibrary.getInstance().getAllComponents().toArray());
+        System.out.printf("Component library retained size: %,d bytes in %,d objects (%,d bytes in %,d objects as loaded)%n",
+                library.totalSize(), library.totalCount(), loaded.totalSize(), loaded.totalCount());
+
+        assertTrue(library.totalSize() * 2 < loaded.totalSize());
+    }
+}
@@ -18,7 +18,14 @@
  */
 package org.megamek.mekbuilder.component;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.unit.MekBuild;
+import org.megamek.mekbuilder.unit.UnitType;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,4 +50,174 @@ class ComponentLibraryTest {
                 () -> assertTrue(ComponentLibrary.getInstance().getComponent("Jump Jet") instanceof SecondaryMotiveSystem)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetComponentsByType() {
+        final Collection<Component> engines = ComponentLibrary.getInstance().getComponents(ComponentType.ENGINE);
+
+        assertAll(
+                () -> assertTrue(ComponentLibrary.getInstance().isLoaded(ComponentType.ENGINE)),
+                () -> assertFalse(engines.isEmpty()),
+                () -> assertTrue(engines.stream().allMatch(c -> c instanceof MVFEngine))
+        );
+    }
+
+    @Test
+    void testGetComponentsOfTypeLoadsOnlyThatType() {
+        final ComponentLibrary library = new ComponentLibrary();
+
+        library.getComponentsOfType(ComponentType.ENGINE, UnitType.BATTLE_MEK);
+        library.getComponentsOfType(ComponentType.MEK_STRUCTURE, UnitType.BATTLE_MEK);
+        library.getComponentsOfType(ComponentType.ARMOR);
+
+        assertEquals(EnumSet.of(ComponentType.ENGINE, ComponentType.MEK_STRUCTURE, ComponentType.ARMOR),
+                library.getLoadTimes().keySet());
+    }
+
+    @Test
+    void testNewMekDoesNotLoadWeapons() {
+        final ComponentLibrary previous = ComponentLibrary.setInstance(new ComponentLibrary());
+        try {
+            new MekBuild();
+
+            final ComponentLibrary library = ComponentLibrary.getInstance();
+            assertAll(
+                    () -> assertTrue(library.isLoaded(ComponentType.MEK_STRUCTURE)),
+                    () -> assertFalse(library.isLoaded(ComponentType.HEAVY_WEAPON)),
+                    () -> assertFalse(library.isLoaded(ComponentType.INF_WEAPON))
+            );
+        } finally {
+            ComponentLibrary.setInstance(previous);
+        }
+    }
+
+    @Test
+    void testGetComponentsOfTypeForUnitTypeIsCached() {
+        final ComponentLibrary library = ComponentLibrary.getInstance();
+
+        assertSame(library.getComponentsOfType(ComponentType.GYRO, UnitType.BATTLE_MEK),
+                library.getComponentsOfType(ComponentType.GYRO, UnitType.BATTLE_MEK));
+    }
+
+    @Test
+    void testComponentsAreInDataFilesForTheirType() {
+        final ComponentLibrary library = ComponentLibrary.getInstance();
+
+        for (ComponentType file : ComponentType.values()) {
+            for (Component c : library.getComponents(file)) {
+                assertTrue(ComponentLibrary.dataFiles(c.getType()).contains(file), c.getInternalName());
+            }
+        }
+        for (ComponentType type : ComponentType.values()) {
+            assertEquals(library.getAllComponents().stream().filter(c -> c.getType() == type)
+                    .collect(Collectors.toList()), library.getComponentsOfType(type), type.name());
+        }
+    }
+
+    @Test
+    void testConcurrentLoadReturnsSameComponents() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Callable<Component>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> ComponentLibrary.getInstance().getComponent("Small Laser"));
+        }
+
+        final List<Future<Component>> results = executor.invokeAll(tasks);
+        executor.shutdown();
+
+        final Component expected = ComponentLibrary.getInstance().getComponent("Small Laser");
+        for (Future<Component> result : results) {
+            assertSame(expected, result.get());
+        }
+    }
+
+    @Test
+    void testParallelLoadAll() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        ComponentLibrary.getInstance().loadAll(pool);
+        pool.shutdown();
+
+        final Map<ComponentType, Long> times = ComponentLibrary.getInstance().getLoadTimes();
+        for (ComponentType type : ComponentType.values()) {
+            assertAll(
+                    () -> assertTrue(ComponentLibrary.getInstance().isLoaded(type)),
+                    () -> assertTrue(times.containsKey(type))
+            );
+        }
+    }
+
+    @Test
+    void testStreamingParserMatchesDatabind() {
+        final ObjectMapper mapper = ComponentLibrary.createMapper();
+
+        for (ComponentType type : ComponentType.values()) {
+            final List<? extends Component> expected = ComponentLibrary.loadJson(mapper, type);
+            final List<? extends Component> actual = ComponentLibrary.readJson(mapper.getFactory(), type);
+
+            if (null == expected) {
+                assertNull(actual);
+            } else {
+                assertEquals(expected.size(), actual.size(), type.name());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+                    assertEquals(ComponentCatalogTest.normalize(mapper.valueToTree(expected.get(i))),
+                            ComponentCatalogTest.normalize(mapper.valueToTree(actual.get(i))),
+                            expected.get(i).getInternalName());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testIndexesMatchFullScan() {
+        final ComponentLibrary library = ComponentLibrary.getInstance();
+        final Collection<Component> all = library.getAllComponents();
+
+        assertAll(
+                () -> assertEquals(all.stream().filter(c -> c.getType() == ComponentType.HEAT_SINK).collect(Collectors.toSet()),
+                        new HashSet<>(library.getComponentsOfType(ComponentType.HEAT_SINK))),
+                () -> assertEquals(all.stream().filter(c -> c.getType() == ComponentType.GYRO && c.allowed(UnitType.PROTOMEK))
+                                .collect(Collectors.toSet()),
+                        new HashSet<>(library.getComponentsOfType(ComponentType.GYRO, UnitType.PROTOMEK))),
+                () -> assertEquals(all.stream().filter(c -> c.hasFlag(ComponentSwitch.SUPERHEAVY_MEK)).collect(Collectors.toSet()),
+                        new HashSet<>(library.getComponentsWithFlag(ComponentSwitch.SUPERHEAVY_MEK))),
+                () -> assertEquals(all.stream().filter(c -> c.allowed(UnitType.BATTLE_ARMOR)).collect(Collectors.toSet()),
+                        new HashSet<>(library.getComponentsAllowed(UnitType.BATTLE_ARMOR)))
+        );
+    }
+
+    @Test
+    void testMMNameIndexMatchesFullScan() {
+        final ComponentLibrary library = ComponentLibrary.getInstance();
+        final Collection<Component> all = library.getAllComponents();
+
+        assertAll(
+                () -> assertEquals(all.stream().filter(c -> c.getMMName().equals("Medium Laser")).collect(Collectors.toSet()),
+                        new HashSet<>(library.getComponentsByMMName("Medium Laser"))),
+                () -> assertEquals(all.stream().filter(c -> Arrays.asList(c.getMMName().split(",")).contains("CLERFlamer"))
+                                .collect(Collectors.toSet()),
+                        new HashSet<>(library.getComponentsByMMName("CLERFlamer"))),
+                () -> assertEquals(library.getComponentsByMMName("XL"), library.getComponentsByMMName(" xl ")),
+                () -> assertTrue(library.getComponentsByMMName("XL").size() > 1),
+                () -> assertTrue(library.getComponentsByMMName("No Such Equipment").isEmpty())
+        );
+    }
+
+    @Test
+    void testIncompatibilityMatrixMatchesComponents() {
+        final ComponentLibrary library = ComponentLibrary.getInstance();
+        final List<Component> all = new ArrayList<>(library.getAllComponents());
+
+        for (Component first : all) {
+            final BitSet row = library.incompatibleWithAny(Collections.singletonList(first));
+            for (Component second : all) {
+                final boolean expected = first.incompatibleWith(second);
+                if ((library.incompatible(first, second) != expected)
+                        || (row.get(library.getOrdinal(second)) != expected)) {
+                    fail(first.getInternalName() + " / " + second.getInternalName());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.component;
+
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.tech.Faction;
+import org.megamek.mekbuilder.tech.ITechFilter;
+import org.megamek.mekbuilder.tech.ITechProgression;
+import org.megamek.mekbuilder.tech.TechBase;
+import org.megamek.mekbuilder.tech.TechLevel;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TechAvailabilityIndexTest {
+
+    /**
+     * A filter that is not a {@link TechAvailabilityIndex.FilterKey}, using the default legality test.
+     */
+    private static class Filter implements ITechFilter {
+        private final ITechFilter values;
+
+        Filter(ITechFilter values) {
+            this.values = values;
+        }
+
+        @Override
+        public int getYear() {
+            return values.getYear();
+        }
+
+        @Override
+        public TechBase getTechBase() {
+            return values.getTechBase();
+        }
+
+        @Override
+        public TechLevel getTechLevel() {
+            return values.getTechLevel();
+        }
+
+        @Override
+        public Faction getFaction() {
+            return values.getFaction();
+        }
+
+        @Override
+        public boolean eraBasedProgression() {
+            return values.eraBasedProgression();
+        }
+
+        @Override
+        public boolean hideExtinct() {
+            return values.hideExtinct();
+        }
+    }
+
+    @Test
+    void legalMatchesFilter() {
+        final ComponentIndex components = ComponentLibrary.getInstance().getIndex();
+        final TechAvailabilityIndex index = new TechAvailabilityIndex(components, 4);
+        final TechAvailabilityIndex.FilterKey[] filters = {
+                new TechAvailabilityIndex.FilterKey(3025, TechBase.IS, TechLevel.STANDARD, null, false, true),
+                new TechAvailabilityIndex.FilterKey(3067, TechBase.CLAN, TechLevel.ADVANCED, Faction.CSF, true, false),
+                new TechAvailabilityIndex.FilterKey(3145, TechBase.ALL, TechLevel.EXPERIMENTAL, Faction.CS, true, true)
+        };
+
+        for (TechAvailabilityIndex.FilterKey filter : filters) {
+            final BitSet legal = index.legal(filter);
+            for (int i = 0; i < components.size(); i++) {
+                assertEquals(filter.isLegal(components.get(i)), legal.get(i), components.get(i).getInternalName());
+            }
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        final TechAvailabilityIndex index = new TechAvailabilityIndex(ComponentLibrary.getInstance().getIndex(), 2);
+        final TechAvailabilityIndex.FilterKey first =
+                new TechAvailabilityIndex.FilterKey(3025, TechBase.IS, TechLevel.STANDARD, null, false, true);
+        final TechAvailabilityIndex.FilterKey second =
+                new TechAvailabilityIndex.FilterKey(3050, TechBase.IS, TechLevel.STANDARD, null, false, true);
+        final TechAvailabilityIndex.FilterKey third =
+                new TechAvailabilityIndex.FilterKey(3075, TechBase.IS, TechLevel.STANDARD, null, false, true);
+
+        index.legal(first);
+        index.legal(second);
+        index.legal(first);
+        index.legal(third);
+
+        assertAll(
+                () -> assertEquals(2, index.cachedCount()),
+                () -> assertTrue(index.isCached(first)),
+                () -> assertFalse(index.isCached(second)),
+                () -> assertTrue(index.isCached(third))
+        );
+    }
+
+    @Test
+    void customLegalityIsNotCached() {
+        final TechAvailabilityIndex index = new TechAvailabilityIndex(ComponentLibrary.getInstance().getIndex(), 4);
+        final TechAvailabilityIndex.FilterKey key =
+                new TechAvailabilityIndex.FilterKey(3067, TechBase.ALL, TechLevel.EXPERIMENTAL, null, false, false);
+        final Filter plain = new Filter(key);
+        final Filter nothingLegal = new Filter(key) {
+            @Override
+            public boolean isLegal(ITechProgression tech, boolean hideExtinct) {
+                return false;
+            }
+        };
+        final Component laser = ComponentLibrary.getInstance().getComponent("Medium Laser");
+
+        final BitSet plainLegal = index.legal(plain);
+        final BitSet customLegal = index.legal(nothingLegal);
+
+        assertAll(
+                () -> assertEquals(index.legal(key), plainLegal),
+                () -> assertTrue(index.isCached(plain)),
+                () -> assertTrue(customLegal.isEmpty()),
+                () -> assertTrue(index.isLegal(key, laser)),
+                () -> assertFalse(index.isLegal(nothingLegal, laser)),
+                () -> assertTrue(index.legalComponents(nothingLegal, ComponentType.HEAVY_WEAPON).isEmpty()),
+                () -> assertFalse(index.isCached(nothingLegal)),
+                () -> assertEquals(1, index.cachedCount())
+        );
+    }
+}
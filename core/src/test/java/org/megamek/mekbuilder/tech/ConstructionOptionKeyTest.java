@@ -18,8 +18,13 @@
  */
 package org.megamek.mekbuilder.tech;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.StringJoiner;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,4 +45,42 @@ class ConstructionOptionKeyTest {
 
         assertEquals("", sb.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testKeysShareRegistry() {
+        final ConstructionOption option = ConstructionOptionKey.MEK_STANDARD.get();
+
+        final ConstructionOption fromRegistry = ConstructionOptionRegistry.loadAll().get(ConstructionOptionKey.MEK_STANDARD);
+
+        assertAll(
+                () -> assertSame(option, fromRegistry),
+                () -> assertSame(option, ConstructionOptionKey.MEK_STANDARD.get()),
+                () -> assertEquals(ConstructionOptionKey.values().length, ConstructionOptionRegistry.loadAll().size()),
+                () -> assertTrue(ConstructionOptionRegistry.getInstance().getLoadTimeNanos() > 0)
+        );
+    }
+
+    @Test
+    void testStreamingParserMatchesDatabind() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE));
+        final List<ConstructionOption> expected;
+        final List<ConstructionOption> actual;
+
+        try (InputStream is = ConstructionOption.class.getResourceAsStream("construction_options.json")) {
+            expected = ConstructionOptionRegistry.readDatabind(is);
+        }
+        try (InputStream is = ConstructionOption.class.getResourceAsStream("construction_options.json")) {
+            actual = ConstructionOptionRegistry.readStreaming(is);
+        }
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+            assertEquals(mapper.valueToTree(expected.get(i)), mapper.valueToTree(actual.get(i)));
+        }
+    }
+}
@@ -52,4 +52,33 @@ class TechProgressionTest {
                 () -> assertFalse(prog.extinct(2900, true))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFactionDates() {
+        final String str = "IS|E|XEDC|~2590(TH),2600(TH),-,2860,3035(FS/LC)|-,-,-,-,-|ADVANCED";
+        final TechProgression prog = TechProgression.parse(str);
+
+        assertAll(
+                () -> assertEquals(str, prog.toString()),
+                () -> assertEquals(2585, prog.getDate(TechStage.PROTOTYPE, false).intValue()),
+                () -> assertNull(prog.getDate(TechStage.PROTOTYPE, true)),
+                () -> assertFalse(prog.factionDelay(TechStage.PROTOTYPE, Faction.TH)),
+                () -> assertFalse(prog.factionDelay(TechStage.PROTOTYPE, null)),
+                () -> assertTrue(prog.factionDelay(TechStage.PROTOTYPE, Faction.DC)),
+                () -> assertTrue(prog.factionDelay(TechStage.PROTOTYPE, Faction.CF)),
+                () -> assertFalse(prog.factionDelay(TechStage.REINTRODUCTION, Faction.LC)),
+                () -> assertFalse(prog.factionDelay(TechStage.COMMON, Faction.DC)),
+                () -> assertNull(prog.getDate(TechStage.PROTOTYPE, false, Faction.DC)),
+                () -> assertEquals(2610, prog.getDate(TechStage.PRODUCTION, false, Faction.DC).intValue()),
+                () -> assertEquals(2860, prog.getDate(TechStage.EXTINCTION, false, Faction.DC).intValue()),
+                () -> assertNull(prog.getDate(TechStage.EXTINCTION, false, Faction.TH)),
+                () -> assertEquals(3045, prog.getDate(TechStage.REINTRODUCTION, false, Faction.DC).intValue()),
+                () -> assertEquals(2610, prog.introDate(false, Faction.DC).intValue()),
+                () -> assertTrue(prog.extinct(2900, false, Faction.DC)),
+                () -> assertFalse(prog.extinct(2900, false, Faction.CS)),
+                () -> assertFalse(prog.availableIn(2600, false, Faction.DC)),
+                () -> assertTrue(prog.availableIn(2600, false, Faction.TH)),
+                () -> assertEquals(TechLevel.EXPERIMENTAL, prog.simpleLevel(2600, false, Faction.TH))
+        );
+    }
+}
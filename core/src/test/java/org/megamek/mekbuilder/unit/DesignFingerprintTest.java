@@ -0,0 +1,106 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.component.ComponentLibrary;
+import org.megamek.mekbuilder.component.Mount;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DesignFingerprintTest {
+
+    private static MekBuild design() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        mek.setBaseWalkMP(5);
+        mek.getHeatSinkMount().setCount(4);
+        Mount laser = mek.createMount(ComponentLibrary.getInstance().getComponent("Large Laser"));
+        laser.setLocation(UnitLocation.MEK_RARM);
+        mek.addMount(laser);
+        return mek;
+    }
+
+    @Test
+    void sameDesignHasSameFingerprint() {
+        MekBuild mek = design();
+        MekBuild other = design();
+        other.setChassis("Renamed");
+        other.setModel("X");
+
+        assertAll(
+                () -> assertEquals(mek.fingerprint(), other.fingerprint()),
+                () -> assertEquals(mek.fingerprint(), mek.copy().fingerprint()),
+                () -> assertEquals(mek.fingerprint().hashCode(), other.fingerprint().hashCode())
+        );
+    }
+
+    @Test
+    void changesAffectingStatsChangeFingerprint() {
+        final DesignFingerprint base = design().fingerprint();
+
+        MekBuild tonnage = design();
+        tonnage.setTonnage(55);
+        MekBuild heatSinks = design();
+        heatSinks.getHeatSinkMount().setCount(5);
+        MekBuild location = design();
+        location.getComponents().get(location.getComponents().size() - 1).setLocation(UnitLocation.MEK_LARM);
+        MekBuild armor = design();
+        armor.getArmorMount().setArmorPoints(UnitLocation.MEK_HEAD, 9);
+        MekBuild configuration = design();
+        configuration.setConfiguration(MekConfiguration.getConfiguration(UnitType.BATTLE_MEK,
+                MekConfiguration.SubType.STANDARD_QUAD));
+
+        assertAll(
+                () -> assertNotEquals(base, tonnage.fingerprint()),
+                () -> assertNotEquals(base, heatSinks.fingerprint()),
+                () -> assertNotEquals(base, location.fingerprint()),
+                () -> assertNotEquals(base, armor.fingerprint()),
+                () -> assertNotEquals(base, configuration.fingerprint())
+        );
+    }
+
+    @Test
+    void parseReversesToString() {
+        final DesignFingerprint fingerprint = design().fingerprint();
+        final String text = fingerprint.toString();
+
+        assertAll(
+                () -> assertEquals(32, text.length()),
+                () -> assertEquals(fingerprint, DesignFingerprint.parse(text)),
+                () -> assertThrows(IllegalArgumentException.class, () -> DesignFingerprint.parse("abc")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> DesignFingerprint.parse(text.replace(text.charAt(0), 'z')))
+        );
+    }
+
+    @Test
+    void valueTypesAreDistinguished() {
+        final DesignFingerprint string = DesignFingerprint.builder().add("TTT").build();
+        final DesignFingerprint values = DesignFingerprint.builder().add(3L).add(true).add(true).add(true).build();
+        final DesignFingerprint number = DesignFingerprint.builder().add(3L).build();
+        final DesignFingerprint empty = DesignFingerprint.builder().add("").build();
+
+        assertAll(
+                () -> assertNotEquals(string, values),
+                () -> assertNotEquals(number, empty),
+                () -> assertNotEquals(empty, DesignFingerprint.builder().add((String) null).build())
+        );
+    }
+}
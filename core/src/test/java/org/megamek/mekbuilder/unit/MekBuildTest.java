@@ -23,7 +23,12 @@ import org.megamek.mekbuilder.component.*;
 import org.megamek.mekbuilder.tech.ConstructionOptionKey;
 import org.megamek.mekbuilder.tech.UnitConstructionOption;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  *
@@ -306,4 +311,199 @@ class MekBuildTest {
 
         assertEquals(13, mek.heatDissipation());
     }
-}
\ No newline at end of file
+
+    @Test
+    void cachedTotalsUpdateAfterChanges() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        final double baseWeight = mek.buildWeight();
+        final long revision = mek.getRevision();
+        final double repeatWeight = mek.buildWeight();
+        final long repeatRevision = mek.getRevision();
+
+        Mount laser = mek.createMount(ComponentLibrary.getInstance().getComponent("Large Laser"));
+        mek.addMount(laser);
+        final double withLaser = mek.buildWeight();
+        final double weaponTonnage = mek.getWeaponTonnage();
+        final double energyTonnage = mek.getEnergyWeaponTonnage();
+        final int weaponHeat = mek.maxWeaponHeat();
+
+        mek.setTonnage(60);
+        final double heavier = mek.buildWeight();
+
+        mek.removeMount(laser);
+
+        assertAll(
+                () -> assertEquals(baseWeight, repeatWeight),
+                () -> assertEquals(revision, repeatRevision),
+                () -> assertEquals(baseWeight + 5.0, withLaser, 0.001),
+                () -> assertEquals(5.0, weaponTonnage, 0.001),
+                () -> assertEquals(5.0, energyTonnage, 0.001),
+                () -> assertEquals(8, weaponHeat),
+                () -> assertTrue(heavier > withLaser),
+                () -> assertEquals(0.0, mek.getWeaponTonnage()),
+                () -> assertEquals(0, mek.maxWeaponHeat()),
+                () -> assertTrue(mek.getRevision() > revision),
+                () -> assertThrows(UnsupportedOperationException.class, () -> mek.getComponents().add(laser))
+        );
+    }
+
+    @Test
+    void buildWeightDoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        mek.addMount(mek.createMount(ComponentLibrary.getInstance().getComponent("Large Laser")));
+        mek.getHeatSinkMount().setCount(4);
+        double total = 0;
+        // Warm up so that any allocation done while loading classes or compiling is excluded
+        for (int i = 0; i < 20000; i++) {
+            mek.markModified();
+            total += mek.buildWeight();
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10000; i++) {
+            mek.markModified();
+            total += mek.buildWeight();
+        }
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - start;
+
+        assertTrue(total > 0);
+        // Allow for anything allocated by the bean itself, which is far less than one byte per calculation
+        assertTrue(allocated < 10000, "buildWeight allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void compatibleWithInstalledUsesCurrentComponents() {
+        ComponentLibrary library = ComponentLibrary.getInstance();
+        Component masc = library.getComponent("ISMASC");
+        Component clanMasc = library.getComponent("CLMASC");
+        Component tsm = library.getComponent("TSM");
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+
+        boolean mascBefore = mek.compatibleWithInstalled(masc);
+        mek.setMyomerType(tsm);
+        boolean mascWithTsm = mek.compatibleWithInstalled(masc);
+        boolean maskWithTsm = mek.incompatibleWithInstalled().get(library.getOrdinal(masc));
+        mek.setMyomerType(library.getComponent(ComponentKeys.MYOMER_STANDARD));
+        mek.addMount(mek.createMount(masc));
+
+        assertAll(
+                () -> assertTrue(mascBefore),
+                () -> assertFalse(mascWithTsm),
+                () -> assertTrue(maskWithTsm),
+                () -> assertTrue(mek.compatibleWithInstalled(masc)),
+                () -> assertFalse(mek.compatibleWithInstalled(clanMasc)),
+                () -> assertFalse(mek.compatibleWithInstalled(tsm))
+        );
+    }
+
+    @Test
+    void copyIsIndependentOfOriginal() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        mek.setBaseWalkMP(5);
+        mek.getHeatSinkMount().setCount(4);
+        mek.addMount(mek.createMount(ComponentLibrary.getInstance().getComponent("Large Laser")));
+        final double weight = mek.buildWeight();
+
+        MekBuild copy = mek.copy();
+        final double copyWeight = copy.buildWeight();
+        final int copyHeat = copy.maxWeaponHeat();
+        final long copyRevision = copy.getRevision();
+        final int copyRating = copy.getEngineRating();
+        copy.setTonnage(60);
+        copy.getHeatSinkMount().setCount(6);
+        copy.addMount(copy.createMount(ComponentLibrary.getInstance().getComponent("Large Laser")));
+
+        assertAll(
+                () -> assertEquals(weight, copyWeight),
+                () -> assertEquals(8, copyHeat),
+                () -> assertEquals(mek.getRevision(), copyRevision),
+                () -> assertEquals(250, copyRating),
+                () -> assertEquals(50, mek.getTonnage()),
+                () -> assertEquals(250, mek.getEngineRating()),
+                () -> assertEquals(4, mek.getHeatSinkMount().getCount()),
+                () -> assertEquals(weight, mek.buildWeight()),
+                () -> assertEquals(8, mek.maxWeaponHeat()),
+                () -> assertEquals(16, copy.maxWeaponHeat()),
+                () -> assertTrue(copy.getComponents().contains(copy.getHeatSinkMount())),
+                () -> assertTrue(copy.getComponents().stream().allMatch(m -> m.getUnit() == copy)),
+                () -> assertTrue(copy.getComponents().stream().noneMatch(mek.getComponents()::contains))
+        );
+    }
+
+    @Test
+    void occupiedSlotsTrackMountChanges() {
+        ComponentLibrary library = ComponentLibrary.getInstance();
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        Mount large = mek.createMount(library.getComponent("Large Laser"));
+        large.setLocation(UnitLocation.MEK_RARM);
+        mek.addMount(large);
+        final int initial = mek.getOccupiedSlots(UnitLocation.MEK_RARM);
+
+        Mount medium = mek.createMount(library.getComponent("Medium Laser"));
+        medium.setLocation(UnitLocation.MEK_RARM);
+        mek.addMount(medium);
+        final int added = mek.getOccupiedSlots(UnitLocation.MEK_RARM);
+        mek.moveMount(large, UnitLocation.MEK_LTORSO);
+        final int movedFrom = mek.getOccupiedSlots(UnitLocation.MEK_RARM);
+        final int movedTo = mek.getOccupiedSlots(UnitLocation.MEK_LTORSO);
+        medium.setLocation(UnitLocation.MEK_LARM);
+        final int setDirectly = mek.getOccupiedSlots(UnitLocation.MEK_LARM);
+        mek.removeMount(large);
+
+        assertAll(
+                () -> assertEquals(2, initial),
+                () -> assertEquals(3, added),
+                () -> assertEquals(1, movedFrom),
+                () -> assertEquals(2, movedTo),
+                () -> assertEquals(1, setDirectly),
+                () -> assertEquals(5, mek.getOccupiedSlots(UnitLocation.MEK_HEAD)),
+                () -> assertEquals(10, mek.getOccupiedSlots(UnitLocation.MEK_CTORSO)),
+                () -> assertEquals(0, mek.getOccupiedSlots(UnitLocation.MEK_LTORSO)),
+                () -> assertEquals(0, mek.getOccupiedSlots(UnitLocation.MEK_RTORSO)),
+                () -> assertEquals(1, mek.getOccupiedSlots(UnitLocation.MEK_LARM)),
+                () -> assertEquals(0, mek.getOccupiedSlots(UnitLocation.MEK_RARM)),
+                () -> assertEquals(0, mek.getOccupiedSlots(UnitLocation.MEK_LLEG)),
+                () -> assertEquals(0, mek.getOccupiedSlots(UnitLocation.MEK_RLEG)),
+                () -> assertEquals(11, mek.getFreeSlots(UnitLocation.MEK_LARM)),
+                () -> assertEquals(2, mek.getFreeSlots(UnitLocation.MEK_CTORSO))
+        );
+    }
+
+    @Test
+    void occupiedSlotsRecountTargetingComputer() {
+        ComponentLibrary library = ComponentLibrary.getInstance();
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(100);
+        Mount tc = mek.createMount(library.getComponent("ISTargeting Computer"));
+        tc.setLocation(UnitLocation.MEK_RTORSO);
+        mek.addMount(tc);
+        final int empty = mek.getOccupiedSlots(UnitLocation.MEK_RTORSO);
+
+        List<Mount> weapons = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Mount ac = mek.createMount(library.getComponent("Autocannon/20"));
+            weapons.add(ac);
+            mek.addMount(ac);
+        }
+        final int linked = mek.getOccupiedSlots(UnitLocation.MEK_RTORSO);
+        mek.removeMount(weapons.get(0));
+        mek.removeMount(weapons.get(1));
+        final int removed = mek.getOccupiedSlots(UnitLocation.MEK_RTORSO);
+
+        assertAll(
+                () -> assertEquals(0, empty),
+                () -> assertEquals(14, linked),
+                () -> assertEquals(7, removed)
+        );
+    }
+}
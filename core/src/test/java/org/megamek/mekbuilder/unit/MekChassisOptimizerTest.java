@@ -0,0 +1,113 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.component.ComponentKeys;
+import org.megamek.mekbuilder.component.TechAvailabilityIndex;
+import org.megamek.mekbuilder.tech.ITechFilter;
+import org.megamek.mekbuilder.tech.TechBase;
+import org.megamek.mekbuilder.tech.TechLevel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MekChassisOptimizerTest {
+
+    private static final ITechFilter ADVANCED_3067 =
+            new TechAvailabilityIndex.FilterKey(3067, TechBase.IS, TechLevel.ADVANCED, null, false, true);
+    private static final ITechFilter STANDARD_3025 =
+            new TechAvailabilityIndex.FilterKey(3025, TechBase.IS, TechLevel.STANDARD, null, false, true);
+
+    @Test
+    void frontMembersMeetRequirements() throws Exception {
+        MekChassisOptimizer optimizer = new MekChassisOptimizer(50, 5, 3, ADVANCED_3067);
+        List<ChassisCandidate> front = optimizer.optimize();
+
+        assertFalse(front.isEmpty());
+        for (ChassisCandidate c : front) {
+            assertAll(
+                    () -> assertEquals(250, c.getEngineRating()),
+                    () -> assertNotNull(c.getJumpJets()),
+                    () -> assertTrue(c.getFreeTonnage() >= 0),
+                    () -> assertEquals(50.0, c.getChassisWeight() + c.getArmorTonnage() + c.getFreeTonnage(), 0.001),
+                    () -> assertTrue(c.getSlots() <= 78)
+            );
+            for (ChassisCandidate other : front) {
+                assertTrue(c == other || !other.dominates(c));
+            }
+        }
+    }
+
+    @Test
+    void introductoryTechUsesStandardComponents() throws Exception {
+        List<ChassisCandidate> front = new MekChassisOptimizer(35, 8, 5, STANDARD_3025).optimize();
+
+        assertAll(
+                () -> assertEquals(1, front.size()),
+                () -> assertEquals(ComponentKeys.ENGINE_FUSION, front.get(0).getEngine().getInternalName()),
+                () -> assertEquals(280, front.get(0).getEngineRating()),
+                () -> assertEquals(ComponentKeys.ARMOR_STANDARD, front.get(0).getArmor().getInternalName())
+        );
+    }
+
+    @Test
+    void impossibleMovementHasNoCandidates() throws Exception {
+        assertTrue(new MekChassisOptimizer(100, 6, 0, ADVANCED_3067).optimize().isEmpty());
+    }
+
+    @Test
+    void parallelSearchMatchesSingleThread() throws Exception {
+        MekChassisOptimizer optimizer = new MekChassisOptimizer(80, 5, 0, ADVANCED_3067);
+        List<ChassisCandidate> reported = Collections.synchronizedList(new ArrayList<>());
+        List<ChassisCandidate> parallel = optimizer.start(reported::add).get();
+        List<ChassisCandidate> sequential = optimizer.start(Runnable::run, c -> {}).get();
+
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < parallel.size(); i++) {
+            assertEquals(sequential.get(i).getFreeTonnage(), parallel.get(i).getFreeTonnage());
+            assertEquals(sequential.get(i).getArmorPoints(), parallel.get(i).getArmorPoints());
+            assertTrue(reported.contains(parallel.get(i)));
+        }
+    }
+
+    @Test
+    void cancelStopsSearch() throws Exception {
+        List<Runnable> queued = new ArrayList<>();
+        Executor held = queued::add;
+        MekChassisOptimizer.Search search = new MekChassisOptimizer(50, 5, 3, ADVANCED_3067)
+                .start(held, c -> {});
+
+        assertTrue(search.cancel(false));
+        queued.forEach(Runnable::run);
+
+        assertAll(
+                () -> assertTrue(search.isCancelled()),
+                () -> assertTrue(search.isDone()),
+                () -> assertThrows(CancellationException.class, search::get),
+                () -> assertTrue(search.getFront().isEmpty()),
+                () -> assertEquals(0, search.getEvaluatedCount())
+        );
+    }
+}
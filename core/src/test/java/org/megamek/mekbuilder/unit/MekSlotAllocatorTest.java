@@ -0,0 +1,174 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.component.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MekSlotAllocatorTest {
+
+    private final ComponentLibrary library = ComponentLibrary.getInstance();
+
+    private MekBuild crowdedMek() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        mek.getArmorMount().setComponent(library.getComponent("IS Ferro-Fibrous"));
+        mek.setAdditionalHeatSinkCount(6);
+        for (int i = 0; i < 4; i++) {
+            mek.addMount(mek.createMount(library.getComponent("Medium Laser")));
+        }
+        mek.addMount(mek.createMount(library.getComponent("Large Laser")));
+        Mount jumpJets = mek.createMount(library.getComponent("Jump Jet"));
+        if (jumpJets instanceof CompoundMount) {
+            ((CompoundMount) jumpJets).setCount(4);
+        }
+        mek.addMount(jumpJets);
+        for (int i = 0; i < 3; i++) {
+            mek.addMount(mek.createMount(library.getComponent("ISCASE")));
+        }
+        return mek;
+    }
+
+    @Test
+    void allocatesAllMounts() {
+        MekBuild mek = crowdedMek();
+        Mount fixedInArm = mek.createMount(library.getComponent("Large Laser"));
+        fixedInArm.setLocation(UnitLocation.MEK_RARM);
+        mek.addMount(fixedInArm);
+        MekSlotAllocator allocator = new MekSlotAllocator(mek);
+
+        boolean success = allocator.allocate();
+
+        assertAll(
+                () -> assertTrue(success),
+                () -> assertEquals(UnitLocation.MEK_RARM, fixedInArm.getLocation()),
+                () -> {
+                    for (UnitLocation loc : mek.getLocationSet()) {
+                        assertTrue(mek.getFreeSlots(loc) >= 0, loc.name());
+                    }
+                },
+                () -> {
+                    for (Mount m : mek.getComponents()) {
+                        if (m instanceof DistributedMount) {
+                            if (!mek.hasFixedSlots(m)) {
+                                int slots = 0;
+                                for (Map.Entry<UnitLocation, Integer> entry
+                                        : ((DistributedMount) m).getLocations().entrySet()) {
+                                    assertTrue(m.getComponent().locationIsPermitted(entry.getKey(), mek));
+                                    slots += entry.getValue();
+                                }
+                                assertEquals(m.getComponentSlots(), slots, m.getComponent().getInternalName());
+                            }
+                        } else if ((m.getComponentSlots() > 0) && !mek.hasFixedSlots(m)) {
+                            assertNotEquals(UnitLocation.NO_LOCATION, m.getLocation());
+                            assertTrue(m.getComponent().locationIsPermitted(m.getLocation(), mek));
+                        }
+                    }
+                },
+                () -> {
+                    int slots = 0;
+                    for (int s : mek.getArmorMount().getLocations().values()) {
+                        slots += s;
+                    }
+                    assertEquals(mek.getArmorMount().getComponentSlots(), slots);
+                },
+                () -> {
+                    Map<UnitLocation, Integer> caseCount = new HashMap<>();
+                    for (Mount m : mek.getComponents()) {
+                        if (m.getComponent().getInternalName().equals("ISCASE")) {
+                            caseCount.merge(m.getLocation(), 1, Integer::sum);
+                        }
+                    }
+                    assertEquals(3, caseCount.size());
+                },
+                () -> assertTrue(allocator.getNodeCount() < 10_000)
+        );
+    }
+
+    @Test
+    void allocatesFullSuperheavyTripod() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(150);
+        mek.setConfiguration(MekConfiguration.getConfiguration(UnitType.BATTLE_MEK,
+                MekConfiguration.SubType.STANDARD_TRIPOD));
+        mek.setBaseWalkMP(3);
+        mek.setStructureType(library.getComponent("Superheavy Endo-Steel"));
+        mek.getArmorMount().setComponent(library.getComponent("IS Ferro-Fibrous"));
+        mek.setAdditionalHeatSinkCount(10);
+        for (int i = 0; i < 25; i++) {
+            mek.addMount(mek.createMount(library.getComponent("Medium Laser")));
+        }
+        for (int i = 0; i < 2; i++) {
+            mek.addMount(mek.createMount(library.getComponent("Large Laser")));
+            mek.addMount(mek.createMount(library.getComponent("ISCASE")));
+        }
+        mek.addMount(mek.createMount(library.getComponent("ISLRM 20")));
+        mek.addMount(mek.createMount(library.getComponent("IS Ammo LRM-20")));
+        MekSlotAllocator allocator = new MekSlotAllocator(mek);
+
+        boolean success = allocator.allocate();
+
+        assertAll(
+                () -> assertTrue(mek.isSuperheavy()),
+                () -> assertTrue(mek.isTripod()),
+                () -> assertTrue(success),
+                () -> {
+                    for (UnitLocation loc : mek.getLocationSet()) {
+                        assertEquals(0, mek.getFreeSlots(loc), loc.name());
+                    }
+                },
+                () -> {
+                    for (Mount m : mek.getComponents()) {
+                        if (!(m instanceof DistributedMount) && (m.getComponentSlots() > 0) && !mek.hasFixedSlots(m)) {
+                            assertNotEquals(UnitLocation.NO_LOCATION, m.getLocation());
+                        }
+                    }
+                },
+                () -> assertTrue(allocator.getNodeCount() < 1_000)
+        );
+    }
+
+    @Test
+    void failureLeavesUnitUnchanged() {
+        MekBuild mek = crowdedMek();
+        for (int i = 0; i < 20; i++) {
+            mek.addMount(mek.createMount(library.getComponent("Large Laser")));
+        }
+        final long revision = mek.getRevision();
+
+        boolean success = new MekSlotAllocator(mek).allocate();
+
+        assertAll(
+                () -> assertFalse(success),
+                () -> assertEquals(revision, mek.getRevision()),
+                () -> {
+                    for (Mount m : mek.getComponents()) {
+                        if (!(m instanceof DistributedMount)) {
+                            assertEquals(UnitLocation.NO_LOCATION, m.getLocation());
+                        }
+                    }
+                }
+        );
+    }
+}
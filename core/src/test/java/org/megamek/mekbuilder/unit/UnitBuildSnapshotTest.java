@@ -0,0 +1,109 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.component.ComponentLibrary;
+import org.megamek.mekbuilder.component.Mount;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitBuildSnapshotTest {
+
+    @Test
+    void snapshotCapturesCurrentValues() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        mek.setBaseWalkMP(4);
+        Mount laser = mek.createMount(ComponentLibrary.getInstance().getComponent("Large Laser"));
+        laser.setLocation(UnitLocation.MEK_RARM);
+        mek.addMount(laser);
+
+        UnitBuildSnapshot snapshot = mek.snapshot();
+
+        assertAll(
+                () -> assertEquals(mek.getRevision(), snapshot.getRevision()),
+                () -> assertEquals(50.0, snapshot.getTonnage()),
+                () -> assertEquals(mek.buildWeight(), snapshot.getBuildWeight()),
+                () -> assertEquals(4, snapshot.getWalkMP()),
+                () -> assertEquals(6, snapshot.getRunMP()),
+                () -> assertEquals(8, snapshot.getMaxWeaponHeat()),
+                () -> assertEquals(mek.getComponents().size(), snapshot.getComponents().size()),
+                () -> assertEquals(12, snapshot.getSlots(UnitLocation.MEK_RARM)),
+                () -> assertEquals(laser.getComponentSlots(), snapshot.getUsedSlots(UnitLocation.MEK_RARM)),
+                () -> assertEquals(0, snapshot.getSlots(UnitLocation.MEK_LFLEG)),
+                () -> assertEquals(mek.getMaxArmorPoints(UnitLocation.MEK_CTORSO),
+                        snapshot.getMaxArmorPoints(UnitLocation.MEK_CTORSO)),
+                () -> assertSame(snapshot, mek.getPublishedSnapshot())
+        );
+    }
+
+    @Test
+    void snapshotIsReusedUntilModified() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        UnitBuildSnapshot first = mek.snapshot();
+        UnitBuildSnapshot repeat = mek.snapshot();
+        mek.setTonnage(60);
+        UnitBuildSnapshot second = mek.snapshot();
+
+        assertAll(
+                () -> assertSame(first, repeat),
+                () -> assertNotSame(first, second),
+                () -> assertEquals(50.0, first.getTonnage()),
+                () -> assertEquals(60.0, second.getTonnage()),
+                () -> assertSame(second, mek.getPublishedSnapshot()),
+                () -> assertNull(new MekBuild().getPublishedSnapshot())
+        );
+    }
+
+    @Test
+    void readersSeeConsistentSnapshotsDuringEdits() throws Exception {
+        MekBuild mek = new MekBuild();
+        mek.setBaseWalkMP(4);
+        mek.snapshot();
+        AtomicBoolean done = new AtomicBoolean();
+        CompletableFuture<Integer> reader = CompletableFuture.supplyAsync(() -> {
+            int reads = 0;
+            long lastRevision = -1;
+            while (!done.get()) {
+                UnitBuildSnapshot snapshot = mek.getPublishedSnapshot();
+                // Every edit keeps the walk MP and a legal tonnage; anything else is a partially visible snapshot
+                if ((snapshot.getWalkMP() != 4) || (snapshot.getTonnage() < 20)
+                        || (snapshot.getRevision() < lastRevision)) {
+                    throw new IllegalStateException("Inconsistent snapshot " + snapshot);
+                }
+                lastRevision = snapshot.getRevision();
+                reads++;
+            }
+            return reads;
+        });
+        for (int i = 0; i < 2000; i++) {
+            mek.setTonnage(20 + (i % 17) * 5);
+            mek.snapshot();
+        }
+        done.set(true);
+
+        assertTrue(reader.get(10, TimeUnit.SECONDS) > 0);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.unit;
+
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.component.ArmorMount;
+import org.megamek.mekbuilder.component.ComponentLibrary;
+import org.megamek.mekbuilder.component.Mount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitEditJournalTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void undoAndRedoTonnage() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        mek.setBaseWalkMP(5);
+        final double weight = mek.buildWeight();
+        UnitEditJournal journal = new UnitEditJournal(10, 0, clock::get);
+
+        journal.setTonnage(mek, 100);
+        final double heavier = mek.buildWeight();
+        final boolean undone = journal.undo();
+        final double restored = mek.buildWeight();
+        final int restoredRating = mek.getEngineRating();
+        journal.redo();
+
+        assertAll(
+                () -> assertTrue(undone),
+                () -> assertEquals(weight, restored, 0.001),
+                () -> assertEquals(250, restoredRating),
+                () -> assertEquals(100.0, mek.getTonnage()),
+                () -> assertEquals(heavier, mek.buildWeight(), 0.001),
+                () -> assertEquals(500, mek.getEngineRating()),
+                () -> assertFalse(journal.canRedo())
+        );
+    }
+
+    @Test
+    void rapidChangesAreCoalesced() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        UnitEditJournal journal = new UnitEditJournal(10, 500, clock::get);
+
+        journal.setTonnage(mek, 55);
+        advance(100);
+        journal.setTonnage(mek, 60);
+        advance(100);
+        journal.setTonnage(mek, 65);
+        final int coalesced = journal.getUndoCount();
+        advance(1000);
+        journal.setTonnage(mek, 70);
+        final int afterPause = journal.getUndoCount();
+        journal.undo();
+        final double afterFirstUndo = mek.getTonnage();
+        journal.undo();
+
+        assertAll(
+                () -> assertEquals(1, coalesced),
+                () -> assertEquals(2, afterPause),
+                () -> assertEquals(65.0, afterFirstUndo),
+                () -> assertEquals(50.0, mek.getTonnage()),
+                () -> assertFalse(journal.canUndo())
+        );
+    }
+
+    @Test
+    void changesToDifferentValuesAreNotCoalesced() {
+        MekBuild mek = new MekBuild();
+        ArmorMount armor = mek.getArmorMount();
+        UnitEditJournal journal = new UnitEditJournal(10, 500, clock::get);
+
+        journal.setArmorPoints(armor, UnitLocation.MEK_CTORSO, 10);
+        journal.setArmorPoints(armor, UnitLocation.MEK_CTORSO, 12);
+        journal.setRearArmorPoints(armor, UnitLocation.MEK_CTORSO, 4);
+        journal.setArmorPoints(armor, UnitLocation.MEK_HEAD, 6);
+        final int count = journal.getUndoCount();
+        journal.undo();
+        journal.undo();
+
+        assertAll(
+                () -> assertEquals(3, count),
+                () -> assertEquals(12, armor.getArmorPoints(UnitLocation.MEK_CTORSO)),
+                () -> assertEquals(0, armor.getRearArmorPoints(UnitLocation.MEK_CTORSO)),
+                () -> assertEquals(0, armor.getArmorPoints(UnitLocation.MEK_HEAD))
+        );
+    }
+
+    @Test
+    void removedMountIsRestoredInPlace() {
+        MekBuild mek = new MekBuild();
+        Mount laser = mek.createMount(ComponentLibrary.getInstance().getComponent("Large Laser"));
+        Mount medium = mek.createMount(ComponentLibrary.getInstance().getComponent("Medium Laser"));
+        UnitEditJournal journal = new UnitEditJournal(10, 0, clock::get);
+
+        journal.addMount(mek, laser);
+        journal.addMount(mek, medium);
+        journal.setLocation(laser, UnitLocation.MEK_RARM);
+        final List<Mount> before = new ArrayList<>(mek.getComponents());
+        final boolean removed = journal.removeMount(mek, laser);
+        final boolean contains = mek.getComponents().contains(laser);
+        journal.undo();
+        final List<Mount> restored = new ArrayList<>(mek.getComponents());
+        journal.undo();
+        final UnitLocation location = laser.getLocation();
+        journal.undo();
+        journal.undo();
+
+        assertAll(
+                () -> assertTrue(removed),
+                () -> assertFalse(contains),
+                () -> assertEquals(before, restored),
+                () -> assertEquals(UnitLocation.NO_LOCATION, location),
+                () -> assertFalse(mek.getComponents().contains(laser)),
+                () -> assertFalse(mek.getComponents().contains(medium)),
+                () -> assertFalse(journal.removeMount(mek, laser))
+        );
+    }
+
+    @Test
+    void historyIsBounded() {
+        MekBuild mek = new MekBuild();
+        UnitEditJournal journal = new UnitEditJournal(3, 0, clock::get);
+        for (int t = 25; t <= 50; t += 5) {
+            journal.setTonnage(mek, t);
+        }
+        int count = 0;
+        while (journal.undo()) {
+            count++;
+        }
+        final int undone = count;
+
+        assertAll(
+                () -> assertEquals(3, undone),
+                () -> assertEquals(35.0, mek.getTonnage()),
+                () -> assertEquals(3, journal.getRedoCount())
+        );
+    }
+}
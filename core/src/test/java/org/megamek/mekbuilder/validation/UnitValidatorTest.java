@@ -0,0 +1,133 @@
+/*
+ * MekBuilder - unit design companion of MegaMek
+ * Copyright (C) 2019 The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.megamek.mekbuilder.validation;
+
+import org.junit.jupiter.api.Test;
+import org.megamek.mekbuilder.component.ArmorProfile;
+import org.megamek.mekbuilder.component.ComponentLibrary;
+import org.megamek.mekbuilder.component.Mount;
+import org.megamek.mekbuilder.unit.MekBuild;
+import org.megamek.mekbuilder.unit.UnitLocation;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitValidatorTest {
+
+    private final ComponentLibrary library = ComponentLibrary.getInstance();
+
+    private MekBuild createMek() {
+        MekBuild mek = new MekBuild();
+        mek.setTonnage(50);
+        mek.getArmorMount().allocate(8.0, ArmorProfile.DEFAULT);
+        return mek;
+    }
+
+    private Mount addMount(MekBuild mek, String key, UnitLocation loc) {
+        Mount m = mek.createMount(library.getComponent(key));
+        m.setLocation(loc);
+        mek.addMount(m);
+        return m;
+    }
+
+    private static Set<ValidationRule> failedRules(List<ValidationIssue> issues) {
+        return issues.stream().map(ValidationIssue::getRule).collect(Collectors.toSet());
+    }
+
+    @Test
+    void validUnitHasNoIssues() {
+        MekBuild mek = createMek();
+        addMount(mek, "Medium Laser", UnitLocation.MEK_RARM);
+        UnitValidator validator = new UnitValidator(mek);
+
+        List<ValidationIssue> issues = validator.validate();
+
+        assertAll(
+                () -> assertTrue(issues.isEmpty(), issues.toString()),
+                () -> assertTrue(validator.isValid()),
+                () -> assertEquals(StandardRule.values().length, validator.getLastRuleCount())
+        );
+    }
+
+    @Test
+    void detectsProblems() {
+        MekBuild mek = createMek();
+        for (int i = 0; i < 13; i++) {
+            addMount(mek, "Medium Laser", UnitLocation.MEK_LARM);
+        }
+        addMount(mek, "ISCASE", UnitLocation.MEK_LTORSO);
+        addMount(mek, "ISCASE", UnitLocation.MEK_LTORSO);
+        for (int i = 0; i < 30; i++) {
+            addMount(mek, "Large Laser", UnitLocation.NO_LOCATION);
+        }
+
+        Set<ValidationRule> failed = failedRules(new UnitValidator(mek).validate());
+
+        assertAll(
+                () -> assertTrue(failed.contains(StandardRule.WEIGHT_LIMIT)),
+                () -> assertTrue(failed.contains(StandardRule.SLOT_LIMIT)),
+                () -> assertTrue(failed.contains(StandardRule.LOCATION_EXCLUSIVE)),
+                () -> assertFalse(failed.contains(StandardRule.INCOMPATIBILITY))
+        );
+    }
+
+    @Test
+    void onlyAffectedRulesAreChecked() {
+        MekBuild mek = createMek();
+        Mount laser = addMount(mek, "Medium Laser", UnitLocation.MEK_RARM);
+        UnitValidator validator = new UnitValidator(mek);
+        validator.validate();
+
+        validator.validate();
+        final int unchanged = validator.getLastRuleCount();
+        laser.setLocation(UnitLocation.MEK_LARM);
+        validator.validate();
+        final int moved = validator.getLastRuleCount();
+        for (int i = 0; i < 12; i++) {
+            addMount(mek, "Medium Laser", UnitLocation.MEK_LARM);
+        }
+        final List<ValidationIssue> issues = validator.validate();
+
+        assertAll(
+                () -> assertEquals(0, unchanged),
+                () -> assertEquals(2, moved),
+                () -> assertEquals(failedRules(new UnitValidator(mek).validateAll()), failedRules(issues)),
+                () -> assertTrue(failedRules(issues).contains(StandardRule.SLOT_LIMIT))
+        );
+    }
+
+    @Test
+    void techLegalityFollowsYear() {
+        MekBuild mek = createMek();
+        addMount(mek, "ISCASE", UnitLocation.MEK_LTORSO);
+        UnitValidator validator = new UnitValidator(mek);
+        final boolean legal = validator.validate().isEmpty();
+
+        mek.setYear(2400);
+        final Set<ValidationRule> failed = failedRules(validator.validate());
+
+        assertAll(
+                () -> assertTrue(legal),
+                () -> assertTrue(failed.contains(StandardRule.TECH_LEGALITY))
+        );
+    }
+}
@@ -49,7 +49,7 @@ class HeatSinkView: View(), InvalidationListener {
     internal val lblWeightFree: Label by fxid()
     internal val lblSlotsIntegrated: Label by fxid()
 
-    val allHeatSinks = createComponentList{it.type == ComponentType.HEAT_SINK}
+    val allHeatSinks = createComponentList(ComponentType.HEAT_SINK)
 
     init {
         val hsList = SimpleListProperty<HeatSink>()
@@ -43,6 +43,15 @@ fun createComponentList(op: (Component) -> Boolean) =
                 .filter{op(it)}.sortedBy{it.shortName}
                 .sortedBy{!it.isDefault}.toList().observable()
 
+/**
+ * Creates an {@link ObservableList} of all components of the given type that match the criteria, sorted
+ * the same way as the general version. Uses the library's type index rather than scanning all components.
+ */
+fun createComponentList(type: ComponentType, op: (Component) -> Boolean = { true }) =
+        ComponentLibrary.getInstance().getComponentsOfType(type)
+                .filter{op(it)}.sortedBy{it.shortName}
+                .sortedBy{!it.isDefault}.toList().observable()
+
 /**
  * Panel for setting chassis options: tonnage, engine, cockpit, gyro, myomer
  */
@@ -60,11 +69,11 @@ class MekChassis: View(), InvalidationListener {
     internal val cbCockpit: ComboBox<Cockpit> by fxid()
     internal val cbMyomer: ComboBox<Component> by fxid()
 
-    val allStructures = createComponentList { it.type == ComponentType.MEK_STRUCTURE }
-    val allEngines = createComponentList { it.type == ComponentType.ENGINE }
-    val allGyros = createComponentList { it.type == ComponentType.GYRO }
-    val allCockpits = createComponentList { it.type == ComponentType.COCKPIT }
-    val allMyomer = createComponentList { it.type == ComponentType.MYOMER }
+    val allStructures = createComponentList(ComponentType.MEK_STRUCTURE)
+    val allEngines = createComponentList(ComponentType.ENGINE)
+    val allGyros = createComponentList(ComponentType.GYRO)
+    val allCockpits = createComponentList(ComponentType.COCKPIT)
+    val allMyomer = createComponentList(ComponentType.MYOMER)
 
     init {
         val tonnageFactory = SpinnerValueFactory.DoubleSpinnerValueFactory(